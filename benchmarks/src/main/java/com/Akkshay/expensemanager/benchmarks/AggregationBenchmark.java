@@ -0,0 +1,96 @@
+package com.Akkshay.expensemanager.benchmarks;
+
+import com.Akkshay.expensemanager.analytics.ExpenseColumnStore;
+import com.Akkshay.expensemanager.analytics.ExpenseColumns;
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.dao.MonthlyRollupDAO;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.MonthlySummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The per-category totals behind ExpenseController.updateChart and the
+ * per-month totals behind TrendsController.loadChartData.
+ *
+ * <p>The *InMemory benchmarks are the stream grouping both screens used to do
+ * over a fully loaded expense list (the load itself is measured by
+ * ExpenseDaoBenchmark.getAllExpenses); the others are the database-side
+ * category aggregate and the monthly rollup the screens use now. The *Columnar
+ * benchmarks are the same groupings as scans over {@link ExpenseColumns}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AggregationBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ExpenseDAO expenseDAO;
+    private MonthlyRollupDAO rollupDAO;
+    private List<Expense> expenses;
+    private ExpenseColumns columns;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.seed(rows);
+        expenseDAO = new ExpenseDAO();
+        rollupDAO = new MonthlyRollupDAO();
+        expenses = expenseDAO.getAllExpenses();
+        columns = ExpenseColumnStore.getInstance().getColumns();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        expenses = null;
+        columns = null;
+        BenchmarkDatabase.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Double> categoryTotalsInMemory() {
+        return expenses.stream()
+                .collect(Collectors.groupingBy(
+                        e -> e.getCategory().getCategoryName(),
+                        Collectors.summingDouble(e -> e.getAmount().toDouble())));
+    }
+
+    @Benchmark
+    public Map<String, Double> monthlySpendInMemory() {
+        return expenses.stream()
+                .collect(Collectors.groupingBy(
+                        e -> YearMonth.from(e.getExpenseDate()).toString(),
+                        Collectors.summingDouble(e -> e.getAmount().toDouble())));
+    }
+
+    @Benchmark
+    public Map<String, Money> categoryTotalsColumnar() {
+        return columns.totalsByCategory(null, null);
+    }
+
+    @Benchmark
+    public SortedMap<YearMonth, Money> monthlySpendColumnar() {
+        return columns.totalsByMonth(null, null);
+    }
+
+    @Benchmark
+    public Map<String, Money> categoryTotalsQuery() {
+        return expenseDAO.getCategoryTotals();
+    }
+
+    @Benchmark
+    public List<MonthlySummary> monthlySummariesFromRollup() {
+        return rollupDAO.getMonthlySummaries();
+    }
+}
@@ -0,0 +1,104 @@
+package com.Akkshay.expensemanager.benchmarks;
+
+import com.Akkshay.expensemanager.analytics.ExpenseColumnStore;
+import com.Akkshay.expensemanager.dao.CategoryRegistry;
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.dao.MonthlyRollupDAO;
+import com.Akkshay.expensemanager.search.ExpenseSearchIndex;
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import com.Akkshay.expensemanager.util.PersistenceProfile;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Selects the embedded persistence profile, with a fresh database under
+ * target/benchmark-db (unless a profile was chosen explicitly), and fills it
+ * with test data. Touch this class before anything that loads HibernateUtil.
+ */
+final class BenchmarkDatabase {
+
+    static final String[] CATEGORY_NAMES = {
+            "Food", "Travel", "Bills", "Entertainment", "Other", "Rent", "Groceries", "Fuel", "Health", "Insurance",
+            "Education", "Gifts", "Clothing", "Electronics", "Dining", "Subscriptions", "Utilities", "Pets", "Charity", "Savings"
+    };
+
+    // Seeded rows span this many days, i.e. a little over four years of months
+    private static final int DAYS = 1_500;
+
+    static {
+        if (System.getProperty(PersistenceProfile.PROFILE_PROPERTY) == null) {
+            Path dataDir = Path.of("target", "benchmark-db");
+            deleteDirectory(dataDir);
+            System.setProperty(PersistenceProfile.PROFILE_PROPERTY, PersistenceProfile.EMBEDDED.name());
+            System.setProperty(PersistenceProfile.DATA_DIR_PROPERTY, dataDir.toAbsolutePath().toString());
+        }
+    }
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Replaces all expenses with {@code rows} generated ones spread over the
+     * categories in {@link #CATEGORY_NAMES}, then rebuilds the monthly rollup.
+     * Rows are generated inside the database, so seeding a million takes seconds.
+     */
+    static void seed(int rows) {
+        ExpenseDAO expenseDAO = new ExpenseDAO();
+        for (String name : CATEGORY_NAMES) {
+            expenseDAO.getOrCreateCategory(name);
+        }
+
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            transaction = session.beginTransaction();
+            session.createNativeMutationQuery("DELETE FROM TBL_EXPENSES").executeUpdate();
+            session.createNativeMutationQuery(
+                    "INSERT INTO TBL_EXPENSES (expense_id, amount, expense_date, description, category_id)"
+                            + " SELECT r.X, CAST(1 + MOD(r.X * 7919, 500000) / 100.0 AS DECIMAL(10, 2)),"
+                            + " DATEADD(DAY, MOD(r.X, " + DAYS + "), DATE '2020-01-01'),"
+                            + " 'Seeded expense ' || r.X, c.category_id"
+                            + " FROM SYSTEM_RANGE(1, :rows) r"
+                            + " JOIN (SELECT category_id, ROW_NUMBER() OVER (ORDER BY category_id) - 1 AS n"
+                            + "       FROM TBL_CATEGORIES) c ON c.n = MOD(r.X, :categories)")
+                    .setParameter("rows", rows)
+                    .setParameter("categories", CATEGORY_NAMES.length)
+                    .executeUpdate();
+            // Keep Hibernate's pooled ids (allocationSize 50) clear of the seeded ones
+            session.createNativeMutationQuery("ALTER SEQUENCE SEQ_EXPENSES RESTART WITH " + (rows + 100L))
+                    .executeUpdate();
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction != null) transaction.rollback();
+            throw e;
+        }
+
+        new MonthlyRollupDAO().rebuild();
+        CategoryRegistry.getInstance().invalidate();
+        ExpenseColumnStore.getInstance().invalidate();
+        ExpenseSearchIndex.getInstance().invalidate();
+    }
+
+    static void shutdown() {
+        HibernateUtil.shutdown();
+    }
+
+    private static void deleteDirectory(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clear " + dir, e);
+        }
+    }
+}
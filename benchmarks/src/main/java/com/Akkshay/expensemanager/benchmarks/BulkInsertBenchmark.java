@@ -0,0 +1,67 @@
+package com.Akkshay.expensemanager.benchmarks;
+
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.model.Category;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput of the per-row path (ExpenseDAO.saveExpense, one session
+ * and transaction per row) against the batched ExpenseDAO.saveExpenses.
+ * Scores are rows per second. Runs against the embedded benchmark database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private ExpenseDAO expenseDAO;
+    private Category category;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.seed(0);
+        expenseDAO = new ExpenseDAO();
+        category = expenseDAO.getOrCreateCategory("Benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void perRowInsert() {
+        for (Expense expense : newExpenses()) {
+            expenseDAO.saveExpense(expense);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void batchedInsert() {
+        expenseDAO.saveExpenses(newExpenses());
+    }
+
+    private List<Expense> newExpenses() {
+        List<Expense> expenses = new ArrayList<>(ROWS);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < ROWS; i++) {
+            expenses.add(new Expense(Money.ofMinor(100 + i % 5000), start.plusDays(i % 1500),
+                    "benchmark row " + i, category));
+        }
+        return expenses;
+    }
+}
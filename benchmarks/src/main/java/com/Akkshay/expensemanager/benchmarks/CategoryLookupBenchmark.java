@@ -0,0 +1,71 @@
+package com.Akkshay.expensemanager.benchmarks;
+
+import com.Akkshay.expensemanager.dao.CategoryRegistry;
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.model.Category;
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category lookups as the controllers and the CSV importer issue them.
+ * The lookups go through CategoryRegistry; queryByName is the per-call
+ * database lookup they replaced, kept as a baseline.
+ * Category lookups do not depend on the number of expenses, so this runs once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class CategoryLookupBenchmark {
+
+    private ExpenseDAO expenseDAO;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.seed(10_000);
+        expenseDAO = new ExpenseDAO();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.shutdown();
+    }
+
+    @Benchmark
+    public List<Category> getAllCategories() {
+        return expenseDAO.getAllCategories();
+    }
+
+    @Benchmark
+    public Category getOrCreateExisting() {
+        // Typed names rarely match the stored case
+        return expenseDAO.getOrCreateCategory(nextName().toUpperCase(Locale.ROOT));
+    }
+
+    @Benchmark
+    public Category registryFind() {
+        return CategoryRegistry.getInstance().find(nextName());
+    }
+
+    @Benchmark
+    public Category queryByName() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery("FROM Category c WHERE lower(c.categoryName) = :name", Category.class)
+                    .setParameter("name", nextName().toLowerCase(Locale.ROOT))
+                    .uniqueResult();
+        }
+    }
+
+    private String nextName() {
+        String[] names = BenchmarkDatabase.CATEGORY_NAMES;
+        return names[next++ % names.length];
+    }
+}
@@ -0,0 +1,62 @@
+package com.Akkshay.expensemanager.benchmarks;
+
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.dao.SortDirection;
+import com.Akkshay.expensemanager.model.Category;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExpenseDAO reads and writes against tables of 10k, 100k and 1M expenses.
+ * getAllExpenses is the full-table load the screens used before paging;
+ * firstPage is what ExpensePager issues instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExpenseDaoBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ExpenseDAO expenseDAO;
+    private Category category;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.seed(rows);
+        expenseDAO = new ExpenseDAO();
+        category = expenseDAO.getOrCreateCategory("Food");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.shutdown();
+    }
+
+    @Benchmark
+    public void saveExpense() {
+        long n = counter++;
+        expenseDAO.saveExpense(new Expense(Money.ofMinor(100 + n % 5000),
+                LocalDate.of(2024, 1, 1).plusDays(n % 365), "benchmark row " + n, category));
+    }
+
+    @Benchmark
+    public List<Expense> getAllExpenses() {
+        return expenseDAO.getAllExpenses();
+    }
+
+    @Benchmark
+    public List<Expense> firstPage() {
+        return expenseDAO.getExpensePage(null, 100, SortDirection.DESCENDING);
+    }
+}
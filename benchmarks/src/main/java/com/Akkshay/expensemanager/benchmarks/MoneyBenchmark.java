@@ -0,0 +1,85 @@
+package com.Akkshay.expensemanager.benchmarks;
+
+import com.Akkshay.expensemanager.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Summing amounts as BigDecimal (the old reduce(BigDecimal.ZERO, BigDecimal::add)
+ * of the summary screens), as double (the old summingDouble of the charts) and
+ * as {@link Money}. Plain in-memory work, no database. Scores are passes over
+ * the whole list per second; the gc profiler shows what each pass allocates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int CATEGORIES = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<BigDecimal> decimals;
+    private List<Money> amounts;
+    private String[] categories;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        decimals = new ArrayList<>(size);
+        amounts = new ArrayList<>(size);
+        categories = new String[size];
+        for (int i = 0; i < size; i++) {
+            // Up to 99,999.99, like the precision 10 amount columns in practice
+            long paise = 1 + random.nextInt(10_000_000);
+            decimals.add(BigDecimal.valueOf(paise, 2));
+            amounts.add(Money.ofMinor(paise));
+            categories[i] = "Category " + random.nextInt(CATEGORIES);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        return decimals.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public double sumDouble() {
+        return decimals.stream().collect(Collectors.summingDouble(BigDecimal::doubleValue));
+    }
+
+    @Benchmark
+    public Money sumMoney() {
+        return Money.sum(amounts, amount -> amount);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> groupBigDecimal() {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            totals.merge(categories[i], decimals.get(i), BigDecimal::add);
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<String, Money> groupMoney() {
+        Map<String, Money> totals = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            totals.merge(categories[i], amounts.get(i), Money::plus);
+        }
+        return totals;
+    }
+}
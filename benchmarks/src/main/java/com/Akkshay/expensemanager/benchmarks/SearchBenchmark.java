@@ -0,0 +1,68 @@
+package com.Akkshay.expensemanager.benchmarks;
+
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.search.ExpenseSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding expenses by description. The *Scan benchmark is the only way there
+ * was before the search index: a case-insensitive contains over every loaded
+ * expense. The others ask {@link ExpenseSearchIndex} for a prefix, a typo
+ * and two words. The seeded descriptions are "Seeded expense N".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private ExpenseSearchIndex searchIndex;
+    private List<Expense> expenses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.seed(rows);
+        expenses = new ExpenseDAO().getAllExpenses();
+        searchIndex = ExpenseSearchIndex.getInstance();
+        // Builds the index
+        searchIndex.search("seeded");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        expenses = null;
+        BenchmarkDatabase.shutdown();
+    }
+
+    @Benchmark
+    public long descriptionScan() {
+        return expenses.stream()
+                .filter(e -> e.getDescription().toLowerCase(Locale.ROOT).contains("4242"))
+                .count();
+    }
+
+    @Benchmark
+    public long[] prefixSearch() {
+        return searchIndex.search("4242");
+    }
+
+    @Benchmark
+    public long[] fuzzySearch() {
+        return searchIndex.search("sedeed 4242");
+    }
+
+    @Benchmark
+    public long[] twoWordSearch() {
+        return searchIndex.search("expense 4242");
+    }
+}
@@ -1,23 +1,103 @@
 package com.Akkshay.expensemanager;
 
+import com.Akkshay.expensemanager.controller.MainController;
+import com.Akkshay.expensemanager.dao.CategoryRegistry;
+import com.Akkshay.expensemanager.journal.WriteJournal;
+import com.Akkshay.expensemanager.search.ExpenseSearchIndex;
+import com.Akkshay.expensemanager.snapshot.LocalSnapshot;
+import com.Akkshay.expensemanager.util.DbExecutor;
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import com.Akkshay.expensemanager.util.StartupTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.jboss.logging.Logger;
 
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Shows the window first and warms everything else up behind it. The
+ * SessionFactory starts building in {@link #init()}, while JavaFX is still
+ * starting; the Home view opens with last run's totals from the
+ * {@link LocalSnapshot}, or with placeholders until its totals arrive. The
+ * phases are timed and logged once the app is interactive, i.e. all views
+ * are loaded and the database, categories and search index are ready.
+ */
 public class MainApp extends Application {
 
+    private static final Logger LOG = Logger.getLogger(MainApp.class);
+
+    @Override
+    public void init() {
+        StartupTimer.mark("JavaFX toolkit ready");
+        HibernateUtil.startBuilding();
+        // Lets the first screens show last run's data before the database is up
+        LocalSnapshot.getInstance().load();
+        // Starts replaying whatever the last run left in the journal
+        WriteJournal.getInstance();
+    }
+
     @Override
     public void start(Stage primaryStage) throws IOException {
-        Parent root = FXMLLoader.load(
+        FXMLLoader loader = new FXMLLoader(
                 Objects.requireNonNull(getClass().getResource("/com/Akkshay/expensemanager/view/MainLayout.fxml")));
+        Parent root = loader.load();
+        StartupTimer.mark("Main layout and Home view loaded");
+        Scene scene = new Scene(root, 900, 600);
         primaryStage.setTitle("Personal Expense Manager");
-        primaryStage.setScene(new Scene(root, 900, 600));
+        primaryStage.setScene(scene);
         primaryStage.show();
+        markFirstFrame(scene);
+
+        // Both wait for the SessionFactory; they then run side by side with the view preloading
+        CompletableFuture<Void> categories = HibernateUtil.whenReady()
+                .thenCompose(factory -> DbExecutor.submit(
+                        () -> StartupTimer.time("Categories", CategoryRegistry.getInstance()::getAll)))
+                .thenAccept(loaded -> { });
+        CompletableFuture<Void> searchIndex = HibernateUtil.whenReady()
+                .thenCompose(factory -> DbExecutor.submit(
+                        () -> StartupTimer.time("Search index", () -> ExpenseSearchIndex.getInstance().preload().join())));
+        CompletableFuture<Void> localSync = HibernateUtil.whenReady()
+                .thenCompose(factory -> DbExecutor.submit(
+                        () -> StartupTimer.time("Snapshot sync", LocalSnapshot.getInstance()::sync)));
+        CompletableFuture<Void> views = loader.<MainController>getController().preloadViews();
+
+        CompletableFuture.allOf(categories, searchIndex, localSync, views)
+                .whenComplete((ignored, e) -> Platform.runLater(() -> {
+                    long at = StartupTimer.mark("Interactive");
+                    LOG.infof("Startup interactive after %d ms%s:%s", at,
+                            e != null ? " (with errors: " + e.getMessage() + ")" : "", StartupTimer.report());
+                }));
+    }
+
+    @Override
+    public void stop() {
+        // Let queued database work finish before the connection pool goes away
+        DbExecutor.shutdown();
+        // Gives journaled writes a last chance to reach the database; the rest wait for the next start
+        WriteJournal.getInstance().close();
+        LocalSnapshot.getInstance().save();
+        // Saves rebuilding the index on the next start
+        ExpenseSearchIndex.getInstance().save();
+        HibernateUtil.shutdown();
+    }
+
+    /** Records the first pulse that lays the scene out, right before it is first drawn. */
+    private static void markFirstFrame(Scene scene) {
+        Runnable listener = new Runnable() {
+            @Override
+            public void run() {
+                StartupTimer.mark("First frame");
+                // Not from inside the pulse, which is going through the listeners
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
+            }
+        };
+        scene.addPostLayoutPulseListener(listener);
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,303 @@
+package com.Akkshay.expensemanager.analytics;
+
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.util.DbExecutor;
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Keeps one {@link ExpenseColumns} in step with TBL_EXPENSES.
+ *
+ * <p>The columns are read from the database once, streamed through a cursor
+ * without building entities. After that each expense change published by the
+ * DAOs patches its row by expense_id, and bulk inserts are read back by the
+ * ids their event carries. Ids say nothing about commit order (a pooled
+ * sequence hands out blocks, and a lower id can commit last), so other bulk
+ * changes are caught up on by modified_at instead: every row modified since
+ * shortly before the previous read. Loading, refreshes and changes all run on
+ * one thread in the order they arrive, so a row read from the database is
+ * never overwritten by an older change.
+ *
+ * <p>Instead of the first read, the columns can be restored from a local
+ * snapshot and then synced: only rows added or modified since the snapshot
+ * are read, and ids are compared only if the row count says some were deleted.
+ */
+public class ExpenseColumnStore {
+
+    private static final ExpenseColumnStore INSTANCE = new ExpenseColumnStore();
+
+    private static final int FETCH_SIZE = 1_000;
+    // Ids per IN list; Oracle allows at most 1000
+    private static final int IDS_PER_QUERY = 1_000;
+    // Writes commit some time after they stamp modified_at, so each catch-up reaches back this far
+    private static final Duration MODIFIED_OVERLAP = Duration.ofMinutes(10);
+    private static final String COUNT_ROWS = "SELECT COUNT(e) FROM Expense e";
+    private static final String LAST_MODIFIED = "SELECT MAX(e.modifiedAt) FROM Expense e";
+    private static final String ALL_ROWS =
+            "SELECT e.expenseId, e.expenseDate, e.amount, c.categoryName, e.description "
+                    + "FROM Expense e JOIN e.category c ORDER BY e.expenseId";
+    private static final String ROWS_WITH_IDS =
+            "SELECT e.expenseId, e.expenseDate, e.amount, e.category.categoryId, e.description "
+                    + "FROM Expense e WHERE e.expenseId IN :ids";
+    // Without the join, which can lead a planner to walk every expense per category instead of the index
+    private static final String ROWS_MODIFIED_SINCE =
+            "SELECT e.expenseId, e.expenseDate, e.amount, e.category.categoryId, e.description "
+                    + "FROM Expense e WHERE e.modifiedAt >= :since";
+    private static final String CATEGORY_NAMES = "SELECT c.categoryId, c.categoryName FROM Category c";
+    private static final String ALL_IDS = "SELECT e.expenseId FROM Expense e ORDER BY e.expenseId";
+
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expense-columns");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile ExpenseColumns columns;
+    // Latest modified_at in the table before the last full read or catch-up, null if unknown;
+    // only used on the updater thread
+    private Instant modifiedMark;
+
+    private ExpenseColumnStore() {
+        ChangeEventBus.getInstance().subscribe(Expense.class, updater, this::onExpenseChanged);
+    }
+
+    public static ExpenseColumnStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The columns, read from the database on first use. Blocks while they
+     * load; the FX thread should use {@link #getColumnsAsync()}.
+     */
+    public ExpenseColumns getColumns() {
+        ExpenseColumns current = columns;
+        if (current != null) {
+            return current;
+        }
+        return CompletableFuture.supplyAsync(this::loadIfNeeded, updater).join();
+    }
+
+    /** Like {@link #getColumns()}, completing on the FX thread once the columns are loaded. */
+    public CompletableFuture<ExpenseColumns> getColumnsAsync() {
+        ExpenseColumns current = columns;
+        if (current != null) {
+            return CompletableFuture.completedFuture(current);
+        }
+        return DbExecutor.submit(this::getColumns);
+    }
+
+    /**
+     * Reads expenses added, changed or deleted since the last read, e.g. by
+     * another process. Changes made through the DAOs of this process arrive
+     * without it.
+     */
+    public CompletableFuture<Void> refresh() {
+        return CompletableFuture.runAsync(() -> {
+            ExpenseColumns current = columns;
+            if (current != null) {
+                catchUp(current);
+            }
+        }, updater);
+    }
+
+    /**
+     * Drops the columns so the next {@link #getColumns()} reads them again,
+     * e.g. after rows were changed or deleted outside the DAOs.
+     */
+    public void invalidate() {
+        updater.execute(() -> columns = null);
+    }
+
+    /**
+     * Uses columns read from a snapshot file, starting at the position,
+     * unless columns are loaded already. The file is read on the calling
+     * thread; the future completes once the columns are in use.
+     */
+    public CompletableFuture<Void> restore(FileChannel snapshot, long position) throws IOException {
+        ExpenseColumns restored = ExpenseColumns.readFrom(snapshot, position);
+        return CompletableFuture.runAsync(() -> {
+            if (columns == null) {
+                columns = restored;
+                // Until syncModifiedSince says how recent the snapshot is
+                modifiedMark = null;
+            }
+        }, updater);
+    }
+
+    /**
+     * Catches restored columns up with the table: reads the rows added or
+     * modified at or after {@code since} and drops deleted rows. Without
+     * restored columns it loads them in full instead, which counts as no
+     * change.
+     *
+     * @return how many rows were added, changed or dropped
+     */
+    public CompletableFuture<Integer> syncModifiedSince(Instant since) {
+        return CompletableFuture.supplyAsync(() -> {
+            ExpenseColumns current = columns;
+            if (current == null) {
+                loadIfNeeded();
+                return 0;
+            }
+            return readModifiedSince(current, since);
+        }, updater);
+    }
+
+    /**
+     * Writes the columns to the file at the position, as they are once every
+     * change published so far is applied.
+     *
+     * @return the position right after them, or -1 if the columns are not loaded
+     */
+    public long writeSnapshot(FileChannel channel, long position) throws IOException {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                ExpenseColumns current = columns;
+                if (current == null) {
+                    return -1L;
+                }
+                try {
+                    return current.writeTo(channel, position);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, updater).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private ExpenseColumns loadIfNeeded() {
+        if (columns == null) {
+            try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+                long rows = session.createQuery(COUNT_ROWS, Long.class).getSingleResult();
+                ExpenseColumns loaded = new ExpenseColumns((int) rows);
+                modifiedMark = session.createQuery(LAST_MODIFIED, Instant.class).getSingleResult();
+                upsertAll(loaded, session.createQuery(ALL_ROWS, Object[].class), String.class::cast);
+                columns = loaded;
+            }
+        }
+        return columns;
+    }
+
+    private void onExpenseChanged(ChangeEvent<Expense> event) {
+        ExpenseColumns current = columns;
+        if (current == null) {
+            // Not loaded yet; the load will see the change
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED, UPDATED -> put(current, event.getNewValue());
+            case DELETED -> current.remove(event.getOldValue().getExpenseId());
+            case BULK_CHANGE -> {
+                long[] ids = event.getIds();
+                if (ids != null) {
+                    readIds(current, ids);
+                } else {
+                    catchUp(current);
+                }
+            }
+        }
+    }
+
+    private static void put(ExpenseColumns columns, Expense expense) {
+        columns.upsert(expense.getExpenseId(), expense.getExpenseDate(), expense.getAmount(),
+                expense.getCategoryName(), expense.getDescription());
+    }
+
+    /** Reads the rows with these ids again; ids whose row is gone by now are skipped. */
+    private void readIds(ExpenseColumns target, long[] ids) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            Map<Long, String> categoryNames = categoryNames(session);
+            for (int from = 0; from < ids.length; from += IDS_PER_QUERY) {
+                List<Long> chunk = Arrays.stream(ids, from, Math.min(ids.length, from + IDS_PER_QUERY))
+                        .boxed()
+                        .toList();
+                upsertAll(target, session.createQuery(ROWS_WITH_IDS, Object[].class).setParameter("ids", chunk),
+                        categoryNames::get);
+            }
+        }
+    }
+
+    /** Reads what changed since shortly before the last read, or everything if that is not known. */
+    private void catchUp(ExpenseColumns target) {
+        Instant mark = modifiedMark;
+        readModifiedSince(target, mark != null ? mark.minus(MODIFIED_OVERLAP) : Instant.EPOCH);
+    }
+
+    /**
+     * Upserts the rows modified at or after {@code since} and drops the rows
+     * that were deleted, moving {@link #modifiedMark} on.
+     *
+     * @return how many rows were added, changed or dropped
+     */
+    private int readModifiedSince(ExpenseColumns target, Instant since) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            // Taken first: rows modified while this runs are read again by the next catch-up
+            Instant mark = session.createQuery(LAST_MODIFIED, Instant.class).getSingleResult();
+            int changed = upsertAll(target, session.createQuery(ROWS_MODIFIED_SINCE, Object[].class)
+                    .setParameter("since", since), categoryNames(session)::get);
+            long rows = session.createQuery(COUNT_ROWS, Long.class).getSingleResult();
+            if (rows != target.size()) {
+                long[] ids = session.createQuery(ALL_IDS, Long.class)
+                        .setFetchSize(FETCH_SIZE)
+                        .getResultStream()
+                        .mapToLong(Long::longValue)
+                        .toArray();
+                changed += target.retainOnly(ids);
+            }
+            if (mark != null) {
+                modifiedMark = mark;
+            }
+            return changed;
+        }
+    }
+
+    private static Map<Long, String> categoryNames(StatelessSession session) {
+        Map<Long, String> categoryNames = new HashMap<>();
+        for (Object[] row : session.createQuery(CATEGORY_NAMES, Object[].class).list()) {
+            categoryNames.put((Long) row[0], (String) row[1]);
+        }
+        return categoryNames;
+    }
+
+    /** Upserts the rows of the query, whose fourth column categoryOf turns into the category name. */
+    private static int upsertAll(ExpenseColumns target, SelectionQuery<Object[]> query,
+                                 Function<Object, String> categoryOf) {
+        int changed = 0;
+        try (ScrollableResults<Object[]> rows = query.setFetchSize(FETCH_SIZE).scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                long id = (Long) row[0];
+                if (target.upsert(id, (LocalDate) row[1], (Money) row[2], categoryOf.apply(row[3]), (String) row[4])) {
+                    changed++;
+                }
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,524 @@
+package com.Akkshay.expensemanager.analytics;
+
+import com.Akkshay.expensemanager.model.Money;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The expense table held column by column in primitive arrays: the id, the
+ * date as an epoch day, the amount in paise, and the category and description
+ * as codes into a {@link StringDictionary}. A row costs 28 bytes of array
+ * space instead of an Expense with its own LocalDate, Money and String, and a
+ * scan walks a few dense arrays without touching an object.
+ *
+ * <p>Rows are kept sorted by id, so a row is found by binary search and new
+ * expenses, whose ids come from a sequence, are appended at the end. The scans
+ * are flat loops over the arrays, mostly free of branches, which the JIT can
+ * unroll and vectorize. Sums are plain long additions: even a million rows at
+ * the largest amount the columns hold stay far below overflow.
+ *
+ * <p>Safe for concurrent use: scans share a read lock, changes take the write
+ * lock. Changes come from {@link ExpenseColumnStore}.
+ *
+ * <p>The columns can be written to a file region and read back as they are:
+ * each array is stored whole, little-endian, and copied back out of a mapping
+ * of the file in bulk, so loading a snapshot costs about as much as reading
+ * the file.
+ */
+public class ExpenseColumns {
+
+    private static final int MIN_CAPACITY = 1_024;
+    // ids, days, amounts, categories, descriptions
+    private static final int ROW_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int WRITE_CHUNK_BYTES = 1 << 20;
+    // Below the 2 GB a single mapping can cover, and a multiple of every column's element size
+    private static final int MAX_MAP_BYTES = 1 << 30;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringDictionary categoryNames;
+    private final StringDictionary descriptionTexts;
+
+    private long[] ids;
+    private int[] days;
+    private long[] amounts;
+    private int[] categories;
+    private int[] descriptions;
+    private int size;
+
+    ExpenseColumns(int initialCapacity) {
+        this(initialCapacity, new StringDictionary(), new StringDictionary());
+    }
+
+    private ExpenseColumns(int initialCapacity, StringDictionary categoryNames, StringDictionary descriptionTexts) {
+        this.categoryNames = categoryNames;
+        this.descriptionTexts = descriptionTexts;
+        int capacity = Math.max(initialCapacity, MIN_CAPACITY);
+        ids = new long[capacity];
+        days = new int[capacity];
+        amounts = new long[capacity];
+        categories = new int[capacity];
+        descriptions = new int[capacity];
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Total spent between two dates, both inclusive.
+     *
+     * @param from first day, or null for no lower bound
+     * @param to   last day, or null for no upper bound
+     */
+    public Money total(LocalDate from, LocalDate to) {
+        int lo = firstDay(from);
+        int hi = lastDay(to);
+        lock.readLock().lock();
+        try {
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                int day = days[i];
+                sum += day >= lo & day <= hi ? amounts[i] : 0;
+            }
+            return Money.ofMinor(sum);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Total spent per category between two dates, both inclusive, largest
+     * first. Categories without expenses in the range are left out.
+     */
+    public Map<String, Money> totalsByCategory(LocalDate from, LocalDate to) {
+        int lo = firstDay(from);
+        int hi = lastDay(to);
+        lock.readLock().lock();
+        try {
+            int categoryCount = categoryNames.size();
+            long[] sums = new long[categoryCount];
+            int[] counts = new int[categoryCount];
+            for (int i = 0; i < size; i++) {
+                int day = days[i];
+                int hit = day >= lo & day <= hi ? 1 : 0;
+                sums[categories[i]] += amounts[i] * hit;
+                counts[categories[i]] += hit;
+            }
+
+            Integer[] order = new Integer[categoryCount];
+            for (int c = 0; c < categoryCount; c++) {
+                order[c] = c;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(sums[b], sums[a]));
+            Map<String, Money> totals = new LinkedHashMap<>();
+            for (int c : order) {
+                if (counts[c] > 0) {
+                    totals.put(categoryNames.decode(c), Money.ofMinor(sums[c]));
+                }
+            }
+            return totals;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Total spent per calendar month between two dates, both inclusive, in
+     * month order. Months without expenses in the range are left out.
+     */
+    public SortedMap<YearMonth, Money> totalsByMonth(LocalDate from, LocalDate to) {
+        int lo = firstDay(from);
+        int hi = lastDay(to);
+        lock.readLock().lock();
+        try {
+            // First pass finds the span of months, so the second can add into a flat array
+            int minDay = Integer.MAX_VALUE;
+            int maxDay = Integer.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                int day = days[i];
+                boolean hit = day >= lo & day <= hi;
+                minDay = Math.min(minDay, hit ? day : Integer.MAX_VALUE);
+                maxDay = Math.max(maxDay, hit ? day : Integer.MIN_VALUE);
+            }
+            SortedMap<YearMonth, Money> totals = new TreeMap<>();
+            if (minDay > maxDay) {
+                return totals;
+            }
+
+            // Month of each day in the span, looked up per row instead of computed
+            int firstMonth = monthIndex(minDay);
+            int monthCount = monthIndex(maxDay) - firstMonth + 1;
+            int[] monthOfDay = new int[maxDay - minDay + 1];
+            for (int d = 0; d < monthOfDay.length; d++) {
+                monthOfDay[d] = monthIndex(minDay + d) - firstMonth;
+            }
+            long[] sums = new long[monthCount];
+            int[] counts = new int[monthCount];
+            for (int i = 0; i < size; i++) {
+                int day = days[i];
+                if (day >= lo & day <= hi) {
+                    int month = monthOfDay[day - minDay];
+                    sums[month] += amounts[i];
+                    counts[month]++;
+                }
+            }
+
+            for (int m = 0; m < monthCount; m++) {
+                if (counts[m] > 0) {
+                    int month = firstMonth + m;
+                    totals.put(YearMonth.of(Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1),
+                            Money.ofMinor(sums[m]));
+                }
+            }
+            return totals;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the expenses matching every given condition, in id order.
+     *
+     * @param from       first day, or null for no lower bound
+     * @param to         last day, or null for no upper bound
+     * @param categories category names to keep, or null for all
+     * @param text       text the description must contain, ignoring case, or null for any
+     */
+    public long[] findIds(LocalDate from, LocalDate to, Collection<String> categories, String text) {
+        int lo = firstDay(from);
+        int hi = lastDay(to);
+        lock.readLock().lock();
+        try {
+            // Each distinct category and description is tested once, then rows only compare codes
+            boolean[] categoryOk = new boolean[categoryNames.size()];
+            for (int c = 0; c < categoryOk.length; c++) {
+                categoryOk[c] = categories == null || categories.contains(categoryNames.decode(c));
+            }
+            boolean[] descriptionOk = new boolean[descriptionTexts.size()];
+            String needle = text != null ? text.toLowerCase(Locale.ROOT) : null;
+            for (int d = 0; d < descriptionOk.length; d++) {
+                String description = descriptionTexts.decode(d);
+                descriptionOk[d] = needle == null
+                        || description != null && description.toLowerCase(Locale.ROOT).contains(needle);
+            }
+
+            int[] rows = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int day = days[i];
+                rows[count] = i;
+                count += day >= lo & day <= hi & categoryOk[this.categories[i]] & descriptionOk[descriptions[i]] ? 1 : 0;
+            }
+            long[] found = new long[count];
+            for (int k = 0; k < count; k++) {
+                found[k] = ids[rows[k]];
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Changes, made by ExpenseColumnStore --- //
+
+    /**
+     * Adds the expense, or overwrites the row with the same id.
+     *
+     * @return false if the row was there already with these very values
+     */
+    boolean upsert(long id, LocalDate date, Money amount, String category, String description) {
+        int day = (int) date.toEpochDay();
+        long minorUnits = amount.getMinorUnits();
+        lock.writeLock().lock();
+        try {
+            int categoryCode = categoryNames.encode(category);
+            int descriptionCode = descriptionTexts.encode(description);
+            int row = find(id);
+            if (row >= 0) {
+                if (days[row] == day && amounts[row] == minorUnits
+                        && categories[row] == categoryCode && descriptions[row] == descriptionCode) {
+                    return false;
+                }
+            } else {
+                row = -row - 1;
+                ensureCapacity(size + 1);
+                if (row < size) {
+                    // An id below the last one, e.g. from a transaction that committed late
+                    shift(row, row + 1, size - row);
+                }
+                size++;
+            }
+            ids[row] = id;
+            days[row] = day;
+            amounts[row] = minorUnits;
+            categories[row] = categoryCode;
+            descriptions[row] = descriptionCode;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops the expense with this id, if present. */
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = find(id);
+            if (row >= 0) {
+                shift(row + 1, row, size - row - 1);
+                size--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every row whose id is not in the given ascending ids, in one pass.
+     *
+     * @return how many rows were dropped
+     */
+    int retainOnly(long[] sortedIds) {
+        lock.writeLock().lock();
+        try {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                while (j < sortedIds.length && sortedIds[j] < ids[i]) {
+                    j++;
+                }
+                if (j < sortedIds.length && sortedIds[j] == ids[i]) {
+                    if (kept != i) {
+                        shift(i, kept, 1);
+                    }
+                    kept++;
+                }
+            }
+            int dropped = size - kept;
+            size = kept;
+            return dropped;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Highest id held, or 0 when empty. */
+    long maxId() {
+        lock.readLock().lock();
+        try {
+            return size > 0 ? ids[size - 1] : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Snapshot: the row count, each column in turn, then both dictionaries --- //
+
+    /**
+     * Writes the columns to the file at the position, each array in chunks
+     * through one small buffer rather than the whole table in one.
+     *
+     * @return the position right after them
+     */
+    long writeTo(FileChannel channel, long position) throws IOException {
+        lock.readLock().lock();
+        try {
+            ByteBuffer chunk = ByteBuffer.allocate(WRITE_CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            chunk.putInt(size).flip();
+            position = write(channel, position, chunk);
+            position = writeLongs(channel, position, ids, chunk);
+            position = writeInts(channel, position, days, chunk);
+            position = writeLongs(channel, position, amounts, chunk);
+            position = writeInts(channel, position, categories, chunk);
+            position = writeInts(channel, position, descriptions, chunk);
+            position = writeDictionary(channel, position, categoryNames);
+            return writeDictionary(channel, position, descriptionTexts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads what {@link #writeTo} wrote at the position. Each array is copied
+     * straight out of its own mapping of the file, at most
+     * {@value #MAX_MAP_BYTES} bytes at a time, so nothing but the arrays
+     * themselves is allocated and the file may be larger than one mapping can
+     * be. The mappings are released once collected; the file stays open until
+     * then on some platforms, which is why {@code LocalSnapshot} never writes
+     * over the file it read.
+     */
+    static ExpenseColumns readFrom(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, position + header.position()) < 0) {
+                throw new EOFException("Expense columns cut short at " + position);
+            }
+        }
+        int size = header.flip().getInt();
+        long columnsAt = position + Integer.BYTES;
+        // The dictionaries follow the columns, but the constructor needs them first
+        long dictionariesAt = columnsAt + (long) size * ROW_BYTES;
+        StringDictionary categoryNames;
+        StringDictionary descriptionTexts;
+        try {
+            ByteBuffer in = map(channel, dictionariesAt, Math.min(channel.size() - dictionariesAt, MAX_MAP_BYTES));
+            categoryNames = StringDictionary.readFrom(in);
+            long descriptionsAt = dictionariesAt + in.position();
+            in = map(channel, descriptionsAt, Math.min(channel.size() - descriptionsAt, MAX_MAP_BYTES));
+            descriptionTexts = StringDictionary.readFrom(in);
+        } catch (BufferUnderflowException e) {
+            throw new EOFException("Expense columns cut short in the dictionaries after " + dictionariesAt);
+        }
+
+        // Room for some new expenses before the first copy
+        ExpenseColumns columns = new ExpenseColumns(size + (size >> 3), categoryNames, descriptionTexts);
+        long at = columnsAt;
+        at = readLongs(channel, at, columns.ids, size);
+        at = readInts(channel, at, columns.days, size);
+        at = readLongs(channel, at, columns.amounts, size);
+        at = readInts(channel, at, columns.categories, size);
+        readInts(channel, at, columns.descriptions, size);
+        columns.size = size;
+        return columns;
+    }
+
+    private long writeLongs(FileChannel channel, long position, long[] values, ByteBuffer chunk) throws IOException {
+        for (int from = 0; from < size; ) {
+            int count = Math.min(size - from, WRITE_CHUNK_BYTES / Long.BYTES);
+            chunk.clear();
+            chunk.asLongBuffer().put(values, from, count);
+            chunk.limit(count * Long.BYTES);
+            position = write(channel, position, chunk);
+            from += count;
+        }
+        return position;
+    }
+
+    private long writeInts(FileChannel channel, long position, int[] values, ByteBuffer chunk) throws IOException {
+        for (int from = 0; from < size; ) {
+            int count = Math.min(size - from, WRITE_CHUNK_BYTES / Integer.BYTES);
+            chunk.clear();
+            chunk.asIntBuffer().put(values, from, count);
+            chunk.limit(count * Integer.BYTES);
+            position = write(channel, position, chunk);
+            from += count;
+        }
+        return position;
+    }
+
+    private static long writeDictionary(FileChannel channel, long position, StringDictionary dictionary)
+            throws IOException {
+        byte[][] encoded = dictionary.toUtf8();
+        ByteBuffer out = ByteBuffer.allocate(Math.toIntExact(StringDictionary.byteSize(encoded)))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        StringDictionary.write(out, encoded);
+        return write(channel, position, out.flip());
+    }
+
+    private static long write(FileChannel channel, long position, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+        return position;
+    }
+
+    private static long readLongs(FileChannel channel, long position, long[] target, int count) throws IOException {
+        for (int from = 0; from < count; ) {
+            int length = Math.min(count - from, MAX_MAP_BYTES / Long.BYTES);
+            map(channel, position, (long) length * Long.BYTES).asLongBuffer().get(target, from, length);
+            position += (long) length * Long.BYTES;
+            from += length;
+        }
+        return position;
+    }
+
+    private static long readInts(FileChannel channel, long position, int[] target, int count) throws IOException {
+        for (int from = 0; from < count; ) {
+            int length = Math.min(count - from, MAX_MAP_BYTES / Integer.BYTES);
+            map(channel, position, (long) length * Integer.BYTES).asIntBuffer().get(target, from, length);
+            position += (long) length * Integer.BYTES;
+            from += length;
+        }
+        return position;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        if (length < 0 || position + length > channel.size()) {
+            throw new EOFException("Expense columns cut short at " + position);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private int find(long id) {
+        if (size > 0 && id > ids[size - 1]) {
+            return -size - 1;
+        }
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(days, from, days, to, length);
+        System.arraycopy(amounts, from, amounts, to, length);
+        System.arraycopy(categories, from, categories, to, length);
+        System.arraycopy(descriptions, from, descriptions, to, length);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(needed, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        days = Arrays.copyOf(days, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+
+    private static int firstDay(LocalDate from) {
+        return from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE;
+    }
+
+    private static int lastDay(LocalDate to) {
+        return to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+    }
+
+    /**
+     * year * 12 + month - 1 for an epoch day, with integer arithmetic only
+     * (the days-to-civil algorithm from Howard Hinnant's chrono notes), so
+     * grouping by month needs no LocalDate per day.
+     */
+    static int monthIndex(int epochDay) {
+        int z = epochDay + 719_468;
+        int era = (z >= 0 ? z : z - 146_096) / 146_097;
+        int dayOfEra = z - era * 146_097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+}
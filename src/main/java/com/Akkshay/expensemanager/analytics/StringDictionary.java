@@ -0,0 +1,97 @@
+package com.Akkshay.expensemanager.analytics;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps each distinct string to a small int code, handed out in order of
+ * first appearance. A column then stores one int per row and every distinct
+ * value exists once. Codes are never reused, so a code stays valid after the
+ * rows that used it are gone. {@code null} is a value like any other.
+ * Not thread-safe; {@link ExpenseColumns} guards it with its lock.
+ */
+class StringDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /** Code of the value, adding it if it is new. */
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /** Code of the value, or -1 if it was never encoded. */
+    int lookup(String value) {
+        return codes.getOrDefault(value, -1);
+    }
+
+    String decode(int code) {
+        return values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    // --- Snapshot: the count, then each value in code order as a length and UTF-8, -1 for null --- //
+
+    /** The values in code order as UTF-8, for {@link #byteSize} and {@link #write}. */
+    byte[][] toUtf8() {
+        byte[][] encoded = new byte[values.size()][];
+        for (int code = 0; code < encoded.length; code++) {
+            String value = values.get(code);
+            encoded[code] = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+        }
+        return encoded;
+    }
+
+    static long byteSize(byte[][] encoded) {
+        long bytes = Integer.BYTES;
+        for (byte[] value : encoded) {
+            bytes += Integer.BYTES + (value != null ? value.length : 0);
+        }
+        return bytes;
+    }
+
+    static void write(ByteBuffer out, byte[][] encoded) {
+        out.putInt(encoded.length);
+        for (byte[] value : encoded) {
+            if (value == null) {
+                out.putInt(-1);
+            } else {
+                out.putInt(value.length).put(value);
+            }
+        }
+    }
+
+    /** Reads what {@link #write} wrote; every value keeps its code. */
+    static StringDictionary readFrom(ByteBuffer in) {
+        StringDictionary dictionary = new StringDictionary();
+        int count = in.getInt();
+        byte[] bytes = new byte[64];
+        for (int code = 0; code < count; code++) {
+            int length = in.getInt();
+            String value = null;
+            if (length >= 0) {
+                if (length > bytes.length) {
+                    bytes = new byte[Math.max(length, bytes.length * 2)];
+                }
+                in.get(bytes, 0, length);
+                value = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+            dictionary.codes.put(value, code);
+            dictionary.values.add(value);
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,22 @@
+package com.Akkshay.expensemanager.controller;
+
+/** The screens reachable from the sidebar, in the order they are preloaded. */
+enum AppView {
+    HOME("Home.fxml"),
+    EXPENSE("Expense.fxml"),
+    BUDGET("Budget.fxml"),
+    SAVINGS("Savings.fxml"),
+    TRENDS("Trends.fxml");
+
+    private static final String VIEW_DIRECTORY = "/com/Akkshay/expensemanager/view/";
+
+    private final String fxml;
+
+    AppView(String fxml) {
+        this.fxml = fxml;
+    }
+
+    String getResourcePath() {
+        return VIEW_DIRECTORY + fxml;
+    }
+}
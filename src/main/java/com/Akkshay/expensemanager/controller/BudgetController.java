@@ -1,17 +1,21 @@
 package com.Akkshay.expensemanager.controller;
 
 import com.Akkshay.expensemanager.dao.BudgetDAO;
+import com.Akkshay.expensemanager.event.ChangeEvent;
 import com.Akkshay.expensemanager.model.Budget;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.MonthlyRollup;
+import com.Akkshay.expensemanager.service.DashboardSnapshot;
+import com.Akkshay.expensemanager.service.DashboardSummaryService;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
-public class BudgetController {
+public class BudgetController implements Refreshable {
 
     @FXML
     private TextField txtAmount;
@@ -24,7 +28,7 @@ public class BudgetController {
     @FXML
     private TableColumn<Budget, Long> colId;
     @FXML
-    private TableColumn<Budget, BigDecimal> colAmount;
+    private TableColumn<Budget, Money> colAmount;
     @FXML
     private TableColumn<Budget, LocalDate> colMonth;
     @FXML
@@ -39,10 +43,15 @@ public class BudgetController {
     private Label lblCurrentMonth;
 
     private BudgetDAO budgetDAO;
+    private DashboardSummaryService summaryService;
     private ObservableList<Budget> budgetList;
+    private ViewSubscriptions subscriptions;
+    // Totals on screen, patched by change events; null until loaded
+    private DashboardSnapshot shownSnapshot;
 
     public BudgetController() {
         this.budgetDAO = new BudgetDAO();
+        this.summaryService = DashboardSummaryService.getInstance();
     }
 
     @FXML
@@ -52,33 +61,73 @@ public class BudgetController {
         colMonth.setCellValueFactory(new PropertyValueFactory<>("budgetMonth"));
         colDescription.setCellValueFactory(new PropertyValueFactory<>("description"));
 
+        subscriptions = new ViewSubscriptions(tblBudget);
+        subscriptions.subscribe(Budget.class, this::onBudgetChanged);
+        subscriptions.subscribe(MonthlyRollup.class, event -> updateSummary());
+
         loadBudgets();
     }
 
+    @Override
+    public void refresh() {
+        if (subscriptions.takeMissed()) {
+            loadBudgets();
+        }
+    }
+
+    private void onBudgetChanged(ChangeEvent<Budget> event) {
+        if (budgetList == null || !event.applyTo(budgetList, Budget::getBudgetId)) {
+            // Not loaded yet, or a bulk change: read everything again
+            loadBudgets();
+            return;
+        }
+        lblBudgetCount.setText(budgetList.size() + " budgets planned");
+        if (shownSnapshot != null) {
+            showSummary(shownSnapshot.plus(event));
+        } else {
+            updateSummary();
+        }
+    }
+
     private void loadBudgets() {
-        budgetList = FXCollections.observableArrayList(budgetDAO.getAllBudgets());
-        tblBudget.setItems(budgetList);
+        tblBudget.setPlaceholder(new Label("Loading budgets..."));
+        budgetDAO.getAllBudgetsAsync()
+                .thenAccept(budgets -> {
+                    budgetList = FXCollections.observableArrayList(budgets);
+                    tblBudget.setItems(budgetList);
+                    tblBudget.setPlaceholder(new Label("No budgets yet."));
+                    lblBudgetCount.setText(budgetList.size() + " budgets planned");
+                })
+                .exceptionally(e -> {
+                    tblBudget.setPlaceholder(new Label("Could not load budgets."));
+                    showAlert("Error", "Could not load budgets: " + e.getMessage());
+                    return null;
+                });
         updateSummary();
     }
 
     private void updateSummary() {
-        BigDecimal total = budgetList.stream()
-                .map(Budget::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        lblTotalBudget.setText("Rs " + total.toString());
-        lblBudgetCount.setText(budgetList.size() + " budgets planned");
+        shownSnapshot = null;
+        lblTotalBudget.setText("Loading...");
+        lblCurrentMonthBudget.setText("Loading...");
 
         // Current month budget
         LocalDate now = LocalDate.now();
-        LocalDate currentMonth = now.withDayOfMonth(1);
-        BigDecimal currentMonthBudget = budgetList.stream()
-                .filter(b -> b.getBudgetMonth().equals(currentMonth))
-                .map(Budget::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        lblCurrentMonthBudget.setText("Rs " + currentMonthBudget.toString());
         lblCurrentMonth.setText(now.getMonth().toString() + " " + now.getYear());
+
+        summaryService.getSnapshotAsync()
+                .thenAccept(this::showSummary)
+                .exceptionally(e -> {
+                    lblTotalBudget.setText("-");
+                    lblCurrentMonthBudget.setText("-");
+                    return null;
+                });
+    }
+
+    private void showSummary(DashboardSnapshot snapshot) {
+        shownSnapshot = snapshot;
+        lblTotalBudget.setText("Rs " + snapshot.getTotalBudget().toString());
+        lblCurrentMonthBudget.setText("Rs " + snapshot.getCurrentMonth().getBudget().toString());
     }
 
     @FXML
@@ -88,16 +137,19 @@ public class BudgetController {
                 showAlert("Error", "Amount and Month are required.");
                 return;
             }
-            BigDecimal amount = new BigDecimal(txtAmount.getText());
+            Money amount = Money.parse(txtAmount.getText());
             LocalDate month = dpMonth.getValue();
             // Ensure month is set to the 1st
             month = month.withDayOfMonth(1);
             String description = txtDescription.getText();
 
             Budget budget = new Budget(amount, month, description);
-            budgetDAO.saveBudget(budget);
-            loadBudgets();
-            clearFields();
+            budgetDAO.saveBudgetAsync(budget)
+                    .thenRun(this::clearFields)
+                    .exceptionally(e -> {
+                        showAlert("Error", "Could not save budget: " + e.getMessage());
+                        return null;
+                    });
         } catch (NumberFormatException e) {
             showAlert("Error", "Invalid amount format.");
         } catch (Exception e) {
@@ -112,7 +164,7 @@ public class BudgetController {
             try {
                 // Only update fields that have values
                 if (!txtAmount.getText().isEmpty()) {
-                    selected.setAmount(new BigDecimal(txtAmount.getText()));
+                    selected.setAmount(Money.parse(txtAmount.getText()));
                 }
 
                 if (dpMonth.getValue() != null) {
@@ -123,10 +175,15 @@ public class BudgetController {
                     selected.setDescription(txtDescription.getText());
                 }
 
-                budgetDAO.updateBudget(selected);
-                loadBudgets();
-                clearFields();
-                showAlert("Success", "Budget updated successfully!");
+                budgetDAO.updateBudgetAsync(selected)
+                        .thenRun(() -> {
+                            clearFields();
+                            showAlert("Success", "Budget updated successfully!");
+                        })
+                        .exceptionally(e -> {
+                            showAlert("Error", "Could not update budget: " + e.getMessage());
+                            return null;
+                        });
             } catch (NumberFormatException e) {
                 showAlert("Error", "Invalid amount format.");
             } catch (Exception e) {
@@ -141,8 +198,11 @@ public class BudgetController {
     private void handleDeleteBudget() {
         Budget selected = tblBudget.getSelectionModel().getSelectedItem();
         if (selected != null) {
-            budgetDAO.deleteBudget(selected);
-            loadBudgets();
+            budgetDAO.deleteBudgetAsync(selected)
+                    .exceptionally(e -> {
+                        showAlert("Error", "Could not delete budget: " + e.getMessage());
+                        return null;
+                    });
         } else {
             showAlert("Warning", "Please select a budget to delete.");
         }
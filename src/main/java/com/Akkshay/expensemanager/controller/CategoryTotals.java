@@ -0,0 +1,118 @@
+package com.Akkshay.expensemanager.controller;
+
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.chart.PieChart;
+import org.jboss.logging.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running spend per category behind a PieChart.
+ *
+ * <p>The totals are read from the database once; after that every expense
+ * change adjusts the one or two categories it touches and moves their
+ * {@link PieChart.Data} slices in place. The chart keeps the same data list
+ * and nodes, so an update costs the same however many expenses exist and the
+ * chart animates instead of being rebuilt. Only used on the FX thread.
+ */
+class CategoryTotals {
+
+    private static final Logger LOG = Logger.getLogger(CategoryTotals.class);
+
+    private final ExpenseDAO expenseDAO;
+    private final Map<String, Money> totals = new HashMap<>();
+    private final Map<String, PieChart.Data> slices = new HashMap<>();
+    private final ObservableList<PieChart.Data> pieData = FXCollections.observableArrayList();
+
+    // A change seen while a reload is in flight may or may not be in its result
+    private boolean loading;
+    private boolean reloadAgain;
+
+    CategoryTotals(PieChart chart, ExpenseDAO expenseDAO) {
+        this.expenseDAO = expenseDAO;
+        chart.setData(pieData);
+    }
+
+    /** Reads all totals from the database again and updates the slices to match. */
+    void reload() {
+        if (loading) {
+            reloadAgain = true;
+            return;
+        }
+        loading = true;
+        expenseDAO.getCategoryTotalsAsync()
+                .thenAccept(loaded -> {
+                    loading = false;
+                    if (reloadAgain) {
+                        reloadAgain = false;
+                        reload();
+                        return;
+                    }
+                    setAll(loaded);
+                })
+                .exceptionally(e -> {
+                    loading = false;
+                    reloadAgain = false;
+                    LOG.warnf(e, "Could not load category totals");
+                    return null;
+                });
+    }
+
+    /** Adjusts the totals for one committed change; bulk changes reload them. */
+    void apply(ChangeEvent<Expense> event) {
+        if (loading) {
+            reloadAgain = true;
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED -> add(event.getNewValue(), false);
+            case UPDATED -> {
+                add(event.getOldValue(), true);
+                add(event.getNewValue(), false);
+            }
+            case DELETED -> add(event.getOldValue(), true);
+            case BULK_CHANGE -> reload();
+        }
+    }
+
+    private void add(Expense expense, boolean remove) {
+        Money amount = remove ? expense.getAmount().negate() : expense.getAmount();
+        setTotal(expense.getCategoryName(), totals.getOrDefault(expense.getCategoryName(), Money.ZERO).plus(amount));
+    }
+
+    private void setAll(Map<String, Money> loaded) {
+        for (String category : Map.copyOf(totals).keySet()) {
+            if (!loaded.containsKey(category)) {
+                setTotal(category, Money.ZERO);
+            }
+        }
+        loaded.forEach(this::setTotal);
+    }
+
+    private void setTotal(String category, Money total) {
+        // Kept even when it is not positive: it is what the next change adds to
+        totals.put(category, total);
+        PieChart.Data slice = slices.get(category);
+        if (total.signum() <= 0) {
+            // Nothing to show for this category
+            if (slice != null) {
+                slices.remove(category);
+                pieData.remove(slice);
+            }
+            return;
+        }
+        if (slice == null) {
+            slice = new PieChart.Data(category, total.toDouble());
+            slices.put(category, slice);
+            pieData.add(slice);
+        } else {
+            slice.setPieValue(total.toDouble());
+        }
+    }
+}
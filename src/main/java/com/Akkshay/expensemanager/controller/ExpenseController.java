@@ -1,21 +1,36 @@
 package com.Akkshay.expensemanager.controller;
 
 import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.importer.CsvStatementImporter;
+import com.Akkshay.expensemanager.importer.ImportReport;
 import com.Akkshay.expensemanager.model.Category;
 import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.search.ExpenseSearchIndex;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.chart.PieChart;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.FileChooser;
+import javafx.util.Duration;
 
-import java.math.BigDecimal;
+import java.io.File;
 import java.time.LocalDate;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
-public class ExpenseController {
+public class ExpenseController implements Refreshable {
+
+    // Search once typing pauses, not on every key
+    private static final Duration SEARCH_DELAY = Duration.millis(250);
+    // Hits shown at once; also stays under Oracle's 1000-entry IN list
+    private static final int SEARCH_LIMIT = 500;
 
     @FXML
     private TextField txtAmount;
@@ -30,7 +45,7 @@ public class ExpenseController {
     @FXML
     private TableColumn<Expense, Long> colId;
     @FXML
-    private TableColumn<Expense, BigDecimal> colAmount;
+    private TableColumn<Expense, Money> colAmount;
     @FXML
     private TableColumn<Expense, LocalDate> colDate;
     @FXML
@@ -39,9 +54,30 @@ public class ExpenseController {
     private TableColumn<Expense, String> colDescription;
     @FXML
     private PieChart pieChart;
+    @FXML
+    private Button btnImport;
+    @FXML
+    private Button btnCancelImport;
+    @FXML
+    private ProgressBar importProgress;
+    @FXML
+    private Label lblImportStatus;
+    @FXML
+    private TextField txtSearch;
+    @FXML
+    private Label lblSearchStatus;
 
     private ExpenseDAO expenseDAO;
-    private ObservableList<Expense> expenseList;
+    private ExpensePager expensePager;
+    private CategoryTotals categoryTotals;
+    private ViewSubscriptions subscriptions;
+    private final ExpenseSearchIndex searchIndex = ExpenseSearchIndex.getInstance();
+    private final ObservableList<Expense> searchResults = FXCollections.observableArrayList();
+    private final PauseTransition searchDelay = new PauseTransition(SEARCH_DELAY);
+    // Answers to anything but the latest search are dropped
+    private int searchGeneration;
+    // Set while a CSV import runs; its batches are shown once it has finished
+    private CsvStatementImporter runningImport;
 
     public ExpenseController() {
         this.expenseDAO = new ExpenseDAO();
@@ -70,29 +106,113 @@ public class ExpenseController {
             }
         });
 
+        expensePager = new ExpensePager(tblExpense, expenseDAO);
+        // The table only holds the pages scrolled so far, so totals come from the database
+        categoryTotals = new CategoryTotals(pieChart, expenseDAO);
+
+        // The index subscribed to changes when it was created, i.e. before this screen, so a
+        // search started from a change event already sees that change
+        searchIndex.preload();
+        searchDelay.setOnFinished(event -> runSearch());
+        txtSearch.textProperty().addListener((obs, oldText, newText) -> searchDelay.playFromStart());
+
+        // Writes from this or any other screen are patched in as they commit
+        subscriptions = new ViewSubscriptions(tblExpense);
+        subscriptions.subscribe(Expense.class, this::onExpenseChanged);
+        subscriptions.subscribe(Category.class, this::onCategoryChanged);
+
         loadCategories();
         loadExpenses();
     }
 
+    @Override
+    public void refresh() {
+        if (subscriptions.takeMissed()) {
+            loadCategories();
+            loadExpenses();
+        }
+    }
+
+    private void onExpenseChanged(ChangeEvent<Expense> event) {
+        if (runningImport != null) {
+            return;
+        }
+        expensePager.apply(event);
+        categoryTotals.apply(event);
+        if (isSearching()) {
+            runSearch();
+        }
+    }
+
+    private void onCategoryChanged(ChangeEvent<Category> event) {
+        ObservableList<Category> categories = cbCategory.getItems();
+        if (categories == null || !event.applyTo(categories, Category::getCategoryId)) {
+            loadCategories();
+            return;
+        }
+        categories.sort(Comparator.comparing(Category::getCategoryName, String.CASE_INSENSITIVE_ORDER));
+    }
+
     private void loadCategories() {
-        cbCategory.setItems(FXCollections.observableArrayList(expenseDAO.getAllCategories()));
+        expenseDAO.getAllCategoriesAsync()
+                .thenAccept(categories -> cbCategory.setItems(FXCollections.observableArrayList(categories)))
+                .exceptionally(e -> {
+                    showAlert("Error", "Could not load categories: " + e.getMessage());
+                    return null;
+                });
     }
 
     private void loadExpenses() {
-        expenseList = FXCollections.observableArrayList(expenseDAO.getAllExpenses());
-        tblExpense.setItems(expenseList);
-        updateChart();
+        expensePager.reset();
+        categoryTotals.reload();
+        if (isSearching()) {
+            runSearch();
+        }
     }
 
-    private void updateChart() {
-        Map<String, Double> categoryTotals = expenseList.stream()
-                .collect(Collectors.groupingBy(
-                        e -> e.getCategory().getCategoryName(),
-                        Collectors.summingDouble(e -> e.getAmount().doubleValue())));
+    private boolean isSearching() {
+        return tblExpense.getItems() == searchResults;
+    }
 
-        ObservableList<PieChart.Data> pieData = FXCollections.observableArrayList();
-        categoryTotals.forEach((name, amount) -> pieData.add(new PieChart.Data(name, amount)));
-        pieChart.setData(pieData);
+    /** Shows the newest expenses matching the search text, or all expenses again when it is empty. */
+    private void runSearch() {
+        String query = txtSearch.getText() != null ? txtSearch.getText().trim() : "";
+        int request = ++searchGeneration;
+        if (query.isEmpty()) {
+            tblExpense.setItems(expensePager.getItems());
+            tblExpense.setPlaceholder(new Label("No expenses yet."));
+            searchResults.clear();
+            lblSearchStatus.setText("");
+            return;
+        }
+        searchIndex.searchAsync(query)
+                .thenCompose(ids -> {
+                    // Highest ids are the latest added
+                    List<Long> newest = new ArrayList<>(Math.min(ids.length, SEARCH_LIMIT));
+                    for (int i = ids.length - 1; i >= 0 && newest.size() < SEARCH_LIMIT; i--) {
+                        newest.add(ids[i]);
+                    }
+                    return expenseDAO.getExpensesByIdsAsync(newest)
+                            .thenAccept(rows -> showSearchResults(request, ids.length, rows));
+                })
+                .exceptionally(e -> {
+                    if (request == searchGeneration) {
+                        lblSearchStatus.setText("Search failed: " + e.getMessage());
+                    }
+                    return null;
+                });
+    }
+
+    private void showSearchResults(int request, int matches, List<Expense> rows) {
+        if (request != searchGeneration) {
+            return;
+        }
+        searchResults.setAll(rows);
+        tblExpense.setItems(searchResults);
+        tblExpense.setPlaceholder(new Label("No matching expenses."));
+        lblSearchStatus.setText(matches > rows.size()
+                ? "Newest " + rows.size() + " of " + matches + " matches"
+                : matches + (matches == 1 ? " match" : " matches"));
     }
 
     @FXML
@@ -102,50 +222,27 @@ public class ExpenseController {
                 showAlert("Error", "Amount and Date are required.");
                 return;
             }
-            BigDecimal amount = new BigDecimal(txtAmount.getText());
+            Money amount = Money.parse(txtAmount.getText());
             LocalDate date = dpDate.getValue();
-            Category category = cbCategory.getValue();
+            Category selectedCategory = cbCategory.getValue();
+            String newCatName = cbCategory.getEditor().getText();
             String description = txtDescription.getText();
 
-            if (category == null) {
-                // Check if user wants to add a new category
-                String newCatName = cbCategory.getEditor().getText();
-                if (newCatName != null && !newCatName.trim().isEmpty()) {
-                    // Check if it exists
-                    category = expenseDAO.getAllCategories().stream()
-                            .filter(c -> c.getCategoryName().equalsIgnoreCase(newCatName.trim()))
-                            .findFirst()
-                            .orElse(null);
-
-                    if (category == null) {
-                        // Create and save the new category
-                        category = new Category(newCatName.trim());
-                        expenseDAO.saveCategory(category);
-
-                        // Reload categories to get the one with ID from database
-                        loadCategories();
-
-                        // Retrieve the saved category with its ID
-                        category = expenseDAO.getAllCategories().stream()
-                                .filter(c -> c.getCategoryName().equalsIgnoreCase(newCatName.trim()))
-                                .findFirst()
-                                .orElse(null);
-                    }
-                } else {
-                    showAlert("Error", "Please select or enter a category.");
-                    return;
-                }
-            }
-
-            if (category == null) {
-                showAlert("Error", "Failed to create or retrieve category.");
+            // Check if user wants to add a new category
+            if (selectedCategory == null && (newCatName == null || newCatName.trim().isEmpty())) {
+                showAlert("Error", "Please select or enter a category.");
                 return;
             }
 
-            Expense expense = new Expense(amount, date, description, category);
-            expenseDAO.saveExpense(expense);
-            loadExpenses();
-            clearFields();
+            // Journaled by name; the replay creates a new category (or reuses one in any case)
+            // in the same transaction as its first expense
+            Category category = selectedCategory != null ? selectedCategory : new Category(newCatName);
+            expenseDAO.saveExpenseAsync(new Expense(amount, date, description, category))
+                    .thenRun(this::clearFields)
+                    .exceptionally(e -> {
+                        showAlert("Error", "Could not save expense: " + e.getMessage());
+                        return null;
+                    });
         } catch (NumberFormatException e) {
             showAlert("Error", "Invalid amount format.");
         } catch (Exception e) {
@@ -159,52 +256,41 @@ public class ExpenseController {
         Expense selected = tblExpense.getSelectionModel().getSelectedItem();
         if (selected != null) {
             try {
+                // The row keeps showing what is stored until the UPDATED event replaces it
+                Expense edited = new Expense(selected);
                 // Only update fields that have values
                 if (!txtAmount.getText().isEmpty()) {
-                    selected.setAmount(new BigDecimal(txtAmount.getText()));
+                    edited.setAmount(Money.parse(txtAmount.getText()));
                 }
 
                 if (dpDate.getValue() != null) {
-                    selected.setExpenseDate(dpDate.getValue());
+                    edited.setExpenseDate(dpDate.getValue());
                 }
 
                 // Update category if changed
                 Category category = cbCategory.getValue();
-                if (category == null && cbCategory.getEditor().getText() != null
-                        && !cbCategory.getEditor().getText().trim().isEmpty()) {
-                    String newCatName = cbCategory.getEditor().getText();
-                    category = expenseDAO.getAllCategories().stream()
-                            .filter(c -> c.getCategoryName().equalsIgnoreCase(newCatName.trim()))
-                            .findFirst()
-                            .orElse(null);
-                    if (category == null) {
-                        // Create and save the new category
-                        category = new Category(newCatName.trim());
-                        expenseDAO.saveCategory(category);
-
-                        // Reload categories to get the one with ID from database
-                        loadCategories();
-
-                        // Retrieve the saved category with its ID
-                        category = expenseDAO.getAllCategories().stream()
-                                .filter(c -> c.getCategoryName().equalsIgnoreCase(newCatName.trim()))
-                                .findFirst()
-                                .orElse(null);
-                    }
-                }
+                String newCatName = cbCategory.getEditor().getText();
+                boolean newCategory = category == null && newCatName != null && !newCatName.trim().isEmpty();
                 if (category != null) {
-                    selected.setCategory(category);
+                    edited.setCategory(category);
                 }
 
                 // Update description if not empty
                 if (!txtDescription.getText().isEmpty()) {
-                    selected.setDescription(txtDescription.getText());
+                    edited.setDescription(txtDescription.getText());
                 }
 
-                expenseDAO.updateExpense(selected);
-                loadExpenses();
-                clearFields();
-                showAlert("Success", "Expense updated successfully!");
+                if (newCategory) {
+                    // Created, if need be, when the update is replayed
+                    edited.setCategory(new Category(newCatName));
+                }
+                expenseDAO.updateExpenseAsync(edited).thenRun(() -> {
+                    clearFields();
+                    showAlert("Success", "Expense updated successfully!");
+                }).exceptionally(e -> {
+                    showAlert("Error", "Could not update expense: " + e.getMessage());
+                    return null;
+                });
             } catch (NumberFormatException e) {
                 showAlert("Error", "Invalid amount format.");
             } catch (Exception e) {
@@ -220,13 +306,93 @@ public class ExpenseController {
     private void handleDeleteExpense() {
         Expense selected = tblExpense.getSelectionModel().getSelectedItem();
         if (selected != null) {
-            expenseDAO.deleteExpense(selected);
-            loadExpenses();
+            expenseDAO.deleteExpenseAsync(selected)
+                    .exceptionally(e -> {
+                        showAlert("Error", "Could not delete expense: " + e.getMessage());
+                        return null;
+                    });
         } else {
             showAlert("Warning", "Please select an expense to delete.");
         }
     }
 
+    @FXML
+    private void handleImportCsv() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Bank Statement");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showOpenDialog(tblExpense.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        CsvStatementImporter importer = new CsvStatementImporter(expenseDAO);
+        Task<ImportReport> task = new Task<>() {
+            @Override
+            protected ImportReport call() throws Exception {
+                // Column mapping is detected from the header line
+                return importer.importFile(file.toPath(), null, progress -> {
+                    updateProgress(progress.getBytesRead(), progress.getTotalBytes());
+                    updateMessage(progress.getImported() + " imported, " + progress.getRejected() + " rejected");
+                });
+            }
+        };
+
+        runningImport = importer;
+        btnImport.setDisable(true);
+        btnCancelImport.setDisable(false);
+        btnCancelImport.setVisible(true);
+        importProgress.setVisible(true);
+        importProgress.progressProperty().bind(task.progressProperty());
+        lblImportStatus.textProperty().bind(task.messageProperty());
+
+        task.setOnSucceeded(event -> {
+            finishImport();
+            ImportReport report = task.getValue();
+            StringBuilder sb = new StringBuilder()
+                    .append(report.getImported()).append(" expenses imported in ")
+                    .append(report.getElapsedMillis()).append(" ms.");
+            if (report.isCancelled()) {
+                sb.append("\nImport cancelled; the rest of the file was not imported.");
+            }
+            if (report.getRejected() > 0) {
+                sb.append("\n").append(report.getRejected()).append(" lines rejected, see ")
+                        .append(report.getErrorReport());
+            }
+            loadExpenses();
+            showAlert("Import Finished", sb.toString());
+        });
+        task.setOnFailed(event -> {
+            finishImport();
+            // Batches committed before the failure are kept
+            loadExpenses();
+            showAlert("Error", "Import failed: " + task.getException().getMessage());
+        });
+
+        Thread thread = new Thread(task, "csv-import");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @FXML
+    private void handleCancelImport() {
+        if (runningImport != null) {
+            // Takes effect after the batch being written; the task then finishes normally
+            runningImport.cancel();
+            btnCancelImport.setDisable(true);
+        }
+    }
+
+    private void finishImport() {
+        runningImport = null;
+        btnCancelImport.setVisible(false);
+        importProgress.progressProperty().unbind();
+        lblImportStatus.textProperty().unbind();
+        importProgress.setVisible(false);
+        lblImportStatus.setText("");
+        btnImport.setDisable(false);
+    }
+
     private void clearFields() {
         txtAmount.clear();
         dpDate.setValue(null);
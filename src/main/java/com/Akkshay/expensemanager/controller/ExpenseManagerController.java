@@ -1,8 +1,12 @@
 package com.Akkshay.expensemanager.controller;
 
 import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.dao.UnitOfWork;
+import com.Akkshay.expensemanager.event.ChangeEvent;
 import com.Akkshay.expensemanager.model.Category;
 import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.util.DbExecutor;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -10,11 +14,9 @@ import javafx.scene.chart.PieChart;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 public class ExpenseManagerController {
 
@@ -25,13 +27,15 @@ public class ExpenseManagerController {
     @FXML private Label statusLabel;
     @FXML private TableView<Expense> expenseTable;
     @FXML private TableColumn<Expense, String> descriptionColumn;
-    @FXML private TableColumn<Expense, BigDecimal> amountColumn;
+    @FXML private TableColumn<Expense, Money> amountColumn;
     @FXML private TableColumn<Expense, LocalDate> dateColumn;
     @FXML private TableColumn<Expense, Category> categoryColumn;
     @FXML private PieChart expensePieChart;
 
     private final ExpenseDAO expenseDAO = new ExpenseDAO();
-    private final ObservableList<Expense> expenseList = FXCollections.observableArrayList();
+    private ExpensePager expensePager;
+    private CategoryTotals categoryTotals;
+    private ViewSubscriptions subscriptions;
     private final ObservableList<Category> categoryList = FXCollections.observableArrayList();
 
     private Expense selectedExpense = null;
@@ -43,15 +47,20 @@ public class ExpenseManagerController {
         dateColumn.setCellValueFactory(new PropertyValueFactory<>("expenseDate"));
         categoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
 
+        expensePager = new ExpensePager(expenseTable, expenseDAO);
+        categoryTotals = new CategoryTotals(expensePieChart, expenseDAO);
+
+        // Committed writes are patched into the table and the chart
+        subscriptions = new ViewSubscriptions(expenseTable);
+        subscriptions.subscribe(Expense.class, this::onExpenseChanged);
+
         loadCategories();
         loadExpenses();
 
-        expenseTable.setItems(expenseList);
         categoryComboBox.setItems(categoryList);
         categoryComboBox.setEditable(true);
 
         datePicker.setValue(LocalDate.now());
-        updatePieChart();
 
         // Row click for update functionality
         expenseTable.setRowFactory(tv -> {
@@ -79,10 +88,10 @@ public class ExpenseManagerController {
             return;
         }
 
-        BigDecimal amount;
+        Money amount;
         try {
-            amount = new BigDecimal(amountField.getText());
-            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            amount = Money.parse(amountField.getText());
+            if (amount.signum() <= 0) {
                 statusLabel.setText("Amount must be positive.");
                 return;
             }
@@ -93,23 +102,18 @@ public class ExpenseManagerController {
 
         // --- Robust category logic for ComboBox (typed or selected) ---
         Object catObj = categoryComboBox.getValue();
-        Category category;
+        CompletableFuture<Category> category;
         if (catObj instanceof Category) {
-            category = (Category) catObj;
+            category = CompletableFuture.completedFuture((Category) catObj);
         } else if (catObj instanceof String) {
             String catText = ((String) catObj).trim();
             if (!catText.isEmpty()) {
-                category = new Category(catText);
-                expenseDAO.saveCategory(category);    // store new category!
-                loadCategories();                     // refresh dropdown
-                // Now select the correct added Category object
-                for (Category c : categoryList) {
-                    if (c.getCategoryName().equals(catText)) {
-                        category = c;
-                        break;
-                    }
-                }
-                categoryComboBox.setValue(category);
+                category = expenseDAO.getOrCreateCategoryAsync(catText)  // existing or newly stored
+                        .thenApply(created -> {
+                            loadCategories();                            // refresh dropdown
+                            categoryComboBox.setValue(created);
+                            return created;
+                        });
             } else {
                 statusLabel.setText("Category is required.");
                 return;
@@ -118,6 +122,17 @@ public class ExpenseManagerController {
             statusLabel.setText("Category is required.");
             return;
         }
+
+        statusLabel.setText("Saving...");
+        category.thenCompose(cat -> saveExpense(amount, cat))
+                .thenRun(this::clearForm)
+                .exceptionally(e -> {
+                    statusLabel.setText("Could not save expense: " + e.getMessage());
+                    return null;
+                });
+    }
+
+    private CompletableFuture<Void> saveExpense(Money amount, Category category) {
         updateRecentCategory(category);
 
         if (selectedExpense == null) {
@@ -128,21 +143,19 @@ public class ExpenseManagerController {
                     descriptionField.getText(),
                     category
             );
-            expenseDAO.saveExpense(newExpense);
-            statusLabel.setText("Expense added successfully!");
+            return expenseDAO.saveExpenseAsync(newExpense)
+                    .thenRun(() -> statusLabel.setText("Expense added successfully!"));
         } else {
             // Update existing Expense
             selectedExpense.setDescription(descriptionField.getText());
             selectedExpense.setAmount(amount);
             selectedExpense.setExpenseDate(datePicker.getValue());
             selectedExpense.setCategory(category);
-            expenseDAO.updateExpense(selectedExpense);
-            statusLabel.setText("Expense updated successfully!");
+            Expense updated = selectedExpense;
             selectedExpense = null;
+            return expenseDAO.updateExpenseAsync(updated)
+                    .thenRun(() -> statusLabel.setText("Expense updated successfully!"));
         }
-        loadExpenses();
-        updatePieChart();
-        clearForm();
     }
 
     @FXML
@@ -152,10 +165,12 @@ public class ExpenseManagerController {
             statusLabel.setText("Please select an expense to delete.");
             return;
         }
-        expenseDAO.deleteExpense(exp);
-        loadExpenses();
-        updatePieChart();
-        statusLabel.setText("Expense deleted successfully.");
+        expenseDAO.deleteExpenseAsync(exp)
+                .thenRun(() -> statusLabel.setText("Expense deleted successfully."))
+                .exceptionally(e -> {
+                    statusLabel.setText("Could not delete expense: " + e.getMessage());
+                    return null;
+                });
     }
 
     @FXML
@@ -167,34 +182,34 @@ public class ExpenseManagerController {
     }
 
     private void loadCategories() {
-        List<Category> categories = expenseDAO.getAllCategories();
-        if (categories.isEmpty()) {
-            expenseDAO.saveCategory(new Category("Food"));
-            expenseDAO.saveCategory(new Category("Travel"));
-            expenseDAO.saveCategory(new Category("Bills"));
-            expenseDAO.saveCategory(new Category("Entertainment"));
-            expenseDAO.saveCategory(new Category("Other"));
-            categories = expenseDAO.getAllCategories();
-        }
-        categoryList.setAll(categories);
+        DbExecutor.submit(() -> {
+            List<Category> categories = expenseDAO.getAllCategories();
+            if (categories.isEmpty()) {
+                // One commit for all of them
+                UnitOfWork.inTransaction(() -> {
+                    expenseDAO.getOrCreateCategory("Food");
+                    expenseDAO.getOrCreateCategory("Travel");
+                    expenseDAO.getOrCreateCategory("Bills");
+                    expenseDAO.getOrCreateCategory("Entertainment");
+                    expenseDAO.getOrCreateCategory("Other");
+                });
+                categories = expenseDAO.getAllCategories();
+            }
+            return categories;
+        }).thenAccept(categoryList::setAll).exceptionally(e -> {
+            statusLabel.setText("Could not load categories: " + e.getMessage());
+            return null;
+        });
     }
 
     private void loadExpenses() {
-        expenseList.setAll(expenseDAO.getAllExpenses());
+        expensePager.reset();
+        categoryTotals.reload();
     }
 
-    private void updatePieChart() {
-        Map<String, Double> expenseByCategory = expenseList.stream()
-                .collect(Collectors.groupingBy(
-                        e -> e.getCategory().getCategoryName(),
-                        Collectors.summingDouble(e -> e.getAmount().doubleValue())
-                ));
-
-        ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
-        expenseByCategory.forEach((category, total) ->
-                pieChartData.add(new PieChart.Data(category, total))
-        );
-        expensePieChart.setData(pieChartData);
+    private void onExpenseChanged(ChangeEvent<Expense> event) {
+        expensePager.apply(event);
+        categoryTotals.apply(event);
     }
 
     private void clearForm() {
@@ -0,0 +1,164 @@
+package com.Akkshay.expensemanager.controller;
+
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.dao.SortDirection;
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.model.Expense;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * Feeds a TableView of expenses one page at a time.
+ * The first page is loaded up front and the next page is fetched whenever the
+ * user scrolls close to the bottom of the table, so the first screen costs the
+ * same however many rows TBL_EXPENSES holds. Pages are read off the FX thread.
+ * Single-row changes are patched into the loaded rows with {@link #apply}.
+ */
+public class ExpensePager {
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    // Fetch the next page once the scroll bar passes this fraction of its range.
+    private static final double PREFETCH_THRESHOLD = 0.9;
+
+    private final TableView<Expense> table;
+    private final ExpenseDAO expenseDAO;
+    private final int pageSize;
+    private final SortDirection direction;
+    private final Comparator<Expense> order;
+    private final ObservableList<Expense> items = FXCollections.observableArrayList();
+
+    // Only touched on the FX thread
+    private boolean exhausted;
+    private boolean loading;
+    private int generation;
+
+    public ExpensePager(TableView<Expense> table, ExpenseDAO expenseDAO) {
+        this(table, expenseDAO, DEFAULT_PAGE_SIZE, SortDirection.DESCENDING);
+    }
+
+    public ExpensePager(TableView<Expense> table, ExpenseDAO expenseDAO, int pageSize, SortDirection direction) {
+        this.table = table;
+        this.expenseDAO = expenseDAO;
+        this.pageSize = pageSize;
+        this.direction = direction;
+        // Same order as the page query: (expense_date, expense_id)
+        Comparator<Expense> ascending = Comparator.comparing(Expense::getExpenseDate)
+                .thenComparing(Expense::getExpenseId);
+        this.order = direction == SortDirection.ASCENDING ? ascending : ascending.reversed();
+
+        table.setItems(items);
+        // The scroll bar only exists once the skin has been created.
+        if (table.getSkin() != null) {
+            attachScrollListener();
+        } else {
+            table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+                if (newSkin != null) {
+                    attachScrollListener();
+                }
+            });
+        }
+    }
+
+    public ObservableList<Expense> getItems() {
+        return items;
+    }
+
+    /** Drops every loaded row and loads the first page again. */
+    public void reset() {
+        items.clear();
+        exhausted = false;
+        loading = false;
+        // Any page still in flight belongs to the old list and is dropped
+        generation++;
+        loadNextPage();
+    }
+
+    /** Fetches the next page in the background and appends it when it arrives. */
+    public void loadNextPage() {
+        if (loading || exhausted) {
+            return;
+        }
+        loading = true;
+        int requestGeneration = generation;
+        if (items.isEmpty()) {
+            table.setPlaceholder(new Label("Loading expenses..."));
+        }
+
+        Expense last = items.isEmpty() ? null : items.get(items.size() - 1);
+        expenseDAO.getExpensePageAsync(last, pageSize, direction)
+                .thenAccept(page -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    if (page.size() < pageSize) {
+                        exhausted = true;
+                    }
+                    items.addAll(page);
+                    loading = false;
+                    table.setPlaceholder(new Label("No expenses yet."));
+                })
+                .exceptionally(e -> {
+                    if (requestGeneration == generation) {
+                        loading = false;
+                        table.setPlaceholder(new Label("Could not load expenses: " + e.getMessage()));
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Patches one committed change into the loaded rows without reading any
+     * page again. A row that sorts after the last loaded one is left for the
+     * page that will contain it; bulk changes reload from the first page.
+     */
+    public void apply(ChangeEvent<Expense> event) {
+        switch (event.getType()) {
+            case CREATED -> insert(event.getNewValue());
+            case UPDATED -> {
+                remove(event.getOldValue());
+                insert(event.getNewValue());
+            }
+            case DELETED -> remove(event.getOldValue());
+            case BULK_CHANGE -> reset();
+        }
+    }
+
+    private void insert(Expense expense) {
+        int index = Collections.binarySearch(items, expense, order);
+        if (index >= 0) {
+            items.set(index, expense);
+            return;
+        }
+        int insertAt = -index - 1;
+        // Past the loaded range: a later page brings it in
+        if (insertAt < items.size() || exhausted) {
+            items.add(insertAt, expense);
+        }
+    }
+
+    private void remove(Expense expense) {
+        Long id = expense.getExpenseId();
+        items.removeIf(item -> id.equals(item.getExpenseId()));
+    }
+
+    private void attachScrollListener() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    double range = bar.getMax() - bar.getMin();
+                    if (range > 0 && newValue.doubleValue() >= bar.getMin() + range * PREFETCH_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+            }
+        }
+    }
+}
@@ -1,18 +1,19 @@
 package com.Akkshay.expensemanager.controller;
 
-import com.Akkshay.expensemanager.dao.BudgetDAO;
-import com.Akkshay.expensemanager.dao.ExpenseDAO;
-import com.Akkshay.expensemanager.dao.SavingsDAO;
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeType;
 import com.Akkshay.expensemanager.model.Budget;
 import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.MonthlyRollup;
 import com.Akkshay.expensemanager.model.Savings;
+import com.Akkshay.expensemanager.service.DashboardSnapshot;
+import com.Akkshay.expensemanager.service.DashboardSummaryService;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 
-import java.math.BigDecimal;
-import java.util.List;
 
-public class HomeController {
+public class HomeController implements Refreshable {
 
     @FXML
     private Label lblTotalSpend;
@@ -23,50 +24,69 @@ public class HomeController {
     @FXML
     private Label lblComment;
 
-    private ExpenseDAO expenseDAO;
-    private BudgetDAO budgetDAO;
-    private SavingsDAO savingsDAO;
+    private DashboardSummaryService summaryService;
+    private ViewSubscriptions subscriptions;
+    // Totals on screen, patched by change events; null while loading
+    private DashboardSnapshot shownSnapshot;
 
     public HomeController() {
-        this.expenseDAO = new ExpenseDAO();
-        this.budgetDAO = new BudgetDAO();
-        this.savingsDAO = new SavingsDAO();
+        this.summaryService = DashboardSummaryService.getInstance();
     }
 
     @FXML
     public void initialize() {
+        subscriptions = new ViewSubscriptions(lblTotalSpend);
+        subscriptions.subscribe(Expense.class, this::onDataChanged);
+        subscriptions.subscribe(Budget.class, this::onDataChanged);
+        subscriptions.subscribe(Savings.class, this::onDataChanged);
+        subscriptions.subscribe(MonthlyRollup.class, this::onDataChanged);
+
         refreshData();
     }
 
-    public void refreshData() {
-        updateDashboard();
+    @Override
+    public void refresh() {
+        // Writes made while another screen was shown were not patched in
+        if (subscriptions.takeMissed()) {
+            updateDashboard();
+        }
     }
 
-    private BigDecimal calculateTotalSpend() {
-        List<Expense> expenses = expenseDAO.getAllExpenses();
-        return expenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public void refreshData() {
+        updateDashboard();
     }
 
-    private BigDecimal calculateTotalBudget() {
-        List<Budget> budgets = budgetDAO.getAllBudgets();
-        return budgets.stream()
-                .map(Budget::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private void onDataChanged(ChangeEvent<?> event) {
+        if (shownSnapshot == null || event.getType() == ChangeType.BULK_CHANGE) {
+            updateDashboard();
+        } else {
+            // One row changed: adjust the totals on screen instead of asking the database
+            showSummary(shownSnapshot.plus(event));
+        }
     }
 
-    private BigDecimal calculateTotalSavings() {
-        List<Savings> savings = savingsDAO.getAllSavings();
-        return savings.stream()
-                .map(Savings::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private void updateDashboard() {
+        shownSnapshot = null;
+        lblTotalSpend.setText("Loading...");
+        lblTotalBudget.setText("Loading...");
+        lblTotalSavings.setText("Loading...");
+        lblComment.setText("");
+
+        // Answered from memory unless something was written since the last visit
+        summaryService.getSnapshotAsync()
+                .thenAccept(this::showSummary)
+                .exceptionally(e -> {
+                    lblComment.setStyle("-fx-text-fill: red;");
+                    lblComment.setText("Could not load totals: " + e.getMessage());
+                    return null;
+                });
     }
 
-    private void updateDashboard() {
-        BigDecimal totalSpend = calculateTotalSpend();
-        BigDecimal totalBudget = calculateTotalBudget();
-        BigDecimal totalSavings = calculateTotalSavings();
+    private void showSummary(DashboardSnapshot snapshot) {
+        shownSnapshot = snapshot;
+        Money totalSpend = snapshot.getTotalSpend();
+        Money totalBudget = snapshot.getTotalBudget();
+        Money totalSavings = snapshot.getTotalSavings();
 
         lblTotalSpend.setText("Rs " + totalSpend.toString());
         lblTotalBudget.setText("Rs " + totalBudget.toString());
@@ -75,11 +95,11 @@ public class HomeController {
         updateComment(totalSpend, totalBudget, totalSavings);
     }
 
-    private void updateComment(BigDecimal spend, BigDecimal budget, BigDecimal savings) {
-        BigDecimal remaining = budget.subtract(spend).subtract(savings);
+    private void updateComment(Money spend, Money budget, Money savings) {
+        Money remaining = budget.minus(spend).minus(savings);
 
         StringBuilder sb = new StringBuilder();
-        if (remaining.compareTo(BigDecimal.ZERO) < 0) {
+        if (remaining.signum() < 0) {
             sb.append("Warning: You have exceeded your total budget by Rs ").append(remaining.abs());
             lblComment.setStyle("-fx-text-fill: red;");
         } else {
@@ -87,7 +107,7 @@ public class HomeController {
             lblComment.setStyle("-fx-text-fill: green;");
         }
 
-        if (savings.compareTo(BigDecimal.ZERO) > 0) {
+        if (savings.signum() > 0) {
             sb.append("\nGreat! You have saved Rs ").append(savings).append(".");
         } else {
             sb.append("\nConsider setting aside some savings.");
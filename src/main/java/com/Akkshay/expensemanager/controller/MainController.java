@@ -1,63 +1,175 @@
 package com.Akkshay.expensemanager.controller;
 
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.event.ChangeType;
+import com.Akkshay.expensemanager.export.DataExporter;
+import com.Akkshay.expensemanager.export.ExportFormat;
+import com.Akkshay.expensemanager.export.ExportResult;
+import com.Akkshay.expensemanager.journal.RejectedWrite;
+import com.Akkshay.expensemanager.journal.WriteJournal;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ChoiceDialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
-import java.io.IOException;
-import java.net.URL;
+import javafx.stage.DirectoryChooser;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class MainController {
 
     @FXML
     private StackPane contentArea;
 
+    private ViewRegistry views;
+    // Each is asked about once, whether it was rejected before or after the window opened
+    private final Set<RejectedWrite> rejectionsShown = new HashSet<>();
+
     @FXML
     public void initialize() {
+        views = new ViewRegistry(contentArea);
         // Load Home view by default
-        loadView("/com/Akkshay/expensemanager/view/Home.fxml");
+        views.show(AppView.HOME);
+
+        WriteJournal journal = WriteJournal.getInstance();
+        ChangeEventBus.getInstance().subscribe(RejectedWrite.class, Platform::runLater, event -> {
+            if (event.getType() == ChangeType.CREATED) {
+                showRejectedWrite(event.getNewValue());
+            }
+        });
+        for (RejectedWrite write : journal.getRejected()) {
+            Platform.runLater(() -> showRejectedWrite(write));
+        }
+    }
+
+    /**
+     * Loads the other sidebar views ahead of their first visit; called once
+     * the window is showing. Completes on the FX thread when all are loaded.
+     */
+    public CompletableFuture<Void> preloadViews() {
+        return views.preloadRemaining();
     }
 
     @FXML
     private void handleShowHome() {
-        loadView("/com/Akkshay/expensemanager/view/Home.fxml");
+        views.show(AppView.HOME);
     }
 
     @FXML
     private void handleShowBudget() {
-        loadView("/com/Akkshay/expensemanager/view/Budget.fxml");
+        views.show(AppView.BUDGET);
     }
 
     @FXML
     private void handleShowExpense() {
-        // Assuming the existing Dashboard.fxml is the Expense view, or we create a new
-        // one.
-        // Let's assume we'll create Expense.fxml or reuse Dashboard.fxml
-        loadView("/com/Akkshay/expensemanager/view/Expense.fxml");
+        views.show(AppView.EXPENSE);
     }
 
     @FXML
     private void handleShowSavings() {
-        loadView("/com/Akkshay/expensemanager/view/Savings.fxml");
+        views.show(AppView.SAVINGS);
     }
 
     @FXML
     private void handleShowTrends() {
-        loadView("/com/Akkshay/expensemanager/view/Trends.fxml");
+        views.show(AppView.TRENDS);
     }
 
-    private void loadView(String fxmlPath) {
-        try {
-            URL resource = getClass().getResource(fxmlPath);
-            if (resource == null) {
-                System.err.println("Cannot find FXML: " + fxmlPath);
-                return;
+    @FXML
+    private void handleExportData() {
+        ChoiceDialog<ExportFormat> formatDialog = new ChoiceDialog<>(ExportFormat.CSV, ExportFormat.values());
+        formatDialog.setTitle("Export Data");
+        formatDialog.setHeaderText("Export expenses, budgets and savings");
+        formatDialog.setContentText("Format:");
+        ExportFormat format = formatDialog.showAndWait().orElse(null);
+        if (format == null) {
+            return;
+        }
+
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Choose Export Folder");
+        File directory = chooser.showDialog(contentArea.getScene().getWindow());
+        if (directory == null) {
+            return;
+        }
+
+        DataExporter exporter = new DataExporter();
+        Task<ExportResult> task = new Task<>() {
+            @Override
+            protected ExportResult call() throws Exception {
+                return exporter.exportAll(directory.toPath(), format,
+                        rows -> updateMessage(rows + " rows written"));
+            }
+        };
+
+        // Non-blocking progress dialog; its Cancel button stops the export
+        Label status = new Label("Starting export...");
+        status.textProperty().bind(task.messageProperty());
+        Alert progress = new Alert(Alert.AlertType.NONE, "", ButtonType.CANCEL);
+        progress.setTitle("Exporting");
+        progress.getDialogPane().setContent(new HBox(10, new ProgressIndicator(), status));
+        progress.setOnHidden(event -> {
+            if (task.isRunning()) {
+                exporter.cancel();
             }
-            Parent view = FXMLLoader.load(resource);
-            contentArea.getChildren().clear();
-            contentArea.getChildren().add(view);
-        } catch (IOException e) {
-            e.printStackTrace();
+        });
+        progress.show();
+
+        task.setOnSucceeded(event -> {
+            progress.close();
+            ExportResult result = task.getValue();
+            if (result.isCancelled()) {
+                showAlert("Export Cancelled", "The export was cancelled and its partial files removed.");
+            } else {
+                showAlert("Export Finished", result.getRows() + " rows exported to " + directory
+                        + " in " + result.getElapsedMillis() + " ms.");
+            }
+        });
+        task.setOnFailed(event -> {
+            progress.close();
+            showAlert("Error", "Export failed: " + task.getException().getMessage());
+        });
+
+        Thread thread = new Thread(task, "data-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Asks whether to retry or discard a saved change the database refused. */
+    private void showRejectedWrite(RejectedWrite write) {
+        WriteJournal journal = WriteJournal.getInstance();
+        if (!rejectionsShown.add(write) || !journal.getRejected().contains(write)) {
+            return;
+        }
+        ButtonType retry = new ButtonType("Retry");
+        ButtonType discard = new ButtonType("Discard");
+        Alert alert = new Alert(Alert.AlertType.ERROR, "", retry, discard);
+        alert.setTitle("Change Not Saved");
+        alert.setHeaderText("The database rejected a saved change");
+        alert.setContentText(write.getDescription() + "\n\n" + write.getReason());
+        ButtonType choice = alert.showAndWait().orElse(retry);
+        if (choice == discard) {
+            journal.discard(write);
+        } else {
+            journal.retry(write).exceptionally(e -> {
+                Platform.runLater(() -> showAlert("Error", "Could not retry the change: " + e.getMessage()));
+                return null;
+            });
         }
     }
+
+    private void showAlert(String title, String content) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle(title);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
 }
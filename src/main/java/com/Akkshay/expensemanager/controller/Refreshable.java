@@ -0,0 +1,16 @@
+package com.Akkshay.expensemanager.controller;
+
+/**
+ * Controller of a view kept by {@link ViewRegistry}. Its {@code initialize()}
+ * runs once, when the view is loaded; {@link #refresh()} runs every time the
+ * view is put on screen.
+ */
+interface Refreshable {
+
+    /**
+     * Called on the FX thread when the view has been put back on screen.
+     * Should only go to the database if something changed while it was
+     * hidden, so that switching to it stays instant.
+     */
+    void refresh();
+}
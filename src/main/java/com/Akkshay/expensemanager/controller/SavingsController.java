@@ -1,6 +1,8 @@
 package com.Akkshay.expensemanager.controller;
 
 import com.Akkshay.expensemanager.dao.SavingsDAO;
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.model.Money;
 import com.Akkshay.expensemanager.model.Savings;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -8,10 +10,9 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
-public class SavingsController {
+public class SavingsController implements Refreshable {
 
     @FXML
     private TextField txtAmount;
@@ -26,7 +27,7 @@ public class SavingsController {
     @FXML
     private TableColumn<Savings, Long> colId;
     @FXML
-    private TableColumn<Savings, BigDecimal> colAmount;
+    private TableColumn<Savings, Money> colAmount;
     @FXML
     private TableColumn<Savings, LocalDate> colDate;
     @FXML
@@ -42,6 +43,7 @@ public class SavingsController {
 
     private SavingsDAO savingsDAO;
     private ObservableList<Savings> savingsList;
+    private ViewSubscriptions subscriptions;
 
     public SavingsController() {
         this.savingsDAO = new SavingsDAO();
@@ -55,19 +57,47 @@ public class SavingsController {
         colGoal.setCellValueFactory(new PropertyValueFactory<>("goal"));
         colDescription.setCellValueFactory(new PropertyValueFactory<>("description"));
 
+        subscriptions = new ViewSubscriptions(tblSavings);
+        subscriptions.subscribe(Savings.class, this::onSavingsChanged);
+
         loadSavings();
     }
 
-    private void loadSavings() {
-        savingsList = FXCollections.observableArrayList(savingsDAO.getAllSavings());
-        tblSavings.setItems(savingsList);
+    @Override
+    public void refresh() {
+        if (subscriptions.takeMissed()) {
+            loadSavings();
+        }
+    }
+
+    private void onSavingsChanged(ChangeEvent<Savings> event) {
+        if (savingsList == null || !event.applyTo(savingsList, Savings::getSavingsId)) {
+            // Not loaded yet, or a bulk change: read everything again
+            loadSavings();
+            return;
+        }
         updateSummary();
     }
 
+    private void loadSavings() {
+        tblSavings.setPlaceholder(new Label("Loading savings..."));
+        lblTotalSavings.setText("Loading...");
+        savingsDAO.getAllSavingsAsync()
+                .thenAccept(savings -> {
+                    savingsList = FXCollections.observableArrayList(savings);
+                    tblSavings.setItems(savingsList);
+                    tblSavings.setPlaceholder(new Label("No savings yet."));
+                    updateSummary();
+                })
+                .exceptionally(e -> {
+                    tblSavings.setPlaceholder(new Label("Could not load savings."));
+                    showAlert("Error", "Could not load savings: " + e.getMessage());
+                    return null;
+                });
+    }
+
     private void updateSummary() {
-        BigDecimal total = savingsList.stream()
-                .map(Savings::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Money total = Money.sum(savingsList, Savings::getAmount);
 
         lblTotalSavings.setText("Rs " + total.toString());
         lblSavingsCount.setText(savingsList.size() + " savings entries");
@@ -89,15 +119,18 @@ public class SavingsController {
                 showAlert("Error", "Amount and Date are required.");
                 return;
             }
-            BigDecimal amount = new BigDecimal(txtAmount.getText());
+            Money amount = Money.parse(txtAmount.getText());
             LocalDate date = dpDate.getValue();
             String goal = txtGoal.getText();
             String description = txtDescription.getText();
 
             Savings savings = new Savings(amount, date, description, goal);
-            savingsDAO.saveSavings(savings);
-            loadSavings();
-            clearFields();
+            savingsDAO.saveSavingsAsync(savings)
+                    .thenRun(this::clearFields)
+                    .exceptionally(e -> {
+                        showAlert("Error", "Could not save savings: " + e.getMessage());
+                        return null;
+                    });
         } catch (NumberFormatException e) {
             showAlert("Error", "Invalid amount format.");
         } catch (Exception e) {
@@ -112,7 +145,7 @@ public class SavingsController {
             try {
                 // Only update fields that have values
                 if (!txtAmount.getText().isEmpty()) {
-                    selected.setAmount(new BigDecimal(txtAmount.getText()));
+                    selected.setAmount(Money.parse(txtAmount.getText()));
                 }
 
                 if (dpDate.getValue() != null) {
@@ -127,10 +160,15 @@ public class SavingsController {
                     selected.setDescription(txtDescription.getText());
                 }
 
-                savingsDAO.updateSavings(selected);
-                loadSavings();
-                clearFields();
-                showAlert("Success", "Savings updated successfully!");
+                savingsDAO.updateSavingsAsync(selected)
+                        .thenRun(() -> {
+                            clearFields();
+                            showAlert("Success", "Savings updated successfully!");
+                        })
+                        .exceptionally(e -> {
+                            showAlert("Error", "Could not update savings: " + e.getMessage());
+                            return null;
+                        });
             } catch (NumberFormatException e) {
                 showAlert("Error", "Invalid amount format.");
             } catch (Exception e) {
@@ -145,8 +183,11 @@ public class SavingsController {
     private void handleDeleteSavings() {
         Savings selected = tblSavings.getSelectionModel().getSelectedItem();
         if (selected != null) {
-            savingsDAO.deleteSavings(selected);
-            loadSavings();
+            savingsDAO.deleteSavingsAsync(selected)
+                    .exceptionally(e -> {
+                        showAlert("Error", "Could not delete savings: " + e.getMessage());
+                        return null;
+                    });
         } else {
             showAlert("Warning", "Please select a savings entry to delete.");
         }
@@ -1,10 +1,13 @@
 package com.Akkshay.expensemanager.controller;
 
-import com.Akkshay.expensemanager.dao.BudgetDAO;
-import com.Akkshay.expensemanager.dao.ExpenseDAO;
-import com.Akkshay.expensemanager.dao.SavingsDAO;
+import com.Akkshay.expensemanager.dao.MonthlyRollupDAO;
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeType;
 import com.Akkshay.expensemanager.model.Budget;
 import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.MonthlyRollup;
+import com.Akkshay.expensemanager.model.MonthlySummary;
 import com.Akkshay.expensemanager.model.Savings;
 import javafx.fxml.FXML;
 import javafx.scene.chart.LineChart;
@@ -12,14 +15,21 @@ import javafx.scene.chart.CategoryAxis;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.Label;
 
+import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
-public class TrendsController {
+public class TrendsController implements Refreshable {
+
+    // Which of the three lines a change moves
+    private static final int SPEND = 0;
+    private static final int BUDGET = 1;
+    private static final int SAVINGS = 2;
 
     @FXML
     private LineChart<String, Number> lineChart;
@@ -28,49 +38,71 @@ public class TrendsController {
     @FXML
     private Label lblInsight;
 
-    private ExpenseDAO expenseDAO;
-    private BudgetDAO budgetDAO;
-    private SavingsDAO savingsDAO;
+    private MonthlyRollupDAO rollupDAO;
+    private ViewSubscriptions subscriptions;
+
+    // What the chart shows, by month (YYYY-MM); null until the first load
+    private Map<String, Money> monthlySpend;
+    private Map<String, Money> monthlyBudget;
+    private Map<String, Money> monthlySavings;
+    private XYChart.Series<String, Number> spendSeries;
+    private XYChart.Series<String, Number> budgetSeries;
+    private XYChart.Series<String, Number> savingsSeries;
 
     public TrendsController() {
-        this.expenseDAO = new ExpenseDAO();
-        this.budgetDAO = new BudgetDAO();
-        this.savingsDAO = new SavingsDAO();
+        this.rollupDAO = new MonthlyRollupDAO();
     }
 
     @FXML
     public void initialize() {
+        subscriptions = new ViewSubscriptions(lineChart);
+        subscriptions.subscribe(Expense.class,
+                event -> onDataChanged(event, Expense::getExpenseDate, Expense::getAmount, SPEND));
+        subscriptions.subscribe(Budget.class,
+                event -> onDataChanged(event, Budget::getBudgetMonth, Budget::getAmount, BUDGET));
+        subscriptions.subscribe(Savings.class,
+                event -> onDataChanged(event, Savings::getSavingsDate, Savings::getAmount, SAVINGS));
+        subscriptions.subscribe(MonthlyRollup.class, event -> loadChartData());
+
         loadChartData();
     }
 
+    @Override
+    public void refresh() {
+        if (subscriptions.takeMissed()) {
+            loadChartData();
+        }
+    }
+
     private void loadChartData() {
-        List<Expense> expenses = expenseDAO.getAllExpenses();
-        List<Budget> budgets = budgetDAO.getAllBudgets();
-        List<Savings> savings = savingsDAO.getAllSavings();
-
-        // Group by Month (YYYY-MM)
-        Map<String, Double> monthlySpend = expenses.stream()
-                .collect(Collectors.groupingBy(
-                        e -> YearMonth.from(e.getExpenseDate()).toString(),
-                        Collectors.summingDouble(e -> e.getAmount().doubleValue())));
-
-        Map<String, Double> monthlyBudget = budgets.stream()
-                .collect(Collectors.groupingBy(
-                        b -> YearMonth.from(b.getBudgetMonth()).toString(),
-                        Collectors.summingDouble(b -> b.getAmount().doubleValue())));
-
-        Map<String, Double> monthlySavings = savings.stream()
-                .collect(Collectors.groupingBy(
-                        s -> YearMonth.from(s.getSavingsDate()).toString(),
-                        Collectors.summingDouble(s -> s.getAmount().doubleValue())));
-
-        XYChart.Series<String, Number> spendSeries = new XYChart.Series<>();
+        lblInsight.setText("Loading...");
+        // Month totals (YYYY-MM) come from the monthly rollup, one row per month
+        rollupDAO.getMonthlySummariesAsync()
+                .thenAccept(this::showChartData)
+                .exceptionally(e -> {
+                    lblInsight.setText("Could not load trends: " + e.getMessage());
+                    return null;
+                });
+    }
+
+    private void showChartData(List<MonthlySummary> summaries) {
+        monthlySpend = new HashMap<>();
+        monthlyBudget = new HashMap<>();
+        monthlySavings = new HashMap<>();
+        for (MonthlySummary summary : summaries) {
+            String month = summary.getMonth().toString();
+            monthlySpend.put(month, summary.getSpend());
+            monthlyBudget.put(month, summary.getBudget());
+            monthlySavings.put(month, summary.getSavings());
+        }
+
+        spendSeries = new XYChart.Series<>();
         spendSeries.setName("Spend");
 
-        XYChart.Series<String, Number> budgetSeries = new XYChart.Series<>();
+        budgetSeries = new XYChart.Series<>();
         budgetSeries.setName("Budget");
 
-        XYChart.Series<String, Number> savingsSeries = new XYChart.Series<>();
+        savingsSeries = new XYChart.Series<>();
         savingsSeries.setName("Savings");
 
         // Combine months
@@ -79,13 +111,13 @@ public class TrendsController {
         allMonths.addAll(monthlySavings.keySet());
 
         for (String month : allMonths) {
-            Double budgetVal = monthlyBudget.getOrDefault(month, 0.0);
-            Double spendVal = monthlySpend.getOrDefault(month, 0.0);
-            Double savingsVal = monthlySavings.getOrDefault(month, 0.0);
+            Money budgetVal = monthlyBudget.getOrDefault(month, Money.ZERO);
+            Money spendVal = monthlySpend.getOrDefault(month, Money.ZERO);
+            Money savingsVal = monthlySavings.getOrDefault(month, Money.ZERO);
 
-            budgetSeries.getData().add(new XYChart.Data<>(month, budgetVal));
-            spendSeries.getData().add(new XYChart.Data<>(month, spendVal));
-            savingsSeries.getData().add(new XYChart.Data<>(month, savingsVal));
+            budgetSeries.getData().add(new XYChart.Data<>(month, budgetVal.toDouble()));
+            spendSeries.getData().add(new XYChart.Data<>(month, spendVal.toDouble()));
+            savingsSeries.getData().add(new XYChart.Data<>(month, savingsVal.toDouble()));
         }
 
         lineChart.getData().clear();
@@ -96,7 +128,63 @@ public class TrendsController {
         generateInsights(monthlySpend, monthlyBudget, monthlySavings);
     }
 
-    private void generateInsights(Map<String, Double> spend, Map<String, Double> budget, Map<String, Double> savings) {
+    /**
+     * Moves the affected month points by the old and new amount of the row,
+     * leaving the rest of the chart alone. Bulk changes reload it.
+     */
+    private <T> void onDataChanged(ChangeEvent<T> event, Function<T, LocalDate> dateOf,
+                                   Function<T, Money> amountOf, int line) {
+        if (monthlySpend == null) {
+            return; // nothing on screen yet
+        }
+        if (event.getType() == ChangeType.BULK_CHANGE) {
+            loadChartData();
+            return;
+        }
+        if (event.getOldValue() != null) {
+            T old = event.getOldValue();
+            addToMonth(YearMonth.from(dateOf.apply(old)).toString(), amountOf.apply(old).negate(), line);
+        }
+        if (event.getNewValue() != null) {
+            T row = event.getNewValue();
+            addToMonth(YearMonth.from(dateOf.apply(row)).toString(), amountOf.apply(row), line);
+        }
+        generateInsights(monthlySpend, monthlyBudget, monthlySavings);
+    }
+
+    private void addToMonth(String month, Money delta, int line) {
+        Map<String, Money> totals = line == SPEND ? monthlySpend : line == BUDGET ? monthlyBudget : monthlySavings;
+        XYChart.Series<String, Number> series = line == SPEND ? spendSeries : line == BUDGET ? budgetSeries : savingsSeries;
+
+        Money value = totals.merge(month, delta, Money::plus);
+        int index = indexOfMonth(series, month);
+        if (index < 0) {
+            // New month: every line gets a point so the x axis stays shared and sorted
+            int insertAt = -index - 1;
+            budgetSeries.getData().add(insertAt, new XYChart.Data<>(month, 0.0));
+            spendSeries.getData().add(insertAt, new XYChart.Data<>(month, 0.0));
+            savingsSeries.getData().add(insertAt, new XYChart.Data<>(month, 0.0));
+            index = insertAt;
+        }
+        series.getData().get(index).setYValue(value.toDouble());
+    }
+
+    // Points are sorted by month; returns (-(insertion point) - 1) when absent
+    private static int indexOfMonth(XYChart.Series<String, Number> series, String month) {
+        List<XYChart.Data<String, Number>> data = series.getData();
+        for (int i = 0; i < data.size(); i++) {
+            int cmp = data.get(i).getXValue().compareTo(month);
+            if (cmp == 0) {
+                return i;
+            }
+            if (cmp > 0) {
+                return -i - 1;
+            }
+        }
+        return -data.size() - 1;
+    }
+
+    private void generateInsights(Map<String, Money> spend, Map<String, Money> budget, Map<String, Money> savings) {
         StringBuilder insights = new StringBuilder();
 
         Set<String> allMonths = new TreeSet<>(budget.keySet());
@@ -104,21 +192,21 @@ public class TrendsController {
         allMonths.addAll(savings.keySet());
 
         for (String month : allMonths) {
-            Double budgetVal = budget.getOrDefault(month, 0.0);
-            Double spendVal = spend.getOrDefault(month, 0.0);
-            Double savingsVal = savings.getOrDefault(month, 0.0);
+            Money budgetVal = budget.getOrDefault(month, Money.ZERO);
+            Money spendVal = spend.getOrDefault(month, Money.ZERO);
+            Money savingsVal = savings.getOrDefault(month, Money.ZERO);
 
             // Calculate remaining: Budget - (Spend + Savings)
-            double totalUsed = spendVal + savingsVal;
-            double remaining = budgetVal - totalUsed;
+            Money totalUsed = spendVal.plus(savingsVal);
+            Money remaining = budgetVal.minus(totalUsed);
 
-            if (totalUsed > budgetVal) {
+            if (remaining.signum() < 0) {
                 insights.append("In ").append(month).append(", you overspent by Rs ")
-                        .append(String.format("%.2f", totalUsed - budgetVal)).append(".\n");
+                        .append(remaining.negate()).append(".\n");
             } else {
                 insights.append("In ").append(month).append(", you were within budget. Remaining: Rs ")
-                        .append(String.format("%.2f", remaining))
-                        .append(". Total Saved: Rs ").append(String.format("%.2f", savingsVal)).append(".\n");
+                        .append(remaining)
+                        .append(". Total Saved: Rs ").append(savingsVal).append(".\n");
             }
         }
 
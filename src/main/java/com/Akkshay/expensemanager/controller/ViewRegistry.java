@@ -0,0 +1,120 @@
+package com.Akkshay.expensemanager.controller;
+
+import com.Akkshay.expensemanager.util.StartupTimer;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.layout.StackPane;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads each {@link AppView} once and keeps its node tree and controller,
+ * so navigating back to a screen swaps it in instead of parsing its FXML and
+ * running its {@code initialize()} (and queries) again.
+ *
+ * <p>Views not yet visited are loaded by {@link #preloadRemaining()}, one per
+ * FX event so input keeps being handled in between. Loading stays on the FX
+ * thread because the controllers build alerts and charts while they
+ * initialize. FX thread only.
+ */
+class ViewRegistry {
+
+    private static final Logger LOG = Logger.getLogger(ViewRegistry.class);
+
+    private final StackPane contentArea;
+    private final Map<AppView, LoadedView> views = new EnumMap<>(AppView.class);
+    private AppView shown;
+
+    /** @param contentArea where the shown view is put */
+    ViewRegistry(StackPane contentArea) {
+        this.contentArea = contentArea;
+    }
+
+    /** Puts the view on screen, loading it first if needed, and lets its controller refresh. */
+    void show(AppView view) {
+        LoadedView loaded = get(view);
+        if (loaded == null) {
+            return;
+        }
+        if (shown != view) {
+            contentArea.getChildren().setAll(loaded.root);
+            shown = view;
+        }
+        if (loaded.controller instanceof Refreshable refreshable) {
+            refreshable.refresh();
+        }
+    }
+
+    /**
+     * Loads every view not loaded yet in the background of the FX thread, in
+     * {@link AppView} order. The future completes on the FX thread once all
+     * are loaded.
+     */
+    CompletableFuture<Void> preloadRemaining() {
+        Deque<AppView> pending = new ArrayDeque<>();
+        for (AppView view : AppView.values()) {
+            if (!views.containsKey(view)) {
+                pending.add(view);
+            }
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        preloadNext(pending, done);
+        return done;
+    }
+
+    private void preloadNext(Deque<AppView> pending, CompletableFuture<Void> done) {
+        Platform.runLater(() -> {
+            AppView view = pending.poll();
+            if (view == null) {
+                done.complete(null);
+                return;
+            }
+            // Skipped if the user navigated there in the meantime
+            if (!views.containsKey(view)) {
+                StartupTimer.time(view + " view", () -> get(view));
+            }
+            preloadNext(pending, done);
+        });
+    }
+
+    /** The loaded view, or null if its FXML could not be loaded (which is logged). */
+    private LoadedView get(AppView view) {
+        LoadedView loaded = views.get(view);
+        if (loaded != null) {
+            return loaded;
+        }
+        URL resource = getClass().getResource(view.getResourcePath());
+        if (resource == null) {
+            LOG.errorf("Cannot find FXML: %s", view.getResourcePath());
+            return null;
+        }
+        try {
+            FXMLLoader loader = new FXMLLoader(resource);
+            Parent root = loader.load();
+            loaded = new LoadedView(root, loader.getController());
+            views.put(view, loaded);
+            return loaded;
+        } catch (IOException e) {
+            LOG.errorf(e, "Could not load %s", view.getResourcePath());
+            return null;
+        }
+    }
+
+    private static final class LoadedView {
+        private final Parent root;
+        private final Object controller;
+
+        private LoadedView(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+}
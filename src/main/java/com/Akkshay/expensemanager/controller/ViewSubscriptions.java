@@ -0,0 +1,47 @@
+package com.Akkshay.expensemanager.controller;
+
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.util.function.Consumer;
+
+/**
+ * Change-event subscriptions of one view. Listeners run on the FX thread,
+ * but only while the view is in a scene: {@link ViewRegistry} keeps views
+ * that are not on screen, and patching those on every write would be wasted
+ * work. Events arriving while the view is hidden are dropped and remembered
+ * instead, so the view can read its data again once shown, see
+ * {@link #takeMissed()}. ViewRegistry keeps every view for the life of the
+ * window, so the subscriptions are never cancelled.
+ */
+class ViewSubscriptions {
+
+    private final ChangeEventBus eventBus = ChangeEventBus.getInstance();
+    private final Node view;
+    // Only touched on the FX thread
+    private boolean missed;
+
+    /** @param view any node of the view, e.g. a field injected by FXML */
+    ViewSubscriptions(Node view) {
+        this.view = view;
+    }
+
+    <T> void subscribe(Class<T> entityType, Consumer<? super ChangeEvent<T>> listener) {
+        eventBus.subscribe(entityType, Platform::runLater, event -> {
+            if (view.getScene() != null) {
+                listener.accept(event);
+            } else {
+                missed = true;
+            }
+        });
+    }
+
+    /** Whether an event was dropped since the last call, because the view was hidden. */
+    boolean takeMissed() {
+        boolean result = missed;
+        missed = false;
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+package com.Akkshay.expensemanager.dao;
+
+import com.Akkshay.expensemanager.model.AppliedJournalEntry;
+import com.Akkshay.expensemanager.util.DaoCall;
+import com.Akkshay.expensemanager.util.DaoMetrics;
+import org.hibernate.Session;
+
+import java.time.Instant;
+
+/**
+ * Exactly-once application of write-journal entries, tracked in
+ * TBL_APPLIED_JOURNAL.
+ */
+public class AppliedJournalDAO {
+
+    private final DaoMetrics metrics = DaoMetrics.getInstance();
+
+    /**
+     * Runs the write in one unit of work together with recording its key,
+     * unless the key was recorded before.
+     *
+     * @return false if the entry had already been applied and was skipped
+     */
+    public boolean applyOnce(String entryKey, Runnable write) {
+        try (DaoCall call = metrics.start("AppliedJournalDAO.applyOnce")) {
+            boolean applied = UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                if (session.find(AppliedJournalEntry.class, entryKey) != null) {
+                    return false;
+                }
+                write.run();
+                session.persist(new AppliedJournalEntry(entryKey, Instant.now()));
+                return true;
+            });
+            call.succeeded(applied ? 1 : 0);
+            return applied;
+        }
+    }
+
+    /**
+     * Forgets the keys recorded before a moment, once the journal holding
+     * their entries has been truncated and they can no longer come back.
+     */
+    public int deleteAppliedBefore(Instant cutoff) {
+        try (DaoCall call = metrics.start("AppliedJournalDAO.deleteAppliedBefore")) {
+            int deleted = UnitOfWork.inTransaction(() -> UnitOfWork.currentSession()
+                    .createMutationQuery("DELETE FROM AppliedJournalEntry a WHERE a.appliedAt < :cutoff")
+                    .setParameter("cutoff", cutoff)
+                    .executeUpdate());
+            call.succeeded(deleted);
+            return deleted;
+        }
+    }
+}
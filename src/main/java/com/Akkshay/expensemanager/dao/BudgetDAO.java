@@ -1,56 +1,164 @@
 package com.Akkshay.expensemanager.dao;
 
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.journal.JournalEntry;
+import com.Akkshay.expensemanager.journal.WriteJournal;
 import com.Akkshay.expensemanager.model.Budget;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.MonthlyRollupId;
+import com.Akkshay.expensemanager.snapshot.LocalSnapshot;
+import com.Akkshay.expensemanager.util.DaoCall;
+import com.Akkshay.expensemanager.util.DaoMetrics;
+import com.Akkshay.expensemanager.util.DbExecutor;
 import com.Akkshay.expensemanager.util.HibernateUtil;
 import org.hibernate.Session;
-import org.hibernate.Transaction;
 
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class BudgetDAO {
 
+    /** Query-cache region of getAllBudgets (see ehcache.xml). */
+    static final String BUDGET_LIST_REGION = "budget-list";
+
+    private final ChangeEventBus eventBus = ChangeEventBus.getInstance();
+    private final DaoMetrics metrics = DaoMetrics.getInstance();
+
     public void saveBudget(Budget budget) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.persist(budget);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null)
-                transaction.rollback();
-            e.printStackTrace();
+        try (DaoCall call = metrics.start("BudgetDAO.saveBudget")) {
+            UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                session.persist(budget);
+                MonthlyRollupDAO.addBudget(session, budget.getBudgetMonth(), budget.getAmount());
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    eventBus.publish(ChangeEvent.created(Budget.class, new Budget(budget)));
+                });
+            });
+            call.succeeded(1);
+        }
+    }
+
+    /** Bulk version of saveBudget: one transaction, JDBC-batched inserts. */
+    public void saveBudgets(Collection<Budget> budgets) {
+        try (DaoCall call = metrics.start("BudgetDAO.saveBudgets")) {
+            UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                Map<MonthlyRollupId, Money> rollupDeltas = new HashMap<>();
+                int count = 0;
+                for (Budget budget : budgets) {
+                    session.persist(budget);
+                    rollupDeltas.merge(
+                            new MonthlyRollupId(budget.getBudgetMonth(), MonthlyRollupId.NO_CATEGORY),
+                            budget.getAmount(), Money::plus);
+                    if (++count % HibernateUtil.BATCH_SIZE == 0) {
+                        session.flush();
+                        session.clear();
+                    }
+                }
+                MonthlyRollupDAO.addBudget(session, rollupDeltas);
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    eventBus.publish(ChangeEvent.bulkChange(Budget.class));
+                });
+            });
+            call.succeeded(budgets.size());
         }
     }
 
     public void updateBudget(Budget budget) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.merge(budget);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null)
-                transaction.rollback();
-            e.printStackTrace();
+        try (DaoCall call = metrics.start("BudgetDAO.updateBudget")) {
+            UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                // Take the old row out of the rollup before merging the new values onto it
+                Budget current = session.find(Budget.class, budget.getBudgetId());
+                // merge() writes onto the managed instance, so keep a copy for the change event
+                Budget previous = current != null ? new Budget(current) : null;
+                if (current != null) {
+                    MonthlyRollupDAO.addBudget(session, current.getBudgetMonth(), current.getAmount().negate());
+                }
+                session.merge(budget);
+                MonthlyRollupDAO.addBudget(session, budget.getBudgetMonth(), budget.getAmount());
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    eventBus.publish(previous != null
+                            ? ChangeEvent.updated(Budget.class, previous, new Budget(budget))
+                            : ChangeEvent.created(Budget.class, new Budget(budget)));
+                });
+            });
+            call.succeeded(1);
         }
     }
 
     public void deleteBudget(Budget budget) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.remove(budget);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null)
-                transaction.rollback();
-            e.printStackTrace();
+        try (DaoCall call = metrics.start("BudgetDAO.deleteBudget")) {
+            call.succeeded(UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                Budget current = session.find(Budget.class, budget.getBudgetId());
+                if (current != null) {
+                    MonthlyRollupDAO.addBudget(session, current.getBudgetMonth(), current.getAmount().negate());
+                    session.remove(current);
+                }
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    if (current != null) {
+                        eventBus.publish(ChangeEvent.deleted(Budget.class, current));
+                    }
+                });
+                return current != null ? 1 : 0;
+            }));
         }
     }
 
     public List<Budget> getAllBudgets() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery("FROM Budget", Budget.class).list();
+        try (DaoCall call = metrics.start("BudgetDAO.getAllBudgets")) {
+            return UnitOfWork.read(session -> {
+                // Cached until TBL_BUDGET is next written; the rows come from the "budget" entity region
+                return call.returned(session.createQuery("FROM Budget", Budget.class)
+                        .setCacheable(true)
+                        .setCacheRegion(BUDGET_LIST_REGION)
+                        .list());
+            });
         }
     }
+
+    /** Budgets of one month, read through IDX_BUDGET_MONTH. */
+    public List<Budget> findBudgetsForMonth(YearMonth month) {
+        try (DaoCall call = metrics.start("BudgetDAO.findBudgetsForMonth")) {
+            return UnitOfWork.read(session -> call.returned(session.createQuery(
+                    "FROM Budget b WHERE b.budgetMonth BETWEEN :first AND :last ORDER BY b.budgetId", Budget.class)
+                    .setParameter("first", month.atDay(1))
+                    .setParameter("last", month.atEndOfMonth())
+                    .list()));
+        }
+    }
+
+    // --- Async variants: run on DbExecutor, complete on the FX thread --- //
+
+    /** Served from the {@link LocalSnapshot} until it has synced with the database. */
+    public CompletableFuture<List<Budget>> getAllBudgetsAsync() {
+        return LocalSnapshot.getInstance().readOr(LocalSnapshot::getBudgets, this::getAllBudgets);
+    }
+
+    public CompletableFuture<List<Budget>> findBudgetsForMonthAsync(YearMonth month) {
+        return DbExecutor.submit(() -> findBudgetsForMonth(month));
+    }
+
+    /** Journaled like {@link ExpenseDAO#saveExpenseAsync}; so are the update and delete. */
+    public CompletableFuture<Void> saveBudgetAsync(Budget budget) {
+        return DbExecutor.onFxThread(WriteJournal.getInstance().append(JournalEntry.saveBudget(budget)));
+    }
+
+    public CompletableFuture<Void> updateBudgetAsync(Budget budget) {
+        return DbExecutor.onFxThread(WriteJournal.getInstance().append(JournalEntry.updateBudget(budget)));
+    }
+
+    public CompletableFuture<Void> deleteBudgetAsync(Budget budget) {
+        return DbExecutor.onFxThread(WriteJournal.getInstance().append(JournalEntry.deleteBudget(budget)));
+    }
 }
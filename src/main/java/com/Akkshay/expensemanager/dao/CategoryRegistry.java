@@ -0,0 +1,182 @@
+package com.Akkshay.expensemanager.dao;
+
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.model.Category;
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of categories, keyed by their normalized (trimmed,
+ * lower-case) name. TBL_CATEGORIES is read once; after that lookups cost no
+ * queries and the registry is kept coherent by the DAO writes.
+ */
+public class CategoryRegistry {
+
+    /** Query-cache region of the full category list (see ehcache.xml). */
+    static final String CATEGORY_LIST_REGION = "category-list";
+
+    private static final CategoryRegistry INSTANCE = new CategoryRegistry();
+
+    private final Map<String, Category> byName = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    private CategoryRegistry() {
+    }
+
+    public static CategoryRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    static String normalize(String name) {
+        return Category.keyOf(name);
+    }
+
+    /** All known categories, ordered by name. */
+    public List<Category> getAll() {
+        ensureLoaded();
+        List<Category> categories = new ArrayList<>(byName.values());
+        categories.sort(Comparator.comparing(Category::getCategoryName, String.CASE_INSENSITIVE_ORDER));
+        return categories;
+    }
+
+    /** Case-insensitive lookup; returns null if no such category exists. */
+    public Category find(String name) {
+        ensureLoaded();
+        return byName.get(normalize(name));
+    }
+
+    /**
+     * Returns the category with this name, creating it if needed.
+     * The unique constraint on the normalized name settles races between
+     * writers, in this process or another: the loser re-reads the row that won
+     * instead of failing, and every caller gets the instance registered first.
+     *
+     * <p>Inside a {@link UnitOfWork} a new category is inserted as part of it
+     * and only registered once it commits; losing a race with another writer
+     * then fails the whole unit.
+     */
+    public Category getOrCreate(String name) {
+        ensureLoaded();
+        String key = normalize(name);
+        Category category = byName.get(key);
+        if (category != null) {
+            return category;
+        }
+        if (UnitOfWork.isActive()) {
+            return fetchOrInsert(name.trim());
+        }
+        // Not computeIfAbsent: the insert must not run while holding the map's bin lock
+        Category created = insertOrFetch(name.trim());
+        Category registered = byName.putIfAbsent(key, created);
+        return registered != null ? registered : created;
+    }
+
+    /** Keeps the registry in step after a category has been written elsewhere. */
+    void register(Category category) {
+        if (category.getCategoryId() != null && category.getCategoryName() != null) {
+            byName.put(normalize(category.getCategoryName()), category);
+        }
+    }
+
+    /** Forgets everything, second-level cache included; the next lookup reloads from the database. */
+    public void invalidate() {
+        synchronized (this) {
+            byName.clear();
+            loaded = false;
+            Cache cache = HibernateUtil.getSessionFactory().getCache();
+            cache.evictEntityData(Category.class);
+            cache.evictQueryRegion(CATEGORY_LIST_REGION);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            // A session of its own even inside a unit of work, so only committed categories are cached
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                List<Category> categories = session.createQuery("FROM Category", Category.class)
+                        .setCacheable(true)
+                        .setCacheRegion(CATEGORY_LIST_REGION)
+                        .list();
+                for (Category category : categories) {
+                    byName.putIfAbsent(normalize(category.getCategoryName()), category);
+                }
+            }
+            loaded = true;
+        }
+    }
+
+    private Category insertOrFetch(String name) {
+        // Another writer may already have created it, possibly with different case.
+        Category existing = fetchByName(name);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            // Registered by getOrCreate
+            return UnitOfWork.inTransaction(() -> insert(name, false));
+        } catch (DataAccessException e) {
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+            // Lost the race on the unique constraint: use the row that won.
+            existing = fetchByName(name);
+            if (existing == null) {
+                throw e;
+            }
+            return existing;
+        }
+    }
+
+    /** Inside the caller's unit of work; a category it created earlier is found by the auto-flushing query. */
+    private Category fetchOrInsert(String name) {
+        Category existing = fetchByName(name);
+        return existing != null ? existing : insert(name, true);
+    }
+
+    private Category insert(String name, boolean registerOnCommit) {
+        Category category = new Category(name);
+        UnitOfWork.currentSession().persist(category);
+        UnitOfWork.afterCommit(() -> {
+            if (registerOnCommit) {
+                register(category);
+            }
+            DataVersion.bump();
+            ChangeEventBus.getInstance().publish(ChangeEvent.created(Category.class, category));
+        });
+        return category;
+    }
+
+    // The commit may wrap the violation, e.g. in a RollbackException
+    private static boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Category fetchByName(String name) {
+        return UnitOfWork.read(session -> session.createQuery(
+                "FROM Category c WHERE c.categoryKey = :key", Category.class)
+                .setParameter("key", normalize(name))
+                .setMaxResults(1)
+                .uniqueResult());
+    }
+}
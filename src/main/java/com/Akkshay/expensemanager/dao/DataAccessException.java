@@ -0,0 +1,17 @@
+package com.Akkshay.expensemanager.dao;
+
+/**
+ * Thrown by the DAOs when the database rejects or fails an operation. By the
+ * time a caller sees it the transaction has been rolled back, and no change
+ * events were published for it.
+ */
+public class DataAccessException extends RuntimeException {
+
+    public DataAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public DataAccessException(String message) {
+        super(message);
+    }
+}
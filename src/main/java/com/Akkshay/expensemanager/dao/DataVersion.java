@@ -0,0 +1,24 @@
+package com.Akkshay.expensemanager.dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter bumped by every DAO write after it commits. Anything derived from
+ * the tables (e.g. the dashboard snapshot) remembers the version it was read
+ * at and is stale as soon as the counter has moved on.
+ */
+public final class DataVersion {
+
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private DataVersion() {
+    }
+
+    public static long current() {
+        return VERSION.get();
+    }
+
+    static void bump() {
+        VERSION.incrementAndGet();
+    }
+}
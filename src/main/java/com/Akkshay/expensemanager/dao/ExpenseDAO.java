@@ -1,72 +1,343 @@
 package com.Akkshay.expensemanager.dao;
 
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.journal.JournalEntry;
+import com.Akkshay.expensemanager.journal.WriteJournal;
 import com.Akkshay.expensemanager.model.Category;
 import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.MonthlyRollupId;
+import com.Akkshay.expensemanager.model.MonthlySummary;
+import com.Akkshay.expensemanager.snapshot.LocalSnapshot;
+import com.Akkshay.expensemanager.util.DaoCall;
+import com.Akkshay.expensemanager.util.DaoMetrics;
+import com.Akkshay.expensemanager.util.DbExecutor;
 import com.Akkshay.expensemanager.util.HibernateUtil;
 import org.hibernate.Session;
-import org.hibernate.Transaction;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class ExpenseDAO {
 
+    private final ChangeEventBus eventBus = ChangeEventBus.getInstance();
+    private final DaoMetrics metrics = DaoMetrics.getInstance();
+
     public void saveExpense(Expense expense) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.persist(expense);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) transaction.rollback();
-            e.printStackTrace();
+        try (DaoCall call = metrics.start("ExpenseDAO.saveExpense")) {
+            UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                session.persist(expense);
+                MonthlyRollupDAO.addSpend(session, expense.getExpenseDate(),
+                        expense.getCategory().getCategoryId(), expense.getAmount());
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    eventBus.publish(ChangeEvent.created(Expense.class, new Expense(expense)));
+                });
+            });
+            call.succeeded(1);
+        }
+    }
+
+    /**
+     * Inserts many expenses at once, e.g. for imports.
+     * All rows go in one transaction, flushed as JDBC batches of
+     * {@link HibernateUtil#BATCH_SIZE}; ids come from the pooled sequence, so
+     * no round trip per row is needed to learn them. Subscribers get a single
+     * bulk change event with the new ids instead of one event per row. The session is cleared after
+     * every batch, which inside a larger {@link UnitOfWork} also detaches the
+     * entities loaded earlier in it.
+     */
+    public void saveExpenses(Collection<Expense> expenses) {
+        try (DaoCall call = metrics.start("ExpenseDAO.saveExpenses")) {
+            UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                Map<MonthlyRollupId, Money> rollupDeltas = new HashMap<>();
+                int count = 0;
+                for (Expense expense : expenses) {
+                    session.persist(expense);
+                    rollupDeltas.merge(
+                            new MonthlyRollupId(expense.getExpenseDate(), expense.getCategory().getCategoryId()),
+                            expense.getAmount(), Money::plus);
+                    if (++count % HibernateUtil.BATCH_SIZE == 0) {
+                        session.flush();
+                        session.clear();
+                    }
+                }
+                MonthlyRollupDAO.addSpend(session, rollupDeltas);
+                // Assigned on persist, and kept by the entities after the session is cleared
+                long[] ids = expenses.stream().mapToLong(Expense::getExpenseId).toArray();
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    eventBus.publish(ChangeEvent.bulkChange(Expense.class, ids));
+                });
+            });
+            call.succeeded(expenses.size());
         }
     }
 
     public void updateExpense(Expense expense) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.merge(expense);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) transaction.rollback();
-            e.printStackTrace();
+        try (DaoCall call = metrics.start("ExpenseDAO.updateExpense")) {
+            UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                // Take the old row out of the rollup before merging the new values onto it
+                Expense current = session.find(Expense.class, expense.getExpenseId());
+                // merge() writes onto the managed instance, so keep a copy for the change event
+                Expense previous = current != null ? new Expense(current) : null;
+                if (current != null) {
+                    MonthlyRollupDAO.addSpend(session, current.getExpenseDate(),
+                            current.getCategory().getCategoryId(), current.getAmount().negate());
+                }
+                session.merge(expense);
+                MonthlyRollupDAO.addSpend(session, expense.getExpenseDate(),
+                        expense.getCategory().getCategoryId(), expense.getAmount());
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    eventBus.publish(previous != null
+                            ? ChangeEvent.updated(Expense.class, previous, new Expense(expense))
+                            : ChangeEvent.created(Expense.class, new Expense(expense)));
+                });
+            });
+            call.succeeded(1);
         }
     }
 
     public void deleteExpense(Expense expense) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.remove(expense);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) transaction.rollback();
-            e.printStackTrace();
+        try (DaoCall call = metrics.start("ExpenseDAO.deleteExpense")) {
+            call.succeeded(UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                Expense current = session.find(Expense.class, expense.getExpenseId());
+                if (current != null) {
+                    MonthlyRollupDAO.addSpend(session, current.getExpenseDate(),
+                            current.getCategory().getCategoryId(), current.getAmount().negate());
+                    session.remove(current);
+                }
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    if (current != null) {
+                        eventBus.publish(ChangeEvent.deleted(Expense.class, current));
+                    }
+                });
+                return current != null ? 1 : 0;
+            }));
         }
     }
 
     public List<Expense> getAllExpenses() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery("FROM Expense", Expense.class).list();
+        try (DaoCall call = metrics.start("ExpenseDAO.getAllExpenses")) {
+            return UnitOfWork.read(session -> call.returned(session.createQuery("FROM Expense", Expense.class).list()));
+        }
+    }
+
+    /**
+     * Returns one page of expenses using a keyset (seek) cursor on
+     * (expense_date, expense_id) instead of an OFFSET, so every page costs the
+     * same no matter how deep the user has scrolled.
+     *
+     * @param after     last expense of the previous page, or null for the first page
+     * @param pageSize  maximum number of rows to return
+     * @param direction sort order of the page
+     */
+    public List<Expense> getExpensePage(Expense after, int pageSize, SortDirection direction) {
+        boolean ascending = direction == SortDirection.ASCENDING;
+        String seek = ascending ? ">" : "<";
+        String order = ascending ? "ASC" : "DESC";
+
+        StringBuilder hql = new StringBuilder("FROM Expense e JOIN FETCH e.category");
+        if (after != null) {
+            hql.append(" WHERE e.expenseDate ").append(seek).append(" :date")
+                    .append(" OR (e.expenseDate = :date AND e.expenseId ").append(seek).append(" :id)");
+        }
+        hql.append(" ORDER BY e.expenseDate ").append(order).append(", e.expenseId ").append(order);
+
+        try (DaoCall call = metrics.start("ExpenseDAO.getExpensePage")) {
+            return UnitOfWork.read(session -> {
+                var query = session.createQuery(hql.toString(), Expense.class)
+                        .setMaxResults(pageSize);
+                if (after != null) {
+                    query.setParameter("date", after.getExpenseDate());
+                    query.setParameter("id", after.getExpenseId());
+                }
+                return call.returned(query.list());
+            });
+        }
+    }
+
+    /**
+     * Expenses dated between two days, both inclusive, oldest first. With
+     * categories the range is read from IDX_EXPENSES_CATEGORY_DATE, one range
+     * per category; without, from IDX_EXPENSES_DATE.
+     *
+     * @param categories categories to keep, or null or empty for all
+     */
+    public List<Expense> findExpensesBetween(LocalDate from, LocalDate to, Collection<Category> categories) {
+        boolean allCategories = categories == null || categories.isEmpty();
+        String hql = "FROM Expense e JOIN FETCH e.category WHERE e.expenseDate BETWEEN :from AND :to"
+                + (allCategories ? "" : " AND e.category IN :categories")
+                + " ORDER BY e.expenseDate, e.expenseId";
+        try (DaoCall call = metrics.start("ExpenseDAO.findExpensesBetween")) {
+            return UnitOfWork.read(session -> {
+                var query = session.createQuery(hql, Expense.class)
+                        .setParameter("from", from)
+                        .setParameter("to", to);
+                if (!allCategories) {
+                    query.setParameter("categories", categories);
+                }
+                return call.returned(query.list());
+            });
+        }
+    }
+
+    /**
+     * The expenses with these ids, newest first, e.g. the hits of a search.
+     * Keep the list under 1000 ids, Oracle's limit for an IN list.
+     */
+    public List<Expense> getExpensesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        try (DaoCall call = metrics.start("ExpenseDAO.getExpensesByIds")) {
+            return UnitOfWork.read(session -> call.returned(session.createQuery(
+                    "FROM Expense e JOIN FETCH e.category WHERE e.expenseId IN :ids"
+                            + " ORDER BY e.expenseDate DESC, e.expenseId DESC", Expense.class)
+                    .setParameter("ids", ids)
+                    .list()));
+        }
+    }
+
+    /**
+     * Total spend per category name, summed by the database.
+     */
+    public Map<String, Money> getCategoryTotals() {
+        try (DaoCall call = metrics.start("ExpenseDAO.getCategoryTotals")) {
+            return UnitOfWork.read(session -> {
+                List<Object[]> rows = session.createQuery(
+                        "SELECT c.categoryName, SUM(e.amount) FROM Expense e JOIN e.category c GROUP BY c.categoryName",
+                        Object[].class).list();
+                Map<String, Money> totals = new LinkedHashMap<>();
+                for (Object[] row : rows) {
+                    totals.put((String) row[0], MonthlySummary.toMoney((BigDecimal) row[1]));
+                }
+                return call.returned(totals, totals.size());
+            });
+        }
+    }
+
+    /** Latest modified_at of any expense, or null if none has one. */
+    public Instant getLastModified() {
+        try (DaoCall call = metrics.start("ExpenseDAO.getLastModified")) {
+            return UnitOfWork.read(session -> call.returned(session.createQuery(
+                    "SELECT MAX(e.modifiedAt) FROM Expense e", Instant.class).getSingleResult(), 1));
         }
     }
 
+    /** All categories, served from the in-memory {@link CategoryRegistry}. */
     public List<Category> getAllCategories() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery("FROM Category", Category.class).list();
+        try (DaoCall call = metrics.start("ExpenseDAO.getAllCategories")) {
+            return call.returned(CategoryRegistry.getInstance().getAll());
+        }
+    }
+
+    /**
+     * Returns the category with this name (ignoring case and surrounding
+     * spaces), creating it if it does not exist yet.
+     */
+    public Category getOrCreateCategory(String name) {
+        try (DaoCall call = metrics.start("ExpenseDAO.getOrCreateCategory")) {
+            Category category = CategoryRegistry.getInstance().getOrCreate(name);
+            return call.returned(category, category != null ? 1 : 0);
         }
     }
 
     public void saveCategory(Category category) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.persist(category);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null) transaction.rollback();
-            e.printStackTrace();
+        try (DaoCall call = metrics.start("ExpenseDAO.saveCategory")) {
+            UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                session.persist(category);
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    CategoryRegistry.getInstance().register(category);
+                    eventBus.publish(ChangeEvent.created(Category.class, category));
+                });
+            });
+            call.succeeded(1);
+        }
+    }
+
+    /** Inserts many categories in one transaction using JDBC batching. */
+    public void saveCategories(Collection<Category> categories) {
+        try (DaoCall call = metrics.start("ExpenseDAO.saveCategories")) {
+            UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                int count = 0;
+                for (Category category : categories) {
+                    session.persist(category);
+                    if (++count % HibernateUtil.BATCH_SIZE == 0) {
+                        session.flush();
+                    }
+                }
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    categories.forEach(CategoryRegistry.getInstance()::register);
+                    eventBus.publish(ChangeEvent.bulkChange(Category.class));
+                });
+            });
+            call.succeeded(categories.size());
         }
     }
+
+    // --- Async variants: run on DbExecutor, complete on the FX thread --- //
+
+    public CompletableFuture<List<Expense>> getExpensePageAsync(Expense after, int pageSize, SortDirection direction) {
+        return DbExecutor.submit(() -> getExpensePage(after, pageSize, direction));
+    }
+
+    public CompletableFuture<List<Expense>> findExpensesBetweenAsync(LocalDate from, LocalDate to,
+                                                                     Collection<Category> categories) {
+        return DbExecutor.submit(() -> findExpensesBetween(from, to, categories));
+    }
+
+    public CompletableFuture<List<Expense>> getExpensesByIdsAsync(Collection<Long> ids) {
+        return DbExecutor.submit(() -> getExpensesByIds(ids));
+    }
+
+    /** Served from the {@link LocalSnapshot} until it has synced with the database; so are the categories. */
+    public CompletableFuture<Map<String, Money>> getCategoryTotalsAsync() {
+        return LocalSnapshot.getInstance().readOr(
+                local -> local.getExpenseColumns().totalsByCategory(null, null), this::getCategoryTotals);
+    }
+
+    public CompletableFuture<List<Category>> getAllCategoriesAsync() {
+        return LocalSnapshot.getInstance().readOr(LocalSnapshot::getCategories, this::getAllCategories);
+    }
+
+    public CompletableFuture<Category> getOrCreateCategoryAsync(String name) {
+        return DbExecutor.submit(() -> getOrCreateCategory(name));
+    }
+
+    /**
+     * Writes through the {@link WriteJournal}: completes on the FX thread once
+     * the change is on local disk. It reaches the database, and the change
+     * events go out, when the journal replays it, possibly later if the
+     * database is unreachable. Same for the update and delete below.
+     */
+    public CompletableFuture<Void> saveExpenseAsync(Expense expense) {
+        return DbExecutor.onFxThread(WriteJournal.getInstance().append(JournalEntry.saveExpense(expense)));
+    }
+
+    public CompletableFuture<Void> updateExpenseAsync(Expense expense) {
+        return DbExecutor.onFxThread(WriteJournal.getInstance().append(JournalEntry.updateExpense(expense)));
+    }
+
+    public CompletableFuture<Void> deleteExpenseAsync(Expense expense) {
+        return DbExecutor.onFxThread(WriteJournal.getInstance().append(JournalEntry.deleteExpense(expense)));
+    }
 }
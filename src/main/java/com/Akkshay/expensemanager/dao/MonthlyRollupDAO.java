@@ -0,0 +1,271 @@
+package com.Akkshay.expensemanager.dao;
+
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.MonthlyRollup;
+import com.Akkshay.expensemanager.model.MonthlyRollupId;
+import com.Akkshay.expensemanager.model.MonthlySummary;
+import com.Akkshay.expensemanager.util.DbExecutor;
+import org.hibernate.Session;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reads and maintains TBL_MONTHLY_ROLLUP.
+ * The other DAOs call the package-private add* methods with the session of
+ * their own write, so the rollup commits or rolls back together with the row
+ * that changed it.
+ */
+public class MonthlyRollupDAO {
+
+    private static final int SPEND = 0;
+    private static final int BUDGET = 1;
+    private static final int SAVINGS = 2;
+
+    private static final String[] MERGE_SQL = {
+            mergeSql("spend_total"), mergeSql("budget_total"), mergeSql("savings_total")};
+
+    /**
+     * All-zero row that {@link #rebuild()} writes along with the totals. Its
+     * presence means the table has been built from the source tables at least
+     * once; incremental writes alone never create it.
+     */
+    private static final MonthlyRollupId INITIALIZED_MARKER = new MonthlyRollupId(LocalDate.of(1, 1, 1), -1L);
+
+    private static volatile boolean initialized;
+
+    private static String mergeSql(String totalColumn) {
+        return "MERGE INTO TBL_MONTHLY_ROLLUP r"
+                + " USING (SELECT CAST(? AS DATE) rollup_month, CAST(? AS NUMERIC(19)) category_id FROM DUAL) d"
+                + " ON (r.rollup_month = d.rollup_month AND r.category_id = d.category_id)"
+                + " WHEN MATCHED THEN UPDATE SET r." + totalColumn + " = r." + totalColumn + " + ?"
+                + " WHEN NOT MATCHED THEN INSERT (rollup_month, category_id, spend_total, budget_total, savings_total)"
+                + " VALUES (d.rollup_month, d.category_id, ?, ?, ?)";
+    }
+
+    // --- Incremental maintenance, called inside the writer's transaction --- //
+
+    static void addSpend(Session session, LocalDate date, Long categoryId, Money delta) {
+        apply(session, Map.of(new MonthlyRollupId(date, categoryId), delta), SPEND);
+    }
+
+    static void addBudget(Session session, LocalDate date, Money delta) {
+        apply(session, Map.of(new MonthlyRollupId(date, MonthlyRollupId.NO_CATEGORY), delta), BUDGET);
+    }
+
+    static void addSavings(Session session, LocalDate date, Money delta) {
+        apply(session, Map.of(new MonthlyRollupId(date, MonthlyRollupId.NO_CATEGORY), delta), SAVINGS);
+    }
+
+    /**
+     * Applies deltas that a bulk write has already summed per rollup row, so a
+     * batch of thousands of rows touches each (month, category) only once.
+     */
+    static void addSpend(Session session, Map<MonthlyRollupId, Money> deltas) {
+        apply(session, deltas, SPEND);
+    }
+
+    static void addBudget(Session session, Map<MonthlyRollupId, Money> deltas) {
+        apply(session, deltas, BUDGET);
+    }
+
+    static void addSavings(Session session, Map<MonthlyRollupId, Money> deltas) {
+        apply(session, deltas, SAVINGS);
+    }
+
+    /**
+     * Adds each delta to one total column with a MERGE, so the row is created
+     * or updated by a single statement under the database's own row lock.
+     * Two transactions creating the same row can still both take the insert
+     * branch; the loser fails on the primary key once the winner commits and
+     * simply merges again, which now takes the update branch.
+     */
+    private static void apply(Session session, Map<MonthlyRollupId, Money> deltas, int column) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement merge = connection.prepareStatement(MERGE_SQL[column])) {
+                for (Map.Entry<MonthlyRollupId, Money> delta : deltas.entrySet()) {
+                    BigDecimal amount = delta.getValue().toBigDecimal();
+                    merge.setObject(1, delta.getKey().getRollupMonth());
+                    merge.setLong(2, delta.getKey().getCategoryId());
+                    merge.setBigDecimal(3, amount);
+                    for (int total = SPEND; total <= SAVINGS; total++) {
+                        merge.setBigDecimal(4 + total, total == column ? amount : BigDecimal.ZERO);
+                    }
+                    try {
+                        merge.executeUpdate();
+                    } catch (SQLIntegrityConstraintViolationException lostInsertRace) {
+                        merge.executeUpdate();
+                    }
+                }
+            }
+        });
+    }
+
+    // --- Dashboard reads --- //
+
+    /**
+     * Spend, budget and savings totals per month, in month order.
+     * Months whose rows have all been deleted again are left out.
+     */
+    public List<MonthlySummary> getMonthlySummaries() {
+        ensureInitialized();
+        return UnitOfWork.read(session -> session.createQuery(
+                "SELECT new com.Akkshay.expensemanager.model.MonthlySummary(r.id.rollupMonth,"
+                        + " SUM(r.spendTotal), SUM(r.budgetTotal), SUM(r.savingsTotal))"
+                        + " FROM MonthlyRollup r GROUP BY r.id.rollupMonth"
+                        + " HAVING SUM(r.spendTotal) <> 0 OR SUM(r.budgetTotal) <> 0 OR SUM(r.savingsTotal) <> 0"
+                        + " ORDER BY r.id.rollupMonth",
+                MonthlySummary.class).list());
+    }
+
+    /** Totals for a single month. */
+    public MonthlySummary getMonthSummary(YearMonth month) {
+        ensureInitialized();
+        return UnitOfWork.read(session -> {
+            Object[] row = session.createQuery(
+                    "SELECT SUM(r.spendTotal), SUM(r.budgetTotal), SUM(r.savingsTotal)"
+                            + " FROM MonthlyRollup r WHERE r.id.rollupMonth = :month",
+                    Object[].class)
+                    .setParameter("month", month.atDay(1))
+                    .getSingleResult();
+            return new MonthlySummary(month, toMoney(row[0]), toMoney(row[1]), toMoney(row[2]));
+        });
+    }
+
+    /** Totals across all months. */
+    public MonthlySummary getOverallSummary() {
+        ensureInitialized();
+        return UnitOfWork.read(session -> {
+            Object[] row = session.createQuery(
+                    "SELECT SUM(r.spendTotal), SUM(r.budgetTotal), SUM(r.savingsTotal) FROM MonthlyRollup r",
+                    Object[].class).getSingleResult();
+            return new MonthlySummary((YearMonth) null, toMoney(row[0]), toMoney(row[1]), toMoney(row[2]));
+        });
+    }
+
+    /**
+     * Totals across all months followed by the totals of one month, from a
+     * single query; the first summary has a null month.
+     */
+    public List<MonthlySummary> getOverallAndMonthSummary(YearMonth month) {
+        ensureInitialized();
+        return UnitOfWork.read(session -> {
+            Object[] row = session.createQuery(
+                    "SELECT SUM(r.spendTotal), SUM(r.budgetTotal), SUM(r.savingsTotal),"
+                            + " SUM(CASE WHEN r.id.rollupMonth = :month THEN r.spendTotal ELSE 0 END),"
+                            + " SUM(CASE WHEN r.id.rollupMonth = :month THEN r.budgetTotal ELSE 0 END),"
+                            + " SUM(CASE WHEN r.id.rollupMonth = :month THEN r.savingsTotal ELSE 0 END)"
+                            + " FROM MonthlyRollup r",
+                    Object[].class)
+                    .setParameter("month", month.atDay(1))
+                    .getSingleResult();
+            return List.of(
+                    new MonthlySummary((YearMonth) null, toMoney(row[0]), toMoney(row[1]), toMoney(row[2])),
+                    new MonthlySummary(month, toMoney(row[3]), toMoney(row[4]), toMoney(row[5])));
+        });
+    }
+
+    // --- Rebuild --- //
+
+    /**
+     * Recomputes the whole rollup table from TBL_EXPENSES, TBL_BUDGET and
+     * TBL_SAVINGS in a single transaction.
+     */
+    public void rebuild() {
+        UnitOfWork.inTransaction(() -> {
+            Session session = UnitOfWork.currentSession();
+            session.createMutationQuery("DELETE FROM MonthlyRollup").executeUpdate();
+
+            Map<MonthlyRollupId, MonthlyRollup> rollups = new HashMap<>();
+            for (Object[] row : session.createQuery(
+                    "SELECT year(e.expenseDate), month(e.expenseDate), e.category.categoryId, SUM(e.amount)"
+                            + " FROM Expense e GROUP BY year(e.expenseDate), month(e.expenseDate), e.category.categoryId",
+                    Object[].class).list()) {
+                MonthlyRollup rollup = rollupFor(rollups, row, (Long) row[2]);
+                rollup.setSpendTotal(rollup.getSpendTotal().plus(toMoney(row[3])));
+            }
+            for (Object[] row : session.createQuery(
+                    "SELECT year(b.budgetMonth), month(b.budgetMonth), SUM(b.amount)"
+                            + " FROM Budget b GROUP BY year(b.budgetMonth), month(b.budgetMonth)",
+                    Object[].class).list()) {
+                MonthlyRollup rollup = rollupFor(rollups, row, MonthlyRollupId.NO_CATEGORY);
+                rollup.setBudgetTotal(rollup.getBudgetTotal().plus(toMoney(row[2])));
+            }
+            for (Object[] row : session.createQuery(
+                    "SELECT year(s.savingsDate), month(s.savingsDate), SUM(s.amount)"
+                            + " FROM Savings s GROUP BY year(s.savingsDate), month(s.savingsDate)",
+                    Object[].class).list()) {
+                MonthlyRollup rollup = rollupFor(rollups, row, MonthlyRollupId.NO_CATEGORY);
+                rollup.setSavingsTotal(rollup.getSavingsTotal().plus(toMoney(row[2])));
+            }
+
+            for (MonthlyRollup rollup : rollups.values()) {
+                session.persist(rollup);
+            }
+            session.persist(new MonthlyRollup(INITIALIZED_MARKER));
+            UnitOfWork.afterCommit(() -> {
+                DataVersion.bump();
+                initialized = true;
+                // Anything showing totals has to reload them
+                ChangeEventBus.getInstance().publish(ChangeEvent.bulkChange(MonthlyRollup.class));
+            });
+        });
+    }
+
+    // SUM results come back as BigDecimal, or null over no rows
+    private static Money toMoney(Object sum) {
+        return MonthlySummary.toMoney((BigDecimal) sum);
+    }
+
+    private static MonthlyRollup rollupFor(Map<MonthlyRollupId, MonthlyRollup> rollups, Object[] row, Long categoryId) {
+        LocalDate month = LocalDate.of((Integer) row[0], (Integer) row[1], 1);
+        return rollups.computeIfAbsent(new MonthlyRollupId(month, categoryId), MonthlyRollup::new);
+    }
+
+    /**
+     * Builds the rollup the first time it is read on a database where it has
+     * never been built (e.g. right after upgrading). Rows that incremental
+     * writes have added since the upgrade do not count as built.
+     */
+    private void ensureInitialized() {
+        if (initialized) {
+            return;
+        }
+        synchronized (MonthlyRollupDAO.class) {
+            if (initialized) {
+                return;
+            }
+            boolean built = UnitOfWork.read(session -> session.find(MonthlyRollup.class, INITIALIZED_MARKER) != null);
+            if (!built) {
+                rebuild();
+            }
+            initialized = true;
+        }
+    }
+
+    // --- Async variants: run on DbExecutor, complete on the FX thread --- //
+
+    public CompletableFuture<List<MonthlySummary>> getMonthlySummariesAsync() {
+        return DbExecutor.submit(this::getMonthlySummaries);
+    }
+
+    public CompletableFuture<MonthlySummary> getMonthSummaryAsync(YearMonth month) {
+        return DbExecutor.submit(() -> getMonthSummary(month));
+    }
+
+    public CompletableFuture<MonthlySummary> getOverallSummaryAsync() {
+        return DbExecutor.submit(this::getOverallSummary);
+    }
+}
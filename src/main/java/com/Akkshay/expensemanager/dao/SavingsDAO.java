@@ -1,56 +1,155 @@
 package com.Akkshay.expensemanager.dao;
 
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.journal.JournalEntry;
+import com.Akkshay.expensemanager.journal.WriteJournal;
 import com.Akkshay.expensemanager.model.Savings;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.MonthlyRollupId;
+import com.Akkshay.expensemanager.snapshot.LocalSnapshot;
+import com.Akkshay.expensemanager.util.DaoCall;
+import com.Akkshay.expensemanager.util.DaoMetrics;
+import com.Akkshay.expensemanager.util.DbExecutor;
 import com.Akkshay.expensemanager.util.HibernateUtil;
 import org.hibernate.Session;
-import org.hibernate.Transaction;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class SavingsDAO {
 
+    private final ChangeEventBus eventBus = ChangeEventBus.getInstance();
+    private final DaoMetrics metrics = DaoMetrics.getInstance();
+
     public void saveSavings(Savings savings) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.persist(savings);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null)
-                transaction.rollback();
-            e.printStackTrace();
+        try (DaoCall call = metrics.start("SavingsDAO.saveSavings")) {
+            UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                session.persist(savings);
+                MonthlyRollupDAO.addSavings(session, savings.getSavingsDate(), savings.getAmount());
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    eventBus.publish(ChangeEvent.created(Savings.class, new Savings(savings)));
+                });
+            });
+            call.succeeded(1);
+        }
+    }
+
+    /** Bulk version of saveSavings(Savings): one transaction, JDBC-batched inserts. */
+    public void saveSavings(Collection<Savings> savingsList) {
+        try (DaoCall call = metrics.start("SavingsDAO.saveSavings")) {
+            UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                Map<MonthlyRollupId, Money> rollupDeltas = new HashMap<>();
+                int count = 0;
+                for (Savings savings : savingsList) {
+                    session.persist(savings);
+                    rollupDeltas.merge(
+                            new MonthlyRollupId(savings.getSavingsDate(), MonthlyRollupId.NO_CATEGORY),
+                            savings.getAmount(), Money::plus);
+                    if (++count % HibernateUtil.BATCH_SIZE == 0) {
+                        session.flush();
+                        session.clear();
+                    }
+                }
+                MonthlyRollupDAO.addSavings(session, rollupDeltas);
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    eventBus.publish(ChangeEvent.bulkChange(Savings.class));
+                });
+            });
+            call.succeeded(savingsList.size());
         }
     }
 
     public void updateSavings(Savings savings) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.merge(savings);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null)
-                transaction.rollback();
-            e.printStackTrace();
+        try (DaoCall call = metrics.start("SavingsDAO.updateSavings")) {
+            UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                // Take the old row out of the rollup before merging the new values onto it
+                Savings current = session.find(Savings.class, savings.getSavingsId());
+                // merge() writes onto the managed instance, so keep a copy for the change event
+                Savings previous = current != null ? new Savings(current) : null;
+                if (current != null) {
+                    MonthlyRollupDAO.addSavings(session, current.getSavingsDate(), current.getAmount().negate());
+                }
+                session.merge(savings);
+                MonthlyRollupDAO.addSavings(session, savings.getSavingsDate(), savings.getAmount());
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    eventBus.publish(previous != null
+                            ? ChangeEvent.updated(Savings.class, previous, new Savings(savings))
+                            : ChangeEvent.created(Savings.class, new Savings(savings)));
+                });
+            });
+            call.succeeded(1);
         }
     }
 
     public void deleteSavings(Savings savings) {
-        Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            transaction = session.beginTransaction();
-            session.remove(savings);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null)
-                transaction.rollback();
-            e.printStackTrace();
+        try (DaoCall call = metrics.start("SavingsDAO.deleteSavings")) {
+            call.succeeded(UnitOfWork.inTransaction(() -> {
+                Session session = UnitOfWork.currentSession();
+                Savings current = session.find(Savings.class, savings.getSavingsId());
+                if (current != null) {
+                    MonthlyRollupDAO.addSavings(session, current.getSavingsDate(), current.getAmount().negate());
+                    session.remove(current);
+                }
+                UnitOfWork.afterCommit(() -> {
+                    DataVersion.bump();
+                    if (current != null) {
+                        eventBus.publish(ChangeEvent.deleted(Savings.class, current));
+                    }
+                });
+                return current != null ? 1 : 0;
+            }));
         }
     }
 
     public List<Savings> getAllSavings() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery("FROM Savings", Savings.class).list();
+        try (DaoCall call = metrics.start("SavingsDAO.getAllSavings")) {
+            return UnitOfWork.read(session -> call.returned(session.createQuery("FROM Savings", Savings.class).list()));
         }
     }
+
+    /** Savings dated between two days, both inclusive, oldest first; read through IDX_SAVINGS_DATE. */
+    public List<Savings> findSavingsBetween(LocalDate from, LocalDate to) {
+        try (DaoCall call = metrics.start("SavingsDAO.findSavingsBetween")) {
+            return UnitOfWork.read(session -> call.returned(session.createQuery(
+                    "FROM Savings s WHERE s.savingsDate BETWEEN :from AND :to ORDER BY s.savingsDate, s.savingsId",
+                    Savings.class)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .list()));
+        }
+    }
+
+    // --- Async variants: run on DbExecutor, complete on the FX thread --- //
+
+    public CompletableFuture<List<Savings>> getAllSavingsAsync() {
+        return LocalSnapshot.getInstance().readOr(LocalSnapshot::getSavings, this::getAllSavings);
+    }
+
+    public CompletableFuture<List<Savings>> findSavingsBetweenAsync(LocalDate from, LocalDate to) {
+        return DbExecutor.submit(() -> findSavingsBetween(from, to));
+    }
+
+    /** Journaled like {@link ExpenseDAO#saveExpenseAsync}; so are the update and delete. */
+    public CompletableFuture<Void> saveSavingsAsync(Savings savings) {
+        return DbExecutor.onFxThread(WriteJournal.getInstance().append(JournalEntry.saveSavings(savings)));
+    }
+
+    public CompletableFuture<Void> updateSavingsAsync(Savings savings) {
+        return DbExecutor.onFxThread(WriteJournal.getInstance().append(JournalEntry.updateSavings(savings)));
+    }
+
+    public CompletableFuture<Void> deleteSavingsAsync(Savings savings) {
+        return DbExecutor.onFxThread(WriteJournal.getInstance().append(JournalEntry.deleteSavings(savings)));
+    }
 }
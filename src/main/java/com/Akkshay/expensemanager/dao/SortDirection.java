@@ -0,0 +1,9 @@
+package com.Akkshay.expensemanager.dao;
+
+/**
+ * Ordering used by the paged (keyset) queries.
+ */
+public enum SortDirection {
+    ASCENDING,
+    DESCENDING
+}
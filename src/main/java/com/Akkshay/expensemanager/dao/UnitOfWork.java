@@ -0,0 +1,151 @@
+package com.Akkshay.expensemanager.dao;
+
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * One session and one transaction shared by every DAO call made inside
+ * {@link #inTransaction(Supplier)} on the same thread, so a caller can group
+ * several writes into a single commit:
+ *
+ * <pre>{@code
+ * UnitOfWork.inTransaction(() -> {
+ *     Category category = expenseDAO.getOrCreateCategory(name);
+ *     expenseDAO.saveExpense(new Expense(amount, date, description, category));
+ * });
+ * }</pre>
+ *
+ * <p>Outside a unit every DAO write is a unit of its own, as before. Nested
+ * units join the outermost one, which commits when it ends. If anything
+ * throws, the whole unit is rolled back and the exception propagates;
+ * persistence errors arrive as {@link DataAccessException}. A failure inside
+ * a nested unit dooms the outer one even if the caller catches it, since the
+ * session can no longer be trusted.
+ *
+ * <p>DataVersion bumps and change events are queued with
+ * {@link #afterCommit(Runnable)} and run in order once the commit succeeded,
+ * so nobody hears about a write that was rolled back.
+ */
+public final class UnitOfWork {
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final Session session;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    // Set when a nested unit failed; the outermost one then rolls back
+    private boolean rollbackOnly;
+
+    private UnitOfWork(Session session) {
+        this.session = session;
+    }
+
+    /** Whether the calling thread is inside a unit of work. */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /** Runs the work in one transaction, joining the current one if there is any, and returns its result. */
+    public static <T> T inTransaction(Supplier<T> work) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            try {
+                return work.get();
+            } catch (PersistenceException e) {
+                current.rollbackOnly = true;
+                throw new DataAccessException("Database write failed: " + e.getMessage(), e);
+            } catch (RuntimeException | Error e) {
+                current.rollbackOnly = true;
+                throw e;
+            }
+        }
+
+        UnitOfWork unit = new UnitOfWork(HibernateUtil.getSessionFactory().openSession());
+        CURRENT.set(unit);
+        T result;
+        try {
+            result = unit.run(work);
+        } finally {
+            CURRENT.remove();
+            unit.session.close();
+        }
+        unit.afterCommit.forEach(Runnable::run);
+        return result;
+    }
+
+    /** Like {@link #inTransaction(Supplier)} for work that returns nothing. */
+    public static void inTransaction(Runnable work) {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a read on the session of the current unit, so it sees the unit's
+     * own uncommitted writes, or on a short-lived session of its own.
+     */
+    static <T> T read(Function<Session, T> work) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            return work.apply(current.session);
+        }
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return work.apply(session);
+        } catch (PersistenceException e) {
+            throw new DataAccessException("Database read failed: " + e.getMessage(), e);
+        }
+    }
+
+    /** The session of the current unit; for DAO writes inside {@link #inTransaction}. */
+    static Session currentSession() {
+        return current().session;
+    }
+
+    /** Queues work to run after the current unit has committed, e.g. publishing its change events. */
+    static void afterCommit(Runnable hook) {
+        current().afterCommit.add(hook);
+    }
+
+    private static UnitOfWork current() {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) {
+            throw new IllegalStateException("No unit of work on this thread");
+        }
+        return current;
+    }
+
+    private <T> T run(Supplier<T> work) {
+        Transaction transaction = session.beginTransaction();
+        try {
+            T result = work.get();
+            if (rollbackOnly) {
+                throw new DataAccessException("Rolled back: an operation inside this unit of work failed");
+            }
+            transaction.commit();
+            return result;
+        } catch (RuntimeException | Error e) {
+            rollback(transaction, e);
+            if (e instanceof PersistenceException) {
+                throw new DataAccessException("Database write failed: " + e.getMessage(), e);
+            }
+            throw e;
+        }
+    }
+
+    private static void rollback(Transaction transaction, Throwable cause) {
+        try {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+}
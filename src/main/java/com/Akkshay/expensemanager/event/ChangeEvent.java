@@ -0,0 +1,126 @@
+package com.Akkshay.expensemanager.event;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * One committed write to a table, as published by the DAOs on the
+ * {@link ChangeEventBus}.
+ *
+ * <p>{@link #getOldValue()} is the row before the write (null for
+ * {@link ChangeType#CREATED}), {@link #getNewValue()} the row after it (null
+ * for {@link ChangeType#DELETED}). {@link ChangeType#BULK_CHANGE} events
+ * carry neither, only the ids of the rows written when they are known. The
+ * DAOs publish copies taken at commit, so later edits to the caller's entity
+ * do not change an event that is still queued.
+ *
+ * @param <T> the entity class of the table
+ */
+public final class ChangeEvent<T> {
+
+    private final ChangeType type;
+    private final Class<T> entityType;
+    private final T oldValue;
+    private final T newValue;
+    private final long[] ids;
+
+    private ChangeEvent(ChangeType type, Class<T> entityType, T oldValue, T newValue, long[] ids) {
+        this.type = type;
+        this.entityType = Objects.requireNonNull(entityType);
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.ids = ids;
+    }
+
+    public static <T> ChangeEvent<T> created(Class<T> entityType, T newValue) {
+        return new ChangeEvent<>(ChangeType.CREATED, entityType, null, newValue, null);
+    }
+
+    public static <T> ChangeEvent<T> updated(Class<T> entityType, T oldValue, T newValue) {
+        return new ChangeEvent<>(ChangeType.UPDATED, entityType, oldValue, newValue, null);
+    }
+
+    public static <T> ChangeEvent<T> deleted(Class<T> entityType, T oldValue) {
+        return new ChangeEvent<>(ChangeType.DELETED, entityType, oldValue, null, null);
+    }
+
+    /** A bulk change to rows that are not known one by one. */
+    public static <T> ChangeEvent<T> bulkChange(Class<T> entityType) {
+        return new ChangeEvent<>(ChangeType.BULK_CHANGE, entityType, null, null, null);
+    }
+
+    /** A bulk write of exactly the rows with these ids, e.g. a batch insert. */
+    public static <T> ChangeEvent<T> bulkChange(Class<T> entityType, long[] ids) {
+        return new ChangeEvent<>(ChangeType.BULK_CHANGE, entityType, null, null, ids.clone());
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    public T getOldValue() {
+        return oldValue;
+    }
+
+    public T getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * Ids of the rows a {@link ChangeType#BULK_CHANGE} wrote, or null when it
+     * does not know them and every row may have changed.
+     */
+    public long[] getIds() {
+        return ids != null ? ids.clone() : null;
+    }
+
+    /**
+     * Applies this change to a list of rows matched by id: created rows are
+     * appended, updated rows replaced in place, deleted rows removed.
+     *
+     * @return false for {@link ChangeType#BULK_CHANGE}, which cannot be
+     *         applied row by row; the list is left alone and should be reloaded
+     */
+    public boolean applyTo(List<T> rows, Function<? super T, ?> idOf) {
+        switch (type) {
+            case CREATED -> rows.add(newValue);
+            case UPDATED -> {
+                int index = indexOf(rows, idOf, idOf.apply(oldValue));
+                if (index >= 0) {
+                    rows.set(index, newValue);
+                } else {
+                    rows.add(newValue);
+                }
+            }
+            case DELETED -> {
+                int index = indexOf(rows, idOf, idOf.apply(oldValue));
+                if (index >= 0) {
+                    rows.remove(index);
+                }
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> int indexOf(List<T> rows, Function<? super T, ?> idOf, Object id) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (Objects.equals(idOf.apply(rows.get(i)), id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + entityType.getSimpleName() + " (old " + oldValue + ", new " + newValue + ")";
+    }
+}
@@ -0,0 +1,105 @@
+package com.Akkshay.expensemanager.event;
+
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe of {@link ChangeEvent}s, keyed by entity class.
+ *
+ * <p>The DAOs publish after each commit, on whatever thread did the write.
+ * Every subscriber names the executor its listener runs on; controllers pass
+ * {@code Platform::runLater} so they can patch the UI directly.
+ *
+ * <p>Publishing is serialized: an event is handed to every subscriber's
+ * executor before the next one is, so all subscribers see events in the one
+ * order {@link #publish} was called in, even when the DAOs, the journal
+ * replayer and the importer publish from different threads at once. A write
+ * publishes from its unit of work's afterCommit hooks, so its events always
+ * follow its commit.
+ */
+public class ChangeEventBus {
+
+    private static final Logger LOG = Logger.getLogger(ChangeEventBus.class);
+
+    private static final ChangeEventBus INSTANCE = new ChangeEventBus();
+
+    private final Map<Class<?>, List<Subscriber<?>>> subscribers = new ConcurrentHashMap<>();
+    // Held while one event is handed to all subscribers; executors only queue the listener, so it is brief
+    private final Object dispatchLock = new Object();
+
+    private ChangeEventBus() {
+    }
+
+    public static ChangeEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers a listener for changes to one entity class.
+     *
+     * @param executor runs the listener; use {@code Runnable::run} to be called on the publishing thread,
+     *                 which then holds up other publishers until the listener returns
+     * @return handle to stop listening again
+     */
+    public <T> Subscription subscribe(Class<T> entityType, Executor executor, Consumer<? super ChangeEvent<T>> listener) {
+        List<Subscriber<?>> list = subscribers.computeIfAbsent(entityType, k -> new CopyOnWriteArrayList<>());
+        Subscriber<T> subscriber = new Subscriber<>(executor, listener);
+        list.add(subscriber);
+        return () -> list.remove(subscriber);
+    }
+
+    /**
+     * Hands the event to every subscriber of its entity class. A failing
+     * listener is logged and never reaches the publisher, whose write has
+     * already been committed.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void publish(ChangeEvent<T> event) {
+        List<Subscriber<?>> list = subscribers.get(event.getEntityType());
+        if (list == null) {
+            return;
+        }
+        synchronized (dispatchLock) {
+            for (Subscriber<?> subscriber : list) {
+                ((Subscriber<T>) subscriber).deliver(event);
+            }
+        }
+    }
+
+    /** Handle returned by {@link #subscribe}. */
+    @FunctionalInterface
+    public interface Subscription {
+        void unsubscribe();
+    }
+
+    private static final class Subscriber<T> {
+        private final Executor executor;
+        private final Consumer<? super ChangeEvent<T>> listener;
+
+        Subscriber(Executor executor, Consumer<? super ChangeEvent<T>> listener) {
+            this.executor = executor;
+            this.listener = listener;
+        }
+
+        void deliver(ChangeEvent<T> event) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        listener.accept(event);
+                    } catch (RuntimeException e) {
+                        LOG.errorf(e, "Change listener failed on %s", event);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // e.g. the FX toolkit is already gone during shutdown
+                LOG.warnf(e, "Could not deliver %s", event);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.Akkshay.expensemanager.event;
+
+/**
+ * What a {@link ChangeEvent} did to its table.
+ */
+public enum ChangeType {
+    /** A row was inserted; the event carries the new row. */
+    CREATED,
+    /** A row was changed; the event carries the row before and after. */
+    UPDATED,
+    /** A row was removed; the event carries the row as it was. */
+    DELETED,
+    /**
+     * Many rows were written at once (bulk inserts, imports). No rows are
+     * carried; subscribers should reload whatever they show.
+     */
+    BULK_CHANGE
+}
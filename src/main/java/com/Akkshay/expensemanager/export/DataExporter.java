@@ -0,0 +1,116 @@
+package com.Akkshay.expensemanager.export;
+
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+
+/**
+ * Exports TBL_EXPENSES, TBL_BUDGET and TBL_SAVINGS to one file each.
+ *
+ * <p>Rows are read through a forward-only cursor on a StatelessSession, as
+ * plain column values rather than entities, and written straight out through
+ * a {@link ChannelTextWriter}. Nothing is kept per row, so heap use stays flat
+ * whatever the table sizes.
+ */
+public class DataExporter {
+
+    private static final int FETCH_SIZE = 1_000;
+    private static final int PROGRESS_INTERVAL = 1_000;
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    /** Stops the export at the next row; files written so far are removed. */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * Writes expenses, budgets and savings into the given directory.
+     *
+     * @param progress receives the running row count; may be null
+     */
+    public ExportResult exportAll(Path directory, ExportFormat format, LongConsumer progress) throws IOException {
+        long start = System.currentTimeMillis();
+        List<Path> files = new ArrayList<>();
+        long[] rows = {0};
+        LongConsumer counter = n -> {
+            rows[0] += n;
+            if (progress != null) {
+                progress.accept(rows[0]);
+            }
+        };
+
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            files.add(exportTable(session, directory.resolve("expenses" + format.getExtension()), format,
+                    new String[]{"expense_id", "expense_date", "amount", "category", "description"},
+                    "SELECT e.expenseId, e.expenseDate, e.amount, c.categoryName, e.description"
+                            + " FROM Expense e JOIN e.category c ORDER BY e.expenseId",
+                    counter));
+            files.add(exportTable(session, directory.resolve("budgets" + format.getExtension()), format,
+                    new String[]{"budget_id", "budget_month", "amount", "description"},
+                    "SELECT b.budgetId, b.budgetMonth, b.amount, b.description FROM Budget b ORDER BY b.budgetId",
+                    counter));
+            files.add(exportTable(session, directory.resolve("savings" + format.getExtension()), format,
+                    new String[]{"savings_id", "savings_date", "amount", "goal", "description"},
+                    "SELECT s.savingsId, s.savingsDate, s.amount, s.goal, s.description FROM Savings s ORDER BY s.savingsId",
+                    counter));
+        } catch (ExportCancelled e) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(e.partialFile);
+            return new ExportResult(List.of(), rows[0], System.currentTimeMillis() - start, true);
+        }
+        return new ExportResult(files, rows[0], System.currentTimeMillis() - start, false);
+    }
+
+    private Path exportTable(StatelessSession session, Path file, ExportFormat format, String[] columns,
+                             String hql, LongConsumer counter) throws IOException {
+        RecordFormatter formatter = new RecordFormatter(format, columns);
+        StringBuilder line = new StringBuilder(256);
+        long pending = 0;
+
+        try (ChannelTextWriter writer = new ChannelTextWriter(file);
+             ScrollableResults<Object[]> results = session.createQuery(hql, Object[].class)
+                     .setFetchSize(FETCH_SIZE)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            String header = formatter.header();
+            if (header != null) {
+                writer.write(header);
+            }
+            while (results.next()) {
+                if (cancelled.get()) {
+                    throw new ExportCancelled(file);
+                }
+                line.setLength(0);
+                formatter.appendRow(line, results.get());
+                writer.write(line);
+                if (++pending == PROGRESS_INTERVAL) {
+                    counter.accept(pending);
+                    pending = 0;
+                }
+            }
+        }
+        counter.accept(pending);
+        return file;
+    }
+
+    /** Unwinds out of the cursor loops when the export is cancelled. */
+    private static class ExportCancelled extends RuntimeException {
+        final Path partialFile;
+
+        ExportCancelled(Path partialFile) {
+            super(null, null, false, false);
+            this.partialFile = partialFile;
+        }
+    }
+}
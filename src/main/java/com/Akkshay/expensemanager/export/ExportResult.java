@@ -0,0 +1,39 @@
+package com.Akkshay.expensemanager.export;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Files written by an export and how many rows went into them.
+ */
+public class ExportResult {
+
+    private final List<Path> files;
+    private final long rows;
+    private final long elapsedMillis;
+    private final boolean cancelled;
+
+    public ExportResult(List<Path> files, long rows, long elapsedMillis, boolean cancelled) {
+        this.files = List.copyOf(files);
+        this.rows = rows;
+        this.elapsedMillis = elapsedMillis;
+        this.cancelled = cancelled;
+    }
+
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /** True if the export was cancelled; its partial files have been deleted. */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
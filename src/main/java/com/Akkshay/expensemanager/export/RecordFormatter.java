@@ -0,0 +1,102 @@
+package com.Akkshay.expensemanager.export;
+
+import com.Akkshay.expensemanager.model.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * Turns one exported row into a line of CSV or JSON Lines, appending to a
+ * StringBuilder that the caller reuses for every row.
+ */
+class RecordFormatter {
+
+    private final ExportFormat format;
+    private final String[] columns;
+
+    RecordFormatter(ExportFormat format, String[] columns) {
+        this.format = format;
+        this.columns = columns;
+    }
+
+    /** Header line, or null when the format has none. */
+    String header() {
+        if (format != ExportFormat.CSV) {
+            return null;
+        }
+        return String.join(",", columns) + "\n";
+    }
+
+    void appendRow(StringBuilder out, Object[] values) {
+        if (format == ExportFormat.CSV) {
+            appendCsv(out, values);
+        } else {
+            appendJson(out, values);
+        }
+        out.append('\n');
+    }
+
+    private void appendCsv(StringBuilder out, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Object value = values[i];
+            if (value instanceof String) {
+                String text = (String) value;
+                if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+                    out.append('"').append(text.replace("\"", "\"\"")).append('"');
+                } else {
+                    out.append(text);
+                }
+            } else if (value != null) {
+                out.append(plain(value));
+            }
+        }
+    }
+
+    private void appendJson(StringBuilder out, Object[] values) {
+        out.append('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append('"').append(columns[i]).append("\":");
+            Object value = values[i];
+            if (value == null) {
+                out.append("null");
+            } else if (value instanceof Number || value instanceof Money) {
+                // Amounts are written as JSON numbers
+                out.append(plain(value));
+            } else {
+                appendJsonString(out, value.toString());
+            }
+        }
+        out.append('}');
+    }
+
+    private static void appendJsonString(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static String plain(Object value) {
+        return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package com.Akkshay.expensemanager.importer;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Describes which CSV column feeds which Expense field, and how to read them.
+ * Column indexes are zero-based; a category index of -1 means the file has no
+ * category column and every row gets the default category.
+ */
+public class ColumnMapping {
+
+    private final int dateColumn;
+    private final int amountColumn;
+    private final int descriptionColumn;
+    private int categoryColumn = -1;
+
+    private char delimiter = ',';
+    private boolean hasHeader = true;
+    private String defaultCategory = "Other";
+    // Debits exported as negative numbers; positive rows are credits and are skipped.
+    private boolean debitsNegative;
+    private List<DateTimeFormatter> dateFormats = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.ofPattern("dd MMM yyyy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("dd-MMM-yyyy", Locale.ENGLISH));
+
+    public ColumnMapping(int dateColumn, int amountColumn, int descriptionColumn) {
+        this.dateColumn = dateColumn;
+        this.amountColumn = amountColumn;
+        this.descriptionColumn = descriptionColumn;
+    }
+
+    /**
+     * Guesses the mapping from a header line, matching the usual column names
+     * found in bank statements (Date, Description / Narration, Amount / Debit,
+     * Category). Returns null if no date or amount column can be found.
+     */
+    public static ColumnMapping fromHeader(List<String> header) {
+        int date = findColumn(header, "date", "transaction date", "txn date", "value date");
+        int amount = findColumn(header, "amount", "debit", "withdrawal", "withdrawal amount", "debit amount");
+        int description = findColumn(header, "description", "narration", "details", "particulars", "remarks");
+        int category = findColumn(header, "category");
+        if (date < 0 || amount < 0) {
+            return null;
+        }
+        ColumnMapping mapping = new ColumnMapping(date, amount, description);
+        mapping.setCategoryColumn(category);
+        return mapping;
+    }
+
+    private static int findColumn(List<String> header, String... names) {
+        for (String name : names) {
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).trim().equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public int getDateColumn() {
+        return dateColumn;
+    }
+
+    public int getAmountColumn() {
+        return amountColumn;
+    }
+
+    public int getDescriptionColumn() {
+        return descriptionColumn;
+    }
+
+    public int getCategoryColumn() {
+        return categoryColumn;
+    }
+
+    public void setCategoryColumn(int categoryColumn) {
+        this.categoryColumn = categoryColumn;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public boolean isHasHeader() {
+        return hasHeader;
+    }
+
+    public void setHasHeader(boolean hasHeader) {
+        this.hasHeader = hasHeader;
+    }
+
+    public String getDefaultCategory() {
+        return defaultCategory;
+    }
+
+    public void setDefaultCategory(String defaultCategory) {
+        this.defaultCategory = defaultCategory;
+    }
+
+    public boolean isDebitsNegative() {
+        return debitsNegative;
+    }
+
+    public void setDebitsNegative(boolean debitsNegative) {
+        this.debitsNegative = debitsNegative;
+    }
+
+    public List<DateTimeFormatter> getDateFormats() {
+        return dateFormats;
+    }
+
+    public void setDateFormats(List<DateTimeFormatter> dateFormats) {
+        this.dateFormats = dateFormats;
+    }
+}
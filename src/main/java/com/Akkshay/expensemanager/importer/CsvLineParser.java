@@ -0,0 +1,68 @@
+package com.Akkshay.expensemanager.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits one CSV record into fields. Handles quoted fields, doubled quotes
+ * inside them and a configurable delimiter. A quoted field may contain line
+ * breaks: readers join the next line on while {@link #endsInsideQuotes}
+ * says the record is not finished.
+ */
+public class CsvLineParser {
+
+    private final char delimiter;
+
+    public CsvLineParser(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    /**
+     * Whether the text stops inside a quoted field. Every quote outside a
+     * field opens one and the next single quote closes it, while a doubled
+     * quote inside it leaves it open, so that is an odd number of quotes.
+     */
+    public boolean endsInsideQuotes(CharSequence text) {
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return quoted;
+    }
+}
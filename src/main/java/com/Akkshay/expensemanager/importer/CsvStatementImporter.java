@@ -0,0 +1,390 @@
+package com.Akkshay.expensemanager.importer;
+
+import com.Akkshay.expensemanager.dao.CategoryRegistry;
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.dao.UnitOfWork;
+import com.Akkshay.expensemanager.model.Category;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Streams a bank-statement CSV file into TBL_EXPENSES.
+ *
+ * <p>A parser thread reads the file record by record and hands batches of
+ * expenses to the calling thread through a small bounded queue; the caller
+ * writes each batch with {@link ExpenseDAO#saveExpenses}, together with the
+ * categories it introduces, in one transaction. Memory use is therefore
+ * bounded by the queue, not by the file size, and a slow database simply
+ * makes the parser wait.
+ *
+ * <p>Records that cannot be mapped are written to "&lt;file&gt;-rejected.csv"
+ * next to the input, with the number of their first line and the reason.
+ */
+public class CsvStatementImporter {
+
+    private static final Logger LOG = Logger.getLogger(CsvStatementImporter.class);
+
+    private static final int BATCH_SIZE = 1_000;
+    // Batches in flight between parser and writer
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int MAX_SAMPLE_REJECTIONS = 100;
+    // Longest record a quoted field may join lines into; a stray quote would otherwise swallow the file
+    private static final int MAX_RECORD_LENGTH = 1 << 14;
+    private static final List<Expense> END_OF_INPUT = new ArrayList<>();
+
+    private final ExpenseDAO expenseDAO;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    public CsvStatementImporter() {
+        this(new ExpenseDAO());
+    }
+
+    public CsvStatementImporter(ExpenseDAO expenseDAO) {
+        this.expenseDAO = expenseDAO;
+    }
+
+    /** Stops the import after the batch currently being written. */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * Imports the file and blocks until it has been fully written.
+     *
+     * @param mapping  column mapping, or null to detect it from the header line
+     * @param listener receives progress after every batch; may be null
+     */
+    public ImportReport importFile(Path file, ColumnMapping mapping, Consumer<ImportProgress> listener)
+            throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        if (mapping == null) {
+            mapping = detectMapping(file);
+        }
+
+        ParseState state = new ParseState(file, Files.size(file));
+        BlockingQueue<List<Expense>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        ColumnMapping columns = mapping;
+        Thread parser = new Thread(() -> parse(columns, state, queue), "csv-import-parser");
+        parser.setDaemon(true);
+        parser.start();
+
+        long imported = 0;
+        RuntimeException writeFailure = null;
+        try {
+            while (true) {
+                List<Expense> batch = queue.take();
+                if (batch == END_OF_INPUT) {
+                    break;
+                }
+                // After a failure or cancel keep draining so the parser can finish.
+                if (writeFailure != null || cancelled.get()) {
+                    continue;
+                }
+                try {
+                    UnitOfWork.inTransaction(() -> {
+                        resolveCategories(batch);
+                        expenseDAO.saveExpenses(batch);
+                    });
+                    imported += batch.size();
+                } catch (RuntimeException e) {
+                    writeFailure = e;
+                    cancelled.set(true);
+                }
+                if (listener != null) {
+                    listener.accept(state.progress(imported));
+                }
+            }
+            parser.join();
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            parser.interrupt();
+            throw e;
+        }
+
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+        if (state.failure.get() != null) {
+            Throwable failure = state.failure.get();
+            throw failure instanceof IOException ? (IOException) failure : new IOException(failure);
+        }
+        if (listener != null) {
+            listener.accept(state.progress(imported));
+        }
+        return new ImportReport(imported, state.rejected.get(), state.samples,
+                state.rejectFile, System.currentTimeMillis() - start, cancelled.get());
+    }
+
+    private ColumnMapping detectMapping(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IOException("The file is empty.");
+            }
+            ColumnMapping mapping = ColumnMapping.fromHeader(new CsvLineParser(',').parse(stripBom(header)));
+            if (mapping == null) {
+                throw new IOException("Could not find Date and Amount columns in the header: " + header);
+            }
+            return mapping;
+        }
+    }
+
+    /**
+     * Replaces the unsaved categories the parser named by registered ones.
+     * Called inside the batch's unit of work, so categories created for it
+     * commit or roll back with its expenses.
+     */
+    private static void resolveCategories(List<Expense> batch) {
+        CategoryRegistry registry = CategoryRegistry.getInstance();
+        // New categories are only registered on commit; don't look them up again for every row
+        Map<String, Category> resolved = new HashMap<>();
+        for (Expense expense : batch) {
+            String name = expense.getCategory().getCategoryName();
+            expense.setCategory(resolved.computeIfAbsent(Category.keyOf(name), key -> registry.getOrCreate(name)));
+        }
+    }
+
+    // --- Parser thread --- //
+
+    private void parse(ColumnMapping mapping, ParseState state, BlockingQueue<List<Expense>> queue) {
+        CsvLineParser lineParser = new CsvLineParser(mapping.getDelimiter());
+        try (InputStream in = new CountingInputStream(Files.newInputStream(state.file), state.bytesRead);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)) {
+            List<Expense> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+            long lineNumber = 0;
+            while (!cancelled.get() && (line = reader.readLine()) != null) {
+                lineNumber++;
+                long recordStart = lineNumber;
+                if (lineNumber == 1) {
+                    line = stripBom(line);
+                    if (mapping.isHasHeader()) {
+                        state.linesRead.set(lineNumber);
+                        continue;
+                    }
+                }
+                if (lineParser.endsInsideQuotes(line)) {
+                    // A quoted field with line breaks: the record goes on
+                    StringBuilder record = new StringBuilder(line);
+                    String next;
+                    while (lineParser.endsInsideQuotes(record) && record.length() < MAX_RECORD_LENGTH
+                            && (next = reader.readLine()) != null) {
+                        lineNumber++;
+                        record.append('\n').append(next);
+                    }
+                    line = record.toString();
+                }
+                state.linesRead.set(lineNumber);
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(toExpense(lineParser.parse(line), mapping));
+                } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+                    state.reject(recordStart, line, e.getMessage());
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    queue.put(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty() && !cancelled.get()) {
+                queue.put(batch);
+            }
+        } catch (InterruptedException e) {
+            // The writer gave up; nobody is left to read END_OF_INPUT.
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Throwable t) {
+            state.failure.set(t);
+        } finally {
+            state.closeRejectWriter();
+        }
+        try {
+            queue.put(END_OF_INPUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Expense toExpense(List<String> fields, ColumnMapping mapping) {
+        LocalDate date = parseDate(field(fields, mapping.getDateColumn()), mapping);
+
+        BigDecimal amount = parseAmount(field(fields, mapping.getAmountColumn()));
+        if (mapping.isDebitsNegative()) {
+            if (amount.signum() >= 0) {
+                throw new IllegalArgumentException("Credit entry, not an expense");
+            }
+            amount = amount.negate();
+        }
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        // Column is precision 10, scale 2
+        amount = amount.setScale(2, RoundingMode.HALF_UP);
+        if (amount.precision() > 10) {
+            throw new IllegalArgumentException("Amount too large: " + amount);
+        }
+
+        String description = truncate(field(fields, mapping.getDescriptionColumn()), 255);
+
+        String categoryName = truncate(field(fields, mapping.getCategoryColumn()), 100);
+        if (categoryName.isEmpty()) {
+            categoryName = mapping.getDefaultCategory();
+        }
+
+        // Only named here; the writer resolves it in the batch's transaction
+        return new Expense(Money.of(amount), date, description, new Category(categoryName));
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0) {
+            return "";
+        }
+        if (column >= fields.size()) {
+            throw new IllegalArgumentException("Missing column " + (column + 1));
+        }
+        return fields.get(column);
+    }
+
+    private static LocalDate parseDate(String text, ColumnMapping mapping) {
+        for (DateTimeFormatter format : mapping.getDateFormats()) {
+            try {
+                return LocalDate.parse(text, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        throw new IllegalArgumentException("Unrecognised date: " + text);
+    }
+
+    private static BigDecimal parseAmount(String text) {
+        String cleaned = text.trim();
+        boolean parenthesised = cleaned.startsWith("(") && cleaned.endsWith(")");
+        // Drop currency symbols, thousands separators and brackets
+        cleaned = cleaned.replaceAll("[^0-9.\\-]", "");
+        if (cleaned.isEmpty()) {
+            throw new IllegalArgumentException("Missing amount");
+        }
+        try {
+            BigDecimal amount = new BigDecimal(cleaned);
+            return parenthesised ? amount.negate() : amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + text);
+        }
+    }
+
+    private static String truncate(String text, int maxLength) {
+        return text.length() > maxLength ? text.substring(0, maxLength) : text;
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    /** Counters and reject bookkeeping shared between parser and writer. */
+    private static class ParseState {
+        final Path file;
+        final long totalBytes;
+        final AtomicLong bytesRead = new AtomicLong();
+        final AtomicLong linesRead = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<RejectedLine> samples = new ArrayList<>();
+        Path rejectFile;
+        private BufferedWriter rejectWriter;
+
+        ParseState(Path file, long totalBytes) {
+            this.file = file;
+            this.totalBytes = totalBytes;
+        }
+
+        ImportProgress progress(long imported) {
+            return new ImportProgress(bytesRead.get(), totalBytes, linesRead.get(), imported, rejected.get());
+        }
+
+        void reject(long lineNumber, String line, String reason) throws IOException {
+            rejected.incrementAndGet();
+            if (samples.size() < MAX_SAMPLE_REJECTIONS) {
+                samples.add(new RejectedLine(lineNumber, line, reason));
+            }
+            if (rejectWriter == null) {
+                String name = file.getFileName().toString().replaceFirst("\\.csv$", "");
+                rejectFile = file.resolveSibling(name + "-rejected.csv");
+                rejectWriter = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8);
+                rejectWriter.write("line,reason,content");
+                rejectWriter.newLine();
+            }
+            rejectWriter.write(lineNumber + ",\"" + quote(reason) + "\",\"" + quote(line) + "\"");
+            rejectWriter.newLine();
+        }
+
+        void closeRejectWriter() {
+            if (rejectWriter != null) {
+                try {
+                    rejectWriter.close();
+                } catch (IOException e) {
+                    LOG.warnf(e, "Could not close the rejected rows file");
+                }
+            }
+        }
+
+        private static String quote(String text) {
+            return text == null ? "" : text.replace("\"", "\"\"");
+        }
+    }
+
+    /** Tracks how many bytes the reader has pulled, for progress reporting. */
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
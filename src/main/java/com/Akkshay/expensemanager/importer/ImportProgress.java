@@ -0,0 +1,47 @@
+package com.Akkshay.expensemanager.importer;
+
+/**
+ * Snapshot of a running import, handed to the progress listener after every
+ * batch is written.
+ */
+public class ImportProgress {
+
+    private final long bytesRead;
+    private final long totalBytes;
+    private final long linesRead;
+    private final long imported;
+    private final long rejected;
+
+    public ImportProgress(long bytesRead, long totalBytes, long linesRead, long imported, long rejected) {
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.linesRead = linesRead;
+        this.imported = imported;
+        this.rejected = rejected;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /** Fraction of the file consumed so far, between 0 and 1. */
+    public double getFraction() {
+        return totalBytes > 0 ? Math.min(1.0, (double) bytesRead / totalBytes) : 0;
+    }
+}
@@ -0,0 +1,53 @@
+package com.Akkshay.expensemanager.importer;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Outcome of an import. Only the first rejected lines are kept in memory;
+ * the complete list is in the error report file, if one was written.
+ */
+public class ImportReport {
+
+    private final long imported;
+    private final long rejected;
+    private final List<RejectedLine> sampleRejections;
+    private final Path errorReport;
+    private final long elapsedMillis;
+    private final boolean cancelled;
+
+    public ImportReport(long imported, long rejected, List<RejectedLine> sampleRejections, Path errorReport,
+                        long elapsedMillis, boolean cancelled) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.sampleRejections = List.copyOf(sampleRejections);
+        this.errorReport = errorReport;
+        this.elapsedMillis = elapsedMillis;
+        this.cancelled = cancelled;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<RejectedLine> getSampleRejections() {
+        return sampleRejections;
+    }
+
+    /** File listing every rejected line, or null when nothing was rejected. */
+    public Path getErrorReport() {
+        return errorReport;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
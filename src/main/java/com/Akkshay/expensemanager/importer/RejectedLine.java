@@ -0,0 +1,29 @@
+package com.Akkshay.expensemanager.importer;
+
+/**
+ * A CSV line that could not be turned into an expense, and why.
+ */
+public class RejectedLine {
+
+    private final long lineNumber;
+    private final String content;
+    private final String reason;
+
+    public RejectedLine(long lineNumber, String content, String reason) {
+        this.lineNumber = lineNumber;
+        this.content = content;
+        this.reason = reason;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,203 @@
+package com.Akkshay.expensemanager.journal;
+
+import com.Akkshay.expensemanager.dao.BudgetDAO;
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.dao.SavingsDAO;
+import com.Akkshay.expensemanager.model.Budget;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.Savings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One journaled write: the operation, a random key that makes applying it
+ * idempotent, and the values of the row as they were when it was submitted.
+ * Every entity fits the same five fields; {@code text} is the category name
+ * of an expense and the goal of a savings entry.
+ *
+ * <p>Entities are rebuilt from these values on every attempt to apply the
+ * entry, since a failed attempt leaves ids assigned by persist() behind.
+ */
+public final class JournalEntry {
+
+    private final String key;
+    private final JournalOp op;
+    private final Long id;
+    private final Money amount;
+    private final LocalDate date;
+    private final String text;
+    private final String description;
+
+    private JournalEntry(String key, JournalOp op, Long id, Money amount, LocalDate date, String text,
+                         String description) {
+        this.key = key;
+        this.op = op;
+        this.id = id;
+        this.amount = amount;
+        this.date = date;
+        this.text = text;
+        this.description = description;
+    }
+
+    public static JournalEntry saveExpense(Expense expense) {
+        return ofExpense(JournalOp.SAVE_EXPENSE, expense);
+    }
+
+    public static JournalEntry updateExpense(Expense expense) {
+        return ofExpense(JournalOp.UPDATE_EXPENSE, expense);
+    }
+
+    public static JournalEntry deleteExpense(Expense expense) {
+        return ofExpense(JournalOp.DELETE_EXPENSE, expense);
+    }
+
+    public static JournalEntry saveBudget(Budget budget) {
+        return ofBudget(JournalOp.SAVE_BUDGET, budget);
+    }
+
+    public static JournalEntry updateBudget(Budget budget) {
+        return ofBudget(JournalOp.UPDATE_BUDGET, budget);
+    }
+
+    public static JournalEntry deleteBudget(Budget budget) {
+        return ofBudget(JournalOp.DELETE_BUDGET, budget);
+    }
+
+    public static JournalEntry saveSavings(Savings savings) {
+        return ofSavings(JournalOp.SAVE_SAVINGS, savings);
+    }
+
+    public static JournalEntry updateSavings(Savings savings) {
+        return ofSavings(JournalOp.UPDATE_SAVINGS, savings);
+    }
+
+    public static JournalEntry deleteSavings(Savings savings) {
+        return ofSavings(JournalOp.DELETE_SAVINGS, savings);
+    }
+
+    private static JournalEntry ofExpense(JournalOp op, Expense expense) {
+        // Only the name: a category typed in by the user may not exist yet
+        String category = expense.getCategory() != null ? expense.getCategory().getCategoryName() : null;
+        return new JournalEntry(newKey(), op, expense.getExpenseId(), expense.getAmount(), expense.getExpenseDate(),
+                category, expense.getDescription());
+    }
+
+    private static JournalEntry ofBudget(JournalOp op, Budget budget) {
+        return new JournalEntry(newKey(), op, budget.getBudgetId(), budget.getAmount(), budget.getBudgetMonth(),
+                null, budget.getDescription());
+    }
+
+    private static JournalEntry ofSavings(JournalOp op, Savings savings) {
+        return new JournalEntry(newKey(), op, savings.getSavingsId(), savings.getAmount(), savings.getSavingsDate(),
+                savings.getGoal(), savings.getDescription());
+    }
+
+    private static String newKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    JournalOp getOp() {
+        return op;
+    }
+
+    /** Performs the write through the DAOs, inside the caller's unit of work. */
+    void applyTo(ExpenseDAO expenseDAO, BudgetDAO budgetDAO, SavingsDAO savingsDAO) {
+        switch (op) {
+            case SAVE_EXPENSE -> expenseDAO.saveExpense(toExpense(expenseDAO));
+            case UPDATE_EXPENSE -> expenseDAO.updateExpense(toExpense(expenseDAO));
+            case DELETE_EXPENSE -> expenseDAO.deleteExpense(toExpense(null));
+            case SAVE_BUDGET -> budgetDAO.saveBudget(toBudget());
+            case UPDATE_BUDGET -> budgetDAO.updateBudget(toBudget());
+            case DELETE_BUDGET -> budgetDAO.deleteBudget(toBudget());
+            case SAVE_SAVINGS -> savingsDAO.saveSavings(toSavings());
+            case UPDATE_SAVINGS -> savingsDAO.updateSavings(toSavings());
+            case DELETE_SAVINGS -> savingsDAO.deleteSavings(toSavings());
+        }
+    }
+
+    /** @param categories resolves the category name, or null when only the id is needed */
+    private Expense toExpense(ExpenseDAO categories) {
+        Expense expense = new Expense(amount, date, description,
+                categories != null && text != null ? categories.getOrCreateCategory(text) : null);
+        expense.setExpenseId(id);
+        return expense;
+    }
+
+    private Budget toBudget() {
+        Budget budget = new Budget(amount, date, description);
+        budget.setBudgetId(id);
+        return budget;
+    }
+
+    private Savings toSavings() {
+        Savings savings = new Savings(amount, date, description, text);
+        savings.setSavingsId(id);
+        return savings;
+    }
+
+    // --- Encoding: key, op code, then each field behind a presence flag --- //
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(key);
+            out.writeByte(op.getCode());
+            out.writeBoolean(id != null);
+            if (id != null) {
+                out.writeLong(id);
+            }
+            out.writeBoolean(amount != null);
+            if (amount != null) {
+                out.writeLong(amount.getMinorUnits());
+            }
+            out.writeBoolean(date != null);
+            if (date != null) {
+                out.writeLong(date.toEpochDay());
+            }
+            writeNullableUTF(out, text);
+            writeNullableUTF(out, description);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournalEntry decode(DataInput in) throws IOException {
+        String key = in.readUTF();
+        JournalOp op = JournalOp.fromCode(in.readByte());
+        Long id = in.readBoolean() ? in.readLong() : null;
+        Money amount = in.readBoolean() ? Money.ofMinor(in.readLong()) : null;
+        LocalDate date = in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+        String text = readNullableUTF(in);
+        String description = readNullableUTF(in);
+        return new JournalEntry(key, op, id, amount, date, text, description);
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    @Override
+    public String toString() {
+        return op + " key=" + key + " id=" + id + " amount=" + amount + " date=" + date
+                + " text=" + text + " description=" + description;
+    }
+}
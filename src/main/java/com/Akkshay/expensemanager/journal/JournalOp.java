@@ -0,0 +1,33 @@
+package com.Akkshay.expensemanager.journal;
+
+/** The writes that go through the journal. Codes are stored in the file, so never reuse one. */
+enum JournalOp {
+    SAVE_EXPENSE(1),
+    UPDATE_EXPENSE(2),
+    DELETE_EXPENSE(3),
+    SAVE_BUDGET(4),
+    UPDATE_BUDGET(5),
+    DELETE_BUDGET(6),
+    SAVE_SAVINGS(7),
+    UPDATE_SAVINGS(8),
+    DELETE_SAVINGS(9);
+
+    private final byte code;
+
+    JournalOp(int code) {
+        this.code = (byte) code;
+    }
+
+    byte getCode() {
+        return code;
+    }
+
+    static JournalOp fromCode(byte code) {
+        for (JournalOp op : values()) {
+            if (op.code == code) {
+                return op;
+            }
+        }
+        throw new IllegalArgumentException("Unknown journal operation " + code);
+    }
+}
@@ -0,0 +1,92 @@
+package com.Akkshay.expensemanager.journal;
+
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The record format of the {@link WriteJournal} files: each encoded entry is
+ * preceded by its length and the CRC32 of its bytes, both as big-endian ints.
+ */
+final class JournalRecords {
+
+    private static final Logger LOG = Logger.getLogger(JournalRecords.class);
+
+    static final int HEADER_BYTES = 8;
+    static final int MAX_RECORD_BYTES = 1 << 20;
+
+    /** Reads one payload back into what was encoded. */
+    interface Decoder<T> {
+        T decode(DataInput in) throws IOException;
+    }
+
+    private JournalRecords() {
+    }
+
+    /** The payload with its header, ready to be written. */
+    static ByteBuffer frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        return record.flip();
+    }
+
+    /**
+     * Reads back the intact records, cutting the file off at the first one
+     * that is not: a record torn by a crash, and anything after it.
+     *
+     * @param file only named in the log
+     */
+    static List<JournalEntry> recover(FileChannel channel, Path file) throws IOException {
+        return recover(channel, file, JournalEntry::decode);
+    }
+
+    /** Like {@link #recover(FileChannel, Path)}, for records holding something else. */
+    static <T> List<T> recover(FileChannel channel, Path file, Decoder<T> decoder) throws IOException {
+        ByteBuffer contents = ByteBuffer.allocate((int) channel.size());
+        while (contents.hasRemaining()) {
+            if (channel.read(contents, contents.position()) < 0) {
+                break;
+            }
+        }
+        contents.flip();
+
+        List<T> entries = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        while (contents.remaining() >= HEADER_BYTES) {
+            int start = contents.position();
+            int length = contents.getInt();
+            int checksum = contents.getInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES || length > contents.remaining()) {
+                contents.position(start);
+                break;
+            }
+            byte[] payload = new byte[length];
+            contents.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                contents.position(start);
+                break;
+            }
+            entries.add(decoder.decode(new DataInputStream(new ByteArrayInputStream(payload))));
+        }
+        if (contents.position() < channel.size()) {
+            LOG.warnf("Write journal %s ends in a torn record; dropping its last %d bytes",
+                    file, channel.size() - contents.position());
+            channel.truncate(contents.position());
+            channel.force(true);
+        }
+        return entries;
+    }
+}
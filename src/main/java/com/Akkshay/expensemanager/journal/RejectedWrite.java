@@ -0,0 +1,79 @@
+package com.Akkshay.expensemanager.journal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A journaled write the database refused to apply, held by the
+ * {@link WriteJournal} until it is retried or discarded.
+ *
+ * <p>Published on the ChangeEventBus like a row of a table: created when
+ * the database rejects the write, deleted once it has been retried or
+ * discarded.
+ */
+public final class RejectedWrite {
+
+    // Database messages can be long; the start says what went wrong
+    private static final int MAX_REASON_LENGTH = 2_000;
+
+    private final JournalEntry entry;
+    private final String reason;
+    private final Instant rejectedAt;
+
+    RejectedWrite(JournalEntry entry, String reason, Instant rejectedAt) {
+        this.entry = Objects.requireNonNull(entry);
+        this.reason = reason;
+        this.rejectedAt = rejectedAt;
+    }
+
+    JournalEntry getEntry() {
+        return entry;
+    }
+
+    /** The write, as it was journaled. */
+    public String getDescription() {
+        return entry.toString();
+    }
+
+    /** The database's message. */
+    public String getReason() {
+        return reason;
+    }
+
+    public Instant getRejectedAt() {
+        return rejectedAt;
+    }
+
+    // --- Encoding: rejection time, reason behind a presence flag, then the entry --- //
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(rejectedAt.toEpochMilli());
+            out.writeBoolean(reason != null);
+            if (reason != null) {
+                out.writeUTF(reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason);
+            }
+            out.write(entry.encode());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static RejectedWrite decode(DataInput in) throws IOException {
+        Instant rejectedAt = Instant.ofEpochMilli(in.readLong());
+        String reason = in.readBoolean() ? in.readUTF() : null;
+        return new RejectedWrite(JournalEntry.decode(in), reason, rejectedAt);
+    }
+
+    @Override
+    public String toString() {
+        return entry + " rejected at " + rejectedAt + ": " + reason;
+    }
+}
@@ -0,0 +1,478 @@
+package com.Akkshay.expensemanager.journal;
+
+import com.Akkshay.expensemanager.dao.AppliedJournalDAO;
+import com.Akkshay.expensemanager.dao.BudgetDAO;
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.dao.SavingsDAO;
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.model.Category;
+import com.Akkshay.expensemanager.util.DaoCall;
+import com.Akkshay.expensemanager.util.DaoMetrics;
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import com.Akkshay.expensemanager.util.PersistenceProfile;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.JDBCConnectionException;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local write-ahead journal in front of the database, so that saving from the
+ * UI takes as long as a disk write and survives the database being away.
+ *
+ * <p>{@link #append} queues an entry; the "journal-writer" thread writes
+ * everything queued since its last round with one write and one fsync, and
+ * only then completes the futures. Each record is framed as its length and a
+ * CRC32 of its bytes, so a record torn by a crash is found and cut off when
+ * the file is read back on the next start.
+ *
+ * <p>The "journal-replay" thread applies the synced entries in order through
+ * the DAOs. Each entry carries a key that is recorded in the same transaction
+ * as its write ({@link AppliedJournalDAO#applyOnce}), so an entry replayed
+ * after a crash is skipped rather than applied twice. While the database
+ * cannot be reached the entry is retried with growing pauses. An entry that
+ * breaks the unique category key is applied once more, since that is a
+ * category created by someone else at the same moment. An entry the
+ * database rejects for good is taken out of the queue, as it would otherwise
+ * hold up everything behind it: it is published as a {@link RejectedWrite},
+ * which the user can {@link #retry} or {@link #discard}. Until then it is
+ * kept in journal-rejected-&lt;profile&gt;.log, framed like the journal, so
+ * it is offered again after a restart.
+ *
+ * <p>Once every entry is applied and the file has grown past
+ * {@value #TRUNCATE_AT_BYTES} bytes, or on {@link #close()}, the file is
+ * truncated. Not truncating after every entry saves an fsync per write; the
+ * price is that a crash leaves up to that much to be checked again.
+ */
+public final class WriteJournal {
+
+    // Declared first: the instance below already logs while it is constructed
+    private static final Logger LOG = Logger.getLogger(WriteJournal.class);
+
+    private static final WriteJournal INSTANCE = new WriteJournal();
+
+    private static final long TRUNCATE_AT_BYTES = 64 * 1024;
+    private static final long MIN_RETRY_MILLIS = 1_000;
+    private static final long MAX_RETRY_MILLIS = 60_000;
+    private static final long CLOSE_WAIT_MILLIS = 5_000;
+
+    private final DaoMetrics metrics = DaoMetrics.getInstance();
+    private final ExpenseDAO expenseDAO = new ExpenseDAO();
+    private final BudgetDAO budgetDAO = new BudgetDAO();
+    private final SavingsDAO savingsDAO = new SavingsDAO();
+    private final AppliedJournalDAO appliedDAO = new AppliedJournalDAO();
+
+    private final Path file;
+    private final Path rejectedFile;
+    private final FileChannel channel;
+
+    // Guards pending and closed; the writer waits on it
+    private final Object appendLock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+    private boolean closed;
+
+    // Guards the file, and makes "unapplied is empty" mean nothing in the file is left to apply
+    private final Object fileLock = new Object();
+    private final BlockingDeque<JournalEntry> unapplied = new LinkedBlockingDeque<>();
+    private final List<RejectedWrite> rejected = new CopyOnWriteArrayList<>();
+    // Guards the rejected-writes file, and keeps it and the list above in step
+    private final Object rejectedLock = new Object();
+    // Retried but not synced to the journal yet; still kept in the rejected-writes file
+    private final Set<RejectedWrite> retrying = ConcurrentHashMap.newKeySet();
+
+    private final Thread writer;
+    private final Thread replayer;
+    private volatile boolean stopping;
+
+    private WriteJournal() {
+        String profile = HibernateUtil.getProfile().name().toLowerCase(Locale.ROOT);
+        file = PersistenceProfile.dataDirectory().resolve("journal-" + profile + ".log");
+        rejectedFile = PersistenceProfile.dataDirectory().resolve("journal-rejected-" + profile + ".log");
+        try {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            unapplied.addAll(JournalRecords.recover(channel, file));
+            try (FileChannel rejectedChannel = FileChannel.open(rejectedFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                rejected.addAll(JournalRecords.recover(rejectedChannel, rejectedFile, RejectedWrite::decode));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the write journal " + file, e);
+        }
+        if (!unapplied.isEmpty()) {
+            LOG.infof("Replaying %d journaled writes from %s", unapplied.size(), file);
+        }
+        if (!rejected.isEmpty()) {
+            LOG.warnf("%d writes rejected before are waiting in %s", rejected.size(), rejectedFile);
+        }
+        writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        replayer = new Thread(this::replayLoop, "journal-replay");
+        replayer.setDaemon(true);
+        replayer.start();
+    }
+
+    public static WriteJournal getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues the entry. The future completes once it is on disk, on the
+     * writer thread; it is applied to the database after that, in order.
+     */
+    public CompletableFuture<Void> append(JournalEntry entry) {
+        Pending write = new Pending(entry, JournalRecords.frame(entry.encode()));
+        synchronized (appendLock) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("The write journal is closed"));
+            }
+            pending.add(write);
+            appendLock.notifyAll();
+        }
+        return write.synced;
+    }
+
+    /** Entries on disk that have not reached the database yet. */
+    public int getBacklog() {
+        return unapplied.size();
+    }
+
+    /** Writes the database rejected that have been neither retried nor discarded. */
+    public List<RejectedWrite> getRejected() {
+        return List.copyOf(rejected);
+    }
+
+    /**
+     * Journals a rejected write again, e.g. after the data it conflicted with
+     * has been fixed. Completes like {@link #append}; if the database rejects
+     * it again, it comes back as a new RejectedWrite.
+     */
+    public CompletableFuture<Void> retry(RejectedWrite write) {
+        synchronized (rejectedLock) {
+            if (!rejected.remove(write)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            retrying.add(write);
+        }
+        ChangeEventBus.getInstance().publish(ChangeEvent.deleted(RejectedWrite.class, write));
+        LOG.infof("Retrying rejected write %s", write.getDescription());
+        return append(write.getEntry()).whenComplete((ignored, failure) -> {
+            retrying.remove(write);
+            if (failure != null) {
+                rejected.add(write);
+                ChangeEventBus.getInstance().publish(ChangeEvent.created(RejectedWrite.class, write));
+            } else {
+                saveRejected();
+            }
+        });
+    }
+
+    /** Gives up on a rejected write; only the log still mentions it. */
+    public void discard(RejectedWrite write) {
+        if (rejected.remove(write)) {
+            saveRejected();
+            ChangeEventBus.getInstance().publish(ChangeEvent.deleted(RejectedWrite.class, write));
+            LOG.infof("Discarded rejected write %s", write.getDescription());
+        }
+    }
+
+    /**
+     * Syncs what is queued, gives the replayer a few seconds to catch up and
+     * truncates the file if it did. Whatever is left is replayed on the next start.
+     */
+    public void close() {
+        synchronized (appendLock) {
+            closed = true;
+            appendLock.notifyAll();
+        }
+        try {
+            writer.join();
+            stopping = true;
+            replayer.join(CLOSE_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (replayer.isAlive()) {
+            LOG.warnf("%d journaled writes not applied yet; they are kept in %s", unapplied.size(), file);
+            return;
+        }
+        truncateIfApplied(0);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.warnf(e, "Could not close the write journal %s", file);
+        }
+    }
+
+    // --- Writing --- //
+
+    private void writeLoop() {
+        while (true) {
+            List<Pending> batch;
+            synchronized (appendLock) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        appendLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            writeBatch(batch);
+        }
+    }
+
+    /** Writes and syncs the batch with one call each, then hands it to the replayer. */
+    private void writeBatch(List<Pending> batch) {
+        int bytes = 0;
+        for (Pending write : batch) {
+            bytes += write.record.remaining();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        for (Pending write : batch) {
+            buffer.put(write.record);
+        }
+        buffer.flip();
+
+        IOException failure = null;
+        try (DaoCall call = metrics.start("WriteJournal.sync")) {
+            synchronized (fileLock) {
+                long end = -1;
+                try {
+                    end = channel.size();
+                    channel.position(end);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                    for (Pending write : batch) {
+                        unapplied.add(write.entry);
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                    // Cut off a partial batch so it is not replayed as if it had been acknowledged
+                    if (end >= 0) {
+                        try {
+                            channel.truncate(end);
+                        } catch (IOException suppressed) {
+                            e.addSuppressed(suppressed);
+                        }
+                    }
+                }
+            }
+            if (failure == null) {
+                call.succeeded(batch.size());
+            }
+        }
+        for (Pending write : batch) {
+            if (failure == null) {
+                write.synced.complete(null);
+            } else {
+                write.synced.completeExceptionally(
+                        new UncheckedIOException("Could not write to the journal " + file, failure));
+            }
+        }
+    }
+
+    // --- Replaying --- //
+
+    private void replayLoop() {
+        long retryMillis = MIN_RETRY_MILLIS;
+        boolean offline = false;
+        while (!(stopping && unapplied.isEmpty())) {
+            JournalEntry entry;
+            try {
+                entry = unapplied.pollFirst(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (entry == null) {
+                continue;
+            }
+            try {
+                apply(entry);
+                if (offline) {
+                    LOG.info("Database reachable again, replaying journaled writes");
+                    offline = false;
+                }
+                retryMillis = MIN_RETRY_MILLIS;
+            } catch (RuntimeException e) {
+                if (!isUnreachable(e)) {
+                    reject(entry, e);
+                    continue;
+                }
+                unapplied.addFirst(entry);
+                if (!offline) {
+                    LOG.warnf("Database unreachable, keeping writes in %s: %s", file, e.getMessage());
+                    offline = true;
+                }
+                if (stopping) {
+                    return;
+                }
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+                continue;
+            }
+            truncateIfApplied(TRUNCATE_AT_BYTES);
+        }
+    }
+
+    private void apply(JournalEntry entry) {
+        try {
+            appliedDAO.applyOnce(entry.getKey(), () -> entry.applyTo(expenseDAO, budgetDAO, savingsDAO));
+        } catch (RuntimeException e) {
+            if (!violatesCategoryKey(e)) {
+                throw e;
+            }
+            // Lost the race for a new category to the UI or the importer;
+            // applied again, the entry finds the category they inserted
+            appliedDAO.applyOnce(entry.getKey(), () -> entry.applyTo(expenseDAO, budgetDAO, savingsDAO));
+        }
+    }
+
+    /** Truncates the file if it holds at least minBytes and every entry in it has been applied. */
+    private void truncateIfApplied(long minBytes) {
+        Instant truncatedAt;
+        synchronized (fileLock) {
+            try {
+                if (!unapplied.isEmpty() || !channel.isOpen() || channel.size() == 0 || channel.size() < minBytes) {
+                    return;
+                }
+                channel.truncate(0);
+                channel.force(true);
+                truncatedAt = Instant.now();
+            } catch (IOException e) {
+                LOG.warnf(e, "Could not truncate the write journal %s", file);
+                return;
+            }
+        }
+        try {
+            // Those keys cannot come back now; not urgent, so failing is fine
+            appliedDAO.deleteAppliedBefore(truncatedAt);
+        } catch (RuntimeException e) {
+            LOG.debugf(e, "Could not clean up applied journal keys");
+        }
+    }
+
+    /** True when the failure says the database could not be reached, as opposed to refusing the write. */
+    private static boolean isUnreachable(Throwable failure) {
+        if (HibernateUtil.whenReady().isCompletedExceptionally()) {
+            // The SessionFactory could not be built; entries wait for the next start
+            return true;
+        }
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof JDBCConnectionException || t instanceof SQLTransientException
+                    || t instanceof SQLRecoverableException || t instanceof SQLNonTransientConnectionException
+                    || t instanceof ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** True when the failure is a category with the same key inserted first; any other violation stays one. */
+    private static boolean violatesCategoryKey(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            // Databases qualify the name, H2 with its index as well
+            if (t instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toUpperCase(Locale.ROOT).contains(Category.KEY_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(JournalEntry entry, RuntimeException e) {
+        LOG.errorf(e, "Journaled write %s rejected by the database, moved to %s", entry, rejectedFile);
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        RejectedWrite write = new RejectedWrite(entry, cause.getMessage(), Instant.now());
+        synchronized (rejectedLock) {
+            try (FileChannel out = FileChannel.open(rejectedFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer record = JournalRecords.frame(write.encode());
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+                out.force(false);
+            } catch (IOException io) {
+                LOG.errorf(io, "Could not record it in %s; it is offered until the app closes", rejectedFile);
+            }
+            rejected.add(write);
+        }
+        ChangeEventBus.getInstance().publish(ChangeEvent.created(RejectedWrite.class, write));
+    }
+
+    /** Replaces the rejected-writes file by the writes still rejected. */
+    private void saveRejected() {
+        synchronized (rejectedLock) {
+            Path temp = rejectedFile.resolveSibling(rejectedFile.getFileName() + ".tmp");
+            try {
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    List<RejectedWrite> kept = new ArrayList<>(rejected);
+                    kept.addAll(retrying);
+                    for (RejectedWrite write : kept) {
+                        ByteBuffer record = JournalRecords.frame(write.encode());
+                        while (record.hasRemaining()) {
+                            out.write(record);
+                        }
+                    }
+                    out.force(false);
+                }
+                Files.move(temp, rejectedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // Then it is offered once more after the next start
+                LOG.warnf(e, "Could not update %s", rejectedFile);
+            }
+        }
+    }
+
+    private static final class Pending {
+        final JournalEntry entry;
+        final ByteBuffer record;
+        final CompletableFuture<Void> synced = new CompletableFuture<>();
+
+        Pending(JournalEntry entry, ByteBuffer record) {
+            this.entry = entry;
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.Akkshay.expensemanager.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Represents the TBL_APPLIED_JOURNAL table: the keys of the write-journal
+ * entries that have been applied. The key is inserted in the same transaction
+ * as the write itself, so an entry replayed again after a crash is recognised
+ * and skipped instead of applied twice.
+ */
+@Entity
+@Table(name = "TBL_APPLIED_JOURNAL", indexes = @Index(name = "IDX_APPLIED_JOURNAL_AT", columnList = "applied_at"))
+public class AppliedJournalEntry {
+
+    @Id
+    @Column(name = "entry_key", length = 36)
+    private String entryKey;
+
+    @Column(name = "applied_at", nullable = false)
+    private Instant appliedAt;
+
+    public AppliedJournalEntry() {
+    }
+
+    public AppliedJournalEntry(String entryKey, Instant appliedAt) {
+        this.entryKey = entryKey;
+        this.appliedAt = appliedAt;
+    }
+
+    public String getEntryKey() {
+        return entryKey;
+    }
+
+    public Instant getAppliedAt() {
+        return appliedAt;
+    }
+}
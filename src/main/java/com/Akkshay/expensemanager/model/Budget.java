@@ -1,20 +1,25 @@
 package com.Akkshay.expensemanager.model;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "TBL_BUDGET")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "budget")
+@Table(name = "TBL_BUDGET", indexes = @Index(name = "IDX_BUDGET_MONTH", columnList = "budget_month"))
 public class Budget {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "budget_seq")
+    @SequenceGenerator(name = "budget_seq", sequenceName = "SEQ_BUDGET", allocationSize = 50)
     @Column(name = "budget_id")
     private Long budgetId;
 
     @Column(name = "amount", nullable = false, precision = 10, scale = 2)
-    private BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
 
     @Column(name = "budget_month", nullable = false)
     private LocalDate budgetMonth; // Store as 1st of the month
@@ -25,12 +30,20 @@ public class Budget {
     public Budget() {
     }
 
-    public Budget(BigDecimal amount, LocalDate budgetMonth, String description) {
+    public Budget(Money amount, LocalDate budgetMonth, String description) {
         this.amount = amount;
         this.budgetMonth = budgetMonth;
         this.description = description;
     }
 
+    /** Copy of another budget, id included, e.g. to keep its values from before an update. */
+    public Budget(Budget other) {
+        this.budgetId = other.budgetId;
+        this.amount = other.amount;
+        this.budgetMonth = other.budgetMonth;
+        this.description = other.description;
+    }
+
     public Long getBudgetId() {
         return budgetId;
     }
@@ -39,11 +52,11 @@ public class Budget {
         this.budgetId = budgetId;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
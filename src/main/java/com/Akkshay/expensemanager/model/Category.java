@@ -1,6 +1,9 @@
 package com.Akkshay.expensemanager.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.util.Locale;
 import java.util.Set;
 
 /**
@@ -8,17 +11,29 @@ import java.util.Set;
  * Each instance of this class is a single category row.
  */
 @Entity
-@Table(name = "TBL_CATEGORIES")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
+@Table(name = "TBL_CATEGORIES", uniqueConstraints =
+        // Names that differ only in case or surrounding blanks are the same category
+        @UniqueConstraint(name = Category.KEY_CONSTRAINT, columnNames = "category_key"))
 public class Category {
 
+    /** The unique constraint on {@link #getCategoryKey()}. */
+    public static final String KEY_CONSTRAINT = "UK_CATEGORY_KEY";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // For Oracle 12c+
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "SEQ_CATEGORIES", allocationSize = 50)
     @Column(name = "category_id")
     private Long categoryId;
 
-    @Column(name = "category_name", nullable = false, unique = true, length = 100)
+    @Column(name = "category_name", nullable = false, length = 100)
     private String categoryName;
 
+    // keyOf(categoryName), kept in step by the setter
+    @Column(name = "category_key", nullable = false, length = 100)
+    private String categoryKey;
+
     // Establishes a one-to-many relationship with Expense.
     // One category can have many expenses.
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -31,7 +46,12 @@ public class Category {
 
     /** Constructor for use when creating a new category by name. */
     public Category(String categoryName) {
-        this.categoryName = categoryName;
+        setCategoryName(categoryName);
+    }
+
+    /** The trimmed, lower-case form of a name, under which categories are unique. */
+    public static String keyOf(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
     }
 
     // --- Getters and Setters --- //
@@ -50,6 +70,11 @@ public class Category {
 
     public void setCategoryName(String categoryName) {
         this.categoryName = categoryName;
+        this.categoryKey = categoryName != null ? keyOf(categoryName) : null;
+    }
+
+    public String getCategoryKey() {
+        return categoryKey;
     }
 
     public Set<Expense> getExpenses() {
@@ -1,7 +1,7 @@
 package com.Akkshay.expensemanager.model;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 /**
@@ -9,16 +9,27 @@ import java.time.LocalDate;
  * Each instance of this class is a single expense row.
  */
 @Entity
-@Table(name = "TBL_EXPENSES")
+@Table(name = "TBL_EXPENSES", indexes = {
+        // Date ranges, and the (expense_date, expense_id) order of the keyset pages
+        @Index(name = "IDX_EXPENSES_DATE", columnList = "expense_date, expense_id"),
+        // Date ranges within categories; its leading column also serves the foreign key
+        @Index(name = "IDX_EXPENSES_CATEGORY_DATE", columnList = "category_id, expense_date"),
+        // Rows changed since the local snapshot was written
+        @Index(name = "IDX_EXPENSES_MODIFIED", columnList = "modified_at")
+})
 public class Expense {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids (allocated 50 at a time) keep JDBC insert batching available;
+    // IDENTITY columns make Hibernate insert one row per round trip.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "SEQ_EXPENSES", allocationSize = 50)
     @Column(name = "expense_id")
     private Long expenseId;
 
     @Column(name = "amount", nullable = false, precision = 10, scale = 2)
-    private BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
 
     @Column(name = "expense_date", nullable = false)
     private LocalDate expenseDate;
@@ -32,6 +43,10 @@ public class Expense {
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
+    // Set on every insert and update; null for rows written before the column existed
+    @Column(name = "modified_at")
+    private Instant modifiedAt;
+
     // --- Constructors --- //
 
     /**
@@ -40,13 +55,29 @@ public class Expense {
     public Expense() {
     }
 
-    public Expense(BigDecimal amount, LocalDate expenseDate, String description, Category category) {
+    public Expense(Money amount, LocalDate expenseDate, String description, Category category) {
         this.amount = amount;
         this.expenseDate = expenseDate;
         this.description = description;
         this.category = category;
     }
 
+    /** Copy of another expense, id included, e.g. to keep its values from before an update. */
+    public Expense(Expense other) {
+        this.expenseId = other.expenseId;
+        this.amount = other.amount;
+        this.expenseDate = other.expenseDate;
+        this.description = other.description;
+        this.category = other.category;
+        this.modifiedAt = other.modifiedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        modifiedAt = Instant.now();
+    }
+
     // --- Getters and Setters --- //
 
     public Long getExpenseId() {
@@ -57,11 +88,11 @@ public class Expense {
         this.expenseId = expenseId;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -89,6 +120,10 @@ public class Expense {
         this.category = category;
     }
 
+    public Instant getModifiedAt() {
+        return modifiedAt;
+    }
+
     // Helper method for TableView to display category name
     public String getCategoryName() {
         return category != null ? category.getCategoryName() : "";
@@ -0,0 +1,113 @@
+package com.Akkshay.expensemanager.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * An amount of money as a whole number of minor units (paise), matching the
+ * scale-2 NUMBER columns. Arithmetic is exact long arithmetic, so totals do
+ * not drift like doubles and cost no BigDecimal per step; overflow throws.
+ * Immutable.
+ */
+public final class Money implements Comparable<Money>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Digits after the decimal point, as in the amount columns. */
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /** Rounds half-up to {@link #SCALE} digits, the way the database stores it. */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parses a decimal amount such as "1250.5".
+     *
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static Money parse(String text) {
+        return of(new BigDecimal(text.trim()));
+    }
+
+    /**
+     * Exact sum of the amounts of some rows. Adds plain longs, so it
+     * allocates nothing but the result.
+     */
+    public static <T> Money sum(Collection<? extends T> rows, Function<? super T, Money> amountOf) {
+        long total = 0;
+        for (T row : rows) {
+            total = Math.addExact(total, amountOf.apply(row).minorUnits);
+        }
+        return ofMinor(total);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public Money abs() {
+        return minorUnits < 0 ? negate() : this;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /** For charts only; use the exact value for anything that is added up. */
+    public double toDouble() {
+        return minorUnits / 100.0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && other.minorUnits == minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /** Plain decimal with two digits, e.g. "1250.50". */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
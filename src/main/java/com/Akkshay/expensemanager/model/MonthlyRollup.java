@@ -0,0 +1,64 @@
+package com.Akkshay.expensemanager.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Represents the MONTHLY_ROLLUP table: pre-aggregated spend, budget and savings
+ * totals per (month, category). The DAOs keep it up to date in the same
+ * transaction as every write, so dashboards read one row per month instead of
+ * every transaction.
+ */
+@Entity
+@Table(name = "TBL_MONTHLY_ROLLUP")
+public class MonthlyRollup {
+
+    @EmbeddedId
+    private MonthlyRollupId id;
+
+    @Column(name = "spend_total", nullable = false, precision = 14, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money spendTotal = Money.ZERO;
+
+    @Column(name = "budget_total", nullable = false, precision = 14, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money budgetTotal = Money.ZERO;
+
+    @Column(name = "savings_total", nullable = false, precision = 14, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money savingsTotal = Money.ZERO;
+
+    public MonthlyRollup() {
+    }
+
+    public MonthlyRollup(MonthlyRollupId id) {
+        this.id = id;
+    }
+
+    public MonthlyRollupId getId() {
+        return id;
+    }
+
+    public Money getSpendTotal() {
+        return spendTotal;
+    }
+
+    public void setSpendTotal(Money spendTotal) {
+        this.spendTotal = spendTotal;
+    }
+
+    public Money getBudgetTotal() {
+        return budgetTotal;
+    }
+
+    public void setBudgetTotal(Money budgetTotal) {
+        this.budgetTotal = budgetTotal;
+    }
+
+    public Money getSavingsTotal() {
+        return savingsTotal;
+    }
+
+    public void setSavingsTotal(Money savingsTotal) {
+        this.savingsTotal = savingsTotal;
+    }
+}
@@ -0,0 +1,55 @@
+package com.Akkshay.expensemanager.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Composite key of the monthly rollup table: (month, category).
+ * Budget and savings rows have no category, so they are kept under
+ * {@link #NO_CATEGORY}.
+ */
+@Embeddable
+public class MonthlyRollupId implements Serializable {
+
+    /** Category id used for the month-level budget and savings totals. */
+    public static final long NO_CATEGORY = 0L;
+
+    @Column(name = "rollup_month", nullable = false)
+    private LocalDate rollupMonth; // Always the 1st of the month
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    public MonthlyRollupId() {
+    }
+
+    public MonthlyRollupId(LocalDate date, Long categoryId) {
+        this.rollupMonth = date.withDayOfMonth(1);
+        this.categoryId = categoryId != null ? categoryId : NO_CATEGORY;
+    }
+
+    public LocalDate getRollupMonth() {
+        return rollupMonth;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MonthlyRollupId)) return false;
+        MonthlyRollupId that = (MonthlyRollupId) o;
+        return Objects.equals(rollupMonth, that.rollupMonth) && Objects.equals(categoryId, that.categoryId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rollupMonth, categoryId);
+    }
+}
@@ -0,0 +1,50 @@
+package com.Akkshay.expensemanager.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Spend, budget and savings totals read from the monthly rollup table.
+ * The month is null when the summary covers all months.
+ */
+public class MonthlySummary {
+
+    private final YearMonth month;
+    private final Money spend;
+    private final Money budget;
+    private final Money savings;
+
+    public MonthlySummary(YearMonth month, Money spend, Money budget, Money savings) {
+        this.month = month;
+        this.spend = spend != null ? spend : Money.ZERO;
+        this.budget = budget != null ? budget : Money.ZERO;
+        this.savings = savings != null ? savings : Money.ZERO;
+    }
+
+    /** Constructor used by HQL "SELECT new" expressions, whose SUMs come back as BigDecimal. */
+    public MonthlySummary(LocalDate month, BigDecimal spend, BigDecimal budget, BigDecimal savings) {
+        this(month != null ? YearMonth.from(month) : null, toMoney(spend), toMoney(budget), toMoney(savings));
+    }
+
+    /** SUM over no rows is null; that counts as zero. */
+    public static Money toMoney(BigDecimal sum) {
+        return sum != null ? Money.of(sum) : Money.ZERO;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public Money getSpend() {
+        return spend;
+    }
+
+    public Money getBudget() {
+        return budget;
+    }
+
+    public Money getSavings() {
+        return savings;
+    }
+}
@@ -1,20 +1,21 @@
 package com.Akkshay.expensemanager.model;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "TBL_SAVINGS")
+@Table(name = "TBL_SAVINGS", indexes = @Index(name = "IDX_SAVINGS_DATE", columnList = "savings_date"))
 public class Savings {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "savings_seq")
+    @SequenceGenerator(name = "savings_seq", sequenceName = "SEQ_SAVINGS", allocationSize = 50)
     @Column(name = "savings_id")
     private Long savingsId;
 
     @Column(name = "amount", nullable = false, precision = 10, scale = 2)
-    private BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
 
     @Column(name = "savings_date", nullable = false)
     private LocalDate savingsDate;
@@ -28,13 +29,22 @@ public class Savings {
     public Savings() {
     }
 
-    public Savings(BigDecimal amount, LocalDate savingsDate, String description, String goal) {
+    public Savings(Money amount, LocalDate savingsDate, String description, String goal) {
         this.amount = amount;
         this.savingsDate = savingsDate;
         this.description = description;
         this.goal = goal;
     }
 
+    /** Copy of another savings entry, id included, e.g. to keep its values from before an update. */
+    public Savings(Savings other) {
+        this.savingsId = other.savingsId;
+        this.amount = other.amount;
+        this.savingsDate = other.savingsDate;
+        this.description = other.description;
+        this.goal = other.goal;
+    }
+
     public Long getSavingsId() {
         return savingsId;
     }
@@ -43,11 +53,11 @@ public class Savings {
         this.savingsId = savingsId;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -0,0 +1,286 @@
+package com.Akkshay.expensemanager.search;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Inverted index from description terms to the ids of the expenses using
+ * them. Terms are kept sorted, so every term starting with a prefix is one
+ * range of the map.
+ *
+ * <p>A query matches expenses containing all of its words. Each word matches
+ * the terms it is a prefix of; a word that is no prefix of anything matches
+ * the terms within one edit (two for words of {@value #TWO_EDITS_LENGTH}
+ * letters or more, a swap of neighbours being one) instead, so "uebr" still
+ * finds "uber". Fuzzy candidates must share the first letter, which keeps the
+ * scan to a small slice of the terms. Not thread-safe; {@link ExpenseSearchIndex}
+ * uses it from one thread.
+ *
+ * <p>Besides the terms it keeps the ids of every expense it indexed, those
+ * without a description included, so it can say how many rows it holds.
+ */
+class DescriptionIndex {
+
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int TWO_EDITS_LENGTH = 7;
+    // Above this length ratio, binary searches into the longer list beat a merge
+    private static final int SKEWED_RATIO = 16;
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Postings documents;
+
+    DescriptionIndex() {
+        this(new Postings());
+    }
+
+    private DescriptionIndex(Postings documents) {
+        this.documents = documents;
+    }
+
+    void add(long id, String description) {
+        documents.add(id);
+        for (String token : Tokenizer.tokens(description)) {
+            terms.computeIfAbsent(token, t -> new Postings()).add(id);
+        }
+    }
+
+    void remove(long id, String description) {
+        documents.remove(id);
+        for (String token : Tokenizer.tokens(description)) {
+            Postings postings = terms.get(token);
+            if (postings != null) {
+                postings.remove(id);
+                if (postings.size() == 0) {
+                    terms.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the expenses the predicate matches without knowing their
+     * descriptions, in one pass over all terms.
+     *
+     * @return how many expenses were removed
+     */
+    int removeIf(LongPredicate gone) {
+        terms.values().removeIf(postings -> {
+            postings.removeIf(gone);
+            return postings.size() == 0;
+        });
+        return documents.removeIf(gone);
+    }
+
+    boolean contains(long id) {
+        return documents.contains(id);
+    }
+
+    /** Number of expenses indexed. */
+    int size() {
+        return documents.size();
+    }
+
+    /** Highest expense id indexed, 0 if none. */
+    long maxId() {
+        return documents.size() > 0 ? documents.get(documents.size() - 1) : 0;
+    }
+
+    /** Ids of the expenses matching every word of the query, in ascending order. */
+    long[] search(String query) {
+        List<String> words = Tokenizer.tokens(query);
+        if (words.isEmpty()) {
+            return new long[0];
+        }
+        List<Postings> perWord = new ArrayList<>(words.size());
+        for (String word : words) {
+            Postings matches = matches(word);
+            if (matches.size() == 0) {
+                return new long[0];
+            }
+            perWord.add(matches);
+        }
+
+        // Start from the rarest word and probe the others, so a common word costs only lookups
+        perWord.sort(Comparator.comparingInt(Postings::size));
+        long[] result = perWord.get(0).toArray();
+        int count = result.length;
+        for (int w = 1; w < perWord.size() && count > 0; w++) {
+            count = retainAll(result, count, perWord.get(w));
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /** Keeps the first count ids of result that are also in other, returning how many are left. */
+    private static int retainAll(long[] result, int count, Postings other) {
+        int kept = 0;
+        if (other.size() > count * SKEWED_RATIO) {
+            // Much longer list: look each id up
+            for (int i = 0; i < count; i++) {
+                if (other.contains(result[i])) {
+                    result[kept++] = result[i];
+                }
+            }
+            return kept;
+        }
+        // Similar lengths: walk both in step
+        int j = 0;
+        for (int i = 0; i < count && j < other.size(); i++) {
+            while (j < other.size() && other.get(j) < result[i]) {
+                j++;
+            }
+            if (j < other.size() && other.get(j) == result[i]) {
+                result[kept++] = result[i];
+            }
+        }
+        return kept;
+    }
+
+    private Postings matches(String word) {
+        List<Postings> lists = new ArrayList<>(terms.subMap(word, true, word + Character.MAX_VALUE, false).values());
+        if (lists.isEmpty() && word.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = word.length() >= TWO_EDITS_LENGTH ? 2 : 1;
+            String first = word.substring(0, 1);
+            for (Map.Entry<String, Postings> entry
+                    : terms.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                if (withinEdits(word, entry.getKey(), maxEdits)) {
+                    lists.add(entry.getValue());
+                }
+            }
+        }
+        return union(lists);
+    }
+
+    private static Postings union(List<Postings> lists) {
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+        int total = 0;
+        for (Postings postings : lists) {
+            total += postings.size();
+        }
+        long[] ids = new long[total];
+        int at = 0;
+        for (Postings postings : lists) {
+            for (int i = 0; i < postings.size(); i++) {
+                ids[at++] = postings.get(i);
+            }
+        }
+        // One description can hold several of the terms
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < total; i++) {
+            if (distinct == 0 || ids[i] != ids[distinct - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return new Postings(ids, distinct);
+    }
+
+    /**
+     * Edit distance of at most maxEdits, counting a swap of two neighbouring
+     * letters as one edit (optimal string alignment); gives up as soon as a
+     * row exceeds the limit.
+     */
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    // --- Persistence: the expense ids, then the terms in order, each with its ids --- //
+    // Id lists are stored as variable-length gaps
+
+    void writeTo(DataOutput out) throws IOException {
+        writePostings(out, documents);
+        out.writeInt(terms.size());
+        for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writePostings(out, entry.getValue());
+        }
+    }
+
+    static DescriptionIndex readFrom(DataInput in) throws IOException {
+        DescriptionIndex index = new DescriptionIndex(readPostings(in));
+        int termCount = in.readInt();
+        for (int t = 0; t < termCount; t++) {
+            String term = in.readUTF();
+            index.terms.put(term, readPostings(in));
+        }
+        return index;
+    }
+
+    private static void writePostings(DataOutput out, Postings postings) throws IOException {
+        out.writeInt(postings.size());
+        long previous = 0;
+        for (int i = 0; i < postings.size(); i++) {
+            writeVarLong(out, postings.get(i) - previous);
+            previous = postings.get(i);
+        }
+    }
+
+    private static Postings readPostings(DataInput in) throws IOException {
+        int size = in.readInt();
+        long[] ids = new long[Math.max(size, 1)];
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            previous += readVarLong(in);
+            ids[i] = previous;
+        }
+        return new Postings(ids, size);
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
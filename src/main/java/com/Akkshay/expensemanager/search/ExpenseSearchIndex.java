@@ -0,0 +1,299 @@
+package com.Akkshay.expensemanager.search;
+
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.util.DbExecutor;
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import com.Akkshay.expensemanager.util.PersistenceProfile;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Full-text search over expense descriptions, answered from a
+ * {@link DescriptionIndex} in memory.
+ *
+ * <p>The index is saved to the data directory on shutdown, headed by the
+ * number of expenses in it, its highest expense id and the latest modified_at
+ * it has read. The next start reads the file back instead of tokenizing every
+ * description, provided the header matches what was read, and then catches up
+ * with the rows modified since shortly before that modified_at; rows deleted
+ * meanwhile show up as a different row count. The file is deleted once read,
+ * so after a crash the index is rebuilt rather than trusted.
+ *
+ * <p>Expense changes published by the DAOs update the index as they commit;
+ * bulk inserts are read back by the ids they report. Ids are not handed out
+ * in commit order, so nothing here assumes that rows above some id are all
+ * that is new. Loading, changes and searches all run on one thread in order,
+ * so a search sees every change published before it.
+ */
+public class ExpenseSearchIndex {
+
+    private static final Logger LOG = Logger.getLogger(ExpenseSearchIndex.class);
+
+    private static final ExpenseSearchIndex INSTANCE = new ExpenseSearchIndex();
+
+    private static final int FILE_MAGIC = 0x45584958;
+    // Bump when the file layout changes; older files are then rebuilt
+    private static final int FILE_VERSION = 2;
+    private static final long NO_MARK = Long.MIN_VALUE;
+    private static final int FETCH_SIZE = 1_000;
+    private static final int IDS_PER_QUERY = 1_000;
+    // Writes commit some time after they stamp modified_at, so each catch-up reaches back this far
+    private static final Duration MODIFIED_OVERLAP = Duration.ofMinutes(10);
+    private static final String COUNT_ROWS = "SELECT COUNT(e) FROM Expense e";
+    private static final String LAST_MODIFIED = "SELECT MAX(e.modifiedAt) FROM Expense e";
+    private static final String ALL_ROWS = "SELECT e.expenseId, e.description FROM Expense e ORDER BY e.expenseId";
+    private static final String ROWS_WITH_IDS =
+            "SELECT e.expenseId, e.description FROM Expense e WHERE e.expenseId IN :ids";
+    private static final String ROWS_MODIFIED_SINCE =
+            "SELECT e.expenseId, e.description FROM Expense e WHERE e.modifiedAt >= :since";
+    private static final String ALL_IDS = "SELECT e.expenseId FROM Expense e ORDER BY e.expenseId";
+
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expense-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Both only used on the updater thread
+    private DescriptionIndex index;
+    private Instant modifiedMark;
+
+    private ExpenseSearchIndex() {
+        ChangeEventBus.getInstance().subscribe(Expense.class, updater, this::onExpenseChanged);
+    }
+
+    public static ExpenseSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts loading the index in the background so the first search does not
+     * wait for it. The future completes once it is loaded, or failed to load.
+     */
+    public CompletableFuture<Void> preload() {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                loadIfNeeded();
+            } catch (RuntimeException e) {
+                // The first search tries again and reports the failure
+                LOG.warnf(e, "Could not load the search index");
+            }
+        }, updater);
+    }
+
+    /**
+     * Ids of the expenses whose description contains every word of the query,
+     * as a prefix or with a small typo, in ascending order. Blocks while the
+     * index loads; the FX thread should use {@link #searchAsync(String)}.
+     */
+    public long[] search(String query) {
+        return CompletableFuture.supplyAsync(() -> loadIfNeeded().search(query), updater).join();
+    }
+
+    /** Like {@link #search(String)}, completing on the FX thread. */
+    public CompletableFuture<long[]> searchAsync(String query) {
+        return DbExecutor.submit(() -> search(query));
+    }
+
+    /** Drops the index so the next search rebuilds it, e.g. after the table was changed outside the DAOs. */
+    public void invalidate() {
+        updater.execute(() -> index = null);
+    }
+
+    /**
+     * Writes the index to the data directory, if it was loaded. Called on
+     * shutdown, after the last write and before the SessionFactory closes.
+     */
+    public void save() {
+        CompletableFuture.runAsync(() -> {
+            if (index == null) {
+                return;
+            }
+            Path file = indexFile();
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                Files.createDirectories(file.getParent());
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(FILE_MAGIC);
+                    out.writeInt(FILE_VERSION);
+                    out.writeLong(index.size());
+                    out.writeLong(index.maxId());
+                    out.writeLong(modifiedMark != null ? modifiedMark.toEpochMilli() : NO_MARK);
+                    index.writeTo(out);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                // Not fatal: the index is rebuilt on the next start
+                LOG.warnf(e, "Could not save the search index to %s", file);
+            }
+        }, updater).join();
+    }
+
+    private DescriptionIndex loadIfNeeded() {
+        if (index == null) {
+            DescriptionIndex loaded = readFile();
+            if (loaded != null) {
+                catchUp(loaded);
+            } else {
+                loaded = new DescriptionIndex();
+                try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+                    // Taken first: rows modified during the read are read again by the next catch-up
+                    modifiedMark = session.createQuery(LAST_MODIFIED, Instant.class).getSingleResult();
+                    try (ScrollableResults<Object[]> rows = session.createQuery(ALL_ROWS, Object[].class)
+                            .setFetchSize(FETCH_SIZE)
+                            .scroll(ScrollMode.FORWARD_ONLY)) {
+                        while (rows.next()) {
+                            Object[] row = rows.get();
+                            loaded.add((Long) row[0], (String) row[1]);
+                        }
+                    }
+                }
+            }
+            index = loaded;
+        }
+        return index;
+    }
+
+    /**
+     * The saved index, with {@link #modifiedMark} set to the one it was saved
+     * with, or null if there is none or it does not match its header.
+     */
+    private DescriptionIndex readFile() {
+        Path file = indexFile();
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                return null;
+            }
+            long rows = in.readLong();
+            long maxId = in.readLong();
+            long mark = in.readLong();
+            DescriptionIndex loaded = DescriptionIndex.readFrom(in);
+            if (loaded.size() != rows || loaded.maxId() != maxId) {
+                LOG.warnf("Search index %s does not match its header, rebuilding it", file);
+                return null;
+            }
+            modifiedMark = mark != NO_MARK ? Instant.ofEpochMilli(mark) : null;
+            return loaded;
+        } catch (IOException e) {
+            LOG.warnf(e, "Could not read the search index %s, rebuilding it", file);
+            return null;
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOG.warnf(e, "Could not delete %s", file);
+            }
+        }
+    }
+
+    private void onExpenseChanged(ChangeEvent<Expense> event) {
+        if (index == null) {
+            // Not loaded yet; the load will see the change
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED -> add(event.getNewValue());
+            case UPDATED -> {
+                index.remove(event.getOldValue().getExpenseId(), event.getOldValue().getDescription());
+                add(event.getNewValue());
+            }
+            case DELETED -> index.remove(event.getOldValue().getExpenseId(), event.getOldValue().getDescription());
+            case BULK_CHANGE -> {
+                long[] ids = event.getIds();
+                if (ids != null) {
+                    readIds(index, ids);
+                } else {
+                    catchUp(index);
+                }
+            }
+        }
+    }
+
+    private void add(Expense expense) {
+        index.add(expense.getExpenseId(), expense.getDescription());
+    }
+
+    /** Reads the descriptions of these ids again; ids whose row is gone by now are dropped. */
+    private static void readIds(DescriptionIndex target, long[] ids) {
+        Map<Long, String> rows = new LinkedHashMap<>();
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            for (int from = 0; from < ids.length; from += IDS_PER_QUERY) {
+                List<Long> chunk = Arrays.stream(ids, from, Math.min(ids.length, from + IDS_PER_QUERY))
+                        .boxed()
+                        .toList();
+                readAll(session.createQuery(ROWS_WITH_IDS, Object[].class).setParameter("ids", chunk), rows);
+            }
+        }
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        target.removeIf(id -> Arrays.binarySearch(sorted, id) >= 0);
+        rows.forEach(target::add);
+    }
+
+    /** Reads what changed since shortly before the last read, or everything if that is not known. */
+    private void catchUp(DescriptionIndex target) {
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            // Taken first: rows modified while this runs are read again by the next catch-up
+            Instant mark = session.createQuery(LAST_MODIFIED, Instant.class).getSingleResult();
+            Instant since = modifiedMark != null ? modifiedMark.minus(MODIFIED_OVERLAP) : Instant.EPOCH;
+            Map<Long, String> rows = new LinkedHashMap<>();
+            readAll(session.createQuery(ROWS_MODIFIED_SINCE, Object[].class).setParameter("since", since), rows);
+            // Their old descriptions are not known, so their ids are taken out of every term
+            target.removeIf(rows::containsKey);
+            rows.forEach(target::add);
+
+            long count = session.createQuery(COUNT_ROWS, Long.class).getSingleResult();
+            if (count != target.size()) {
+                long[] existing = session.createQuery(ALL_IDS, Long.class)
+                        .setFetchSize(FETCH_SIZE)
+                        .getResultStream()
+                        .mapToLong(Long::longValue)
+                        .toArray();
+                target.removeIf(id -> Arrays.binarySearch(existing, id) < 0);
+            }
+            if (mark != null) {
+                modifiedMark = mark;
+            }
+        }
+    }
+
+    private static void readAll(SelectionQuery<Object[]> query, Map<Long, String> rows) {
+        try (ScrollableResults<Object[]> results = query.setFetchSize(FETCH_SIZE).scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                Object[] row = results.get();
+                rows.put((Long) row[0], (String) row[1]);
+            }
+        }
+    }
+
+    private static Path indexFile() {
+        String profile = HibernateUtil.getProfile().name().toLowerCase(Locale.ROOT);
+        return PersistenceProfile.dataDirectory().resolve("search-index-" + profile + ".bin");
+    }
+}
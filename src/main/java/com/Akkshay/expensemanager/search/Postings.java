@@ -0,0 +1,84 @@
+package com.Akkshay.expensemanager.search;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * The expense ids containing one term, as a sorted array of longs. New
+ * expenses have the highest ids, so adding one is almost always an append.
+ */
+final class Postings {
+
+    private long[] ids;
+    private int size;
+
+    Postings() {
+        ids = new long[1];
+    }
+
+    Postings(long[] ids, int size) {
+        this.ids = ids;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    void add(long id) {
+        int at;
+        if (size == 0 || id > ids[size - 1]) {
+            at = size;
+        } else {
+            at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + Math.max(1, size >> 1));
+        }
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        ids[at] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int at = Arrays.binarySearch(ids, 0, size, id);
+        if (at >= 0) {
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Removes every id the predicate matches in one pass.
+     *
+     * @return how many were removed
+     */
+    int removeIf(LongPredicate gone) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!gone.test(ids[i])) {
+                ids[kept++] = ids[i];
+            }
+        }
+        int removed = size - kept;
+        size = kept;
+        return removed;
+    }
+
+    /** Copy of the ids, exactly as long as needed. */
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+}
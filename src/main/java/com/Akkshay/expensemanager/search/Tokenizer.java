@@ -0,0 +1,42 @@
+package com.Akkshay.expensemanager.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into lower-case search terms: runs of letters and digits, so
+ * "UBER *Trip 12-03" gives uber, trip, 12 and 03. Used for both descriptions
+ * and queries so the two always agree.
+ */
+final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    /** The distinct terms of the text in order of appearance; empty for null. */
+    static List<String> tokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i < lower.length(); i++) {
+            if (Character.isLetterOrDigit(lower.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(lower.substring(start));
+        }
+        return new ArrayList<>(tokens);
+    }
+}
@@ -0,0 +1,114 @@
+package com.Akkshay.expensemanager.service;
+
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeType;
+import com.Akkshay.expensemanager.model.Budget;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.MonthlySummary;
+import com.Akkshay.expensemanager.model.Savings;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Immutable dashboard totals: everything recorded so far, and the current
+ * month. Safe to hand to any thread.
+ */
+public final class DashboardSnapshot {
+
+    private final MonthlySummary overall;
+    private final MonthlySummary currentMonth;
+    private final long dataVersion;
+    private final Instant takenAt;
+
+    DashboardSnapshot(MonthlySummary overall, MonthlySummary currentMonth, long dataVersion, Instant takenAt) {
+        this.overall = overall;
+        this.currentMonth = currentMonth;
+        this.dataVersion = dataVersion;
+        this.takenAt = takenAt;
+    }
+
+    public Money getTotalSpend() {
+        return overall.getSpend();
+    }
+
+    public Money getTotalBudget() {
+        return overall.getBudget();
+    }
+
+    public Money getTotalSavings() {
+        return overall.getSavings();
+    }
+
+    /** Budget left after spending and savings; negative when over budget. */
+    public Money getRemaining() {
+        return getTotalBudget().minus(getTotalSpend()).minus(getTotalSavings());
+    }
+
+    public MonthlySummary getCurrentMonth() {
+        return currentMonth;
+    }
+
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+
+    long getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * These totals with one created, updated or deleted expense, budget or
+     * savings row applied, so a screen can follow a write without querying
+     * again. Bulk changes carry no rows; reload the snapshot for those.
+     * The result is for display only and keeps this snapshot's data version.
+     */
+    public DashboardSnapshot plus(ChangeEvent<?> event) {
+        if (event.getType() == ChangeType.BULK_CHANGE) {
+            throw new IllegalArgumentException("Bulk changes cannot be applied, reload the snapshot instead");
+        }
+        MonthlySummary newOverall = overall;
+        MonthlySummary newCurrentMonth = currentMonth;
+        if (event.getOldValue() != null) {
+            newOverall = add(newOverall, event.getOldValue(), true);
+            newCurrentMonth = add(newCurrentMonth, event.getOldValue(), true);
+        }
+        if (event.getNewValue() != null) {
+            newOverall = add(newOverall, event.getNewValue(), false);
+            newCurrentMonth = add(newCurrentMonth, event.getNewValue(), false);
+        }
+        return new DashboardSnapshot(newOverall, newCurrentMonth, dataVersion, takenAt);
+    }
+
+    // Adds (or takes out) one row; rows of other months leave a month summary alone
+    private static MonthlySummary add(MonthlySummary summary, Object row, boolean remove) {
+        Money spend = Money.ZERO;
+        Money budget = Money.ZERO;
+        Money savings = Money.ZERO;
+        LocalDate date;
+        if (row instanceof Expense expense) {
+            spend = expense.getAmount();
+            date = expense.getExpenseDate();
+        } else if (row instanceof Budget b) {
+            budget = b.getAmount();
+            date = b.getBudgetMonth();
+        } else if (row instanceof Savings s) {
+            savings = s.getAmount();
+            date = s.getSavingsDate();
+        } else {
+            return summary;
+        }
+        if (summary.getMonth() != null && !summary.getMonth().equals(YearMonth.from(date))) {
+            return summary;
+        }
+        if (remove) {
+            spend = spend.negate();
+            budget = budget.negate();
+            savings = savings.negate();
+        }
+        return new MonthlySummary(summary.getMonth(), summary.getSpend().plus(spend),
+                summary.getBudget().plus(budget), summary.getSavings().plus(savings));
+    }
+}
@@ -0,0 +1,98 @@
+package com.Akkshay.expensemanager.service;
+
+import com.Akkshay.expensemanager.analytics.ExpenseColumns;
+import com.Akkshay.expensemanager.dao.DataVersion;
+import com.Akkshay.expensemanager.dao.MonthlyRollupDAO;
+import com.Akkshay.expensemanager.model.Budget;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.MonthlySummary;
+import com.Akkshay.expensemanager.model.Savings;
+import com.Akkshay.expensemanager.snapshot.LocalSnapshot;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Dashboard totals, computed by the database and cached as an immutable
+ * {@link DashboardSnapshot}.
+ *
+ * <p>The snapshot records the {@link DataVersion} it was read at; any DAO
+ * write moves the version on, and the next request reads fresh totals. Until
+ * then every request is answered from memory without touching the database.
+ *
+ * <p>Until the {@link LocalSnapshot} has synced, the totals are added up from
+ * it instead, and not cached.
+ */
+public class DashboardSummaryService {
+
+    private static final DashboardSummaryService INSTANCE = new DashboardSummaryService();
+
+    private final MonthlyRollupDAO rollupDAO = new MonthlyRollupDAO();
+    private final Clock clock = Clock.systemDefaultZone();
+    private volatile DashboardSnapshot snapshot;
+
+    private DashboardSummaryService() {
+    }
+
+    public static DashboardSummaryService getInstance() {
+        return INSTANCE;
+    }
+
+    /** Current totals; only queries the database if something was written since the last call. */
+    public DashboardSnapshot getSnapshot() {
+        DashboardSnapshot current = snapshot;
+        YearMonth thisMonth = YearMonth.now(clock);
+        if (current != null && isFresh(current, thisMonth)) {
+            return current;
+        }
+
+        // Read the version first: a write that commits while we query makes this snapshot stale at once
+        long version = DataVersion.current();
+        List<MonthlySummary> totals = rollupDAO.getOverallAndMonthSummary(thisMonth);
+        DashboardSnapshot loaded = new DashboardSnapshot(totals.get(0), totals.get(1), version, Instant.now(clock));
+        snapshot = loaded;
+        return loaded;
+    }
+
+    /**
+     * Like {@link #getSnapshot()} for the FX thread: an up-to-date snapshot is
+     * returned as an already completed future, otherwise it is loaded on the
+     * DbExecutor.
+     */
+    public CompletableFuture<DashboardSnapshot> getSnapshotAsync() {
+        DashboardSnapshot current = snapshot;
+        if (current != null && isFresh(current, YearMonth.now(clock))) {
+            return CompletableFuture.completedFuture(current);
+        }
+        return LocalSnapshot.getInstance().readOr(this::fromLocalSnapshot, this::getSnapshot);
+    }
+
+    private DashboardSnapshot fromLocalSnapshot(LocalSnapshot local) {
+        YearMonth thisMonth = YearMonth.now(clock);
+        ExpenseColumns expenses = local.getExpenseColumns();
+        List<Budget> budgets = local.getBudgets();
+        List<Savings> savings = local.getSavings();
+        MonthlySummary overall = new MonthlySummary((YearMonth) null, expenses.total(null, null),
+                Money.sum(budgets, Budget::getAmount), Money.sum(savings, Savings::getAmount));
+        MonthlySummary month = new MonthlySummary(thisMonth,
+                expenses.total(thisMonth.atDay(1), thisMonth.atEndOfMonth()),
+                Money.sum(budgets.stream().filter(b -> YearMonth.from(b.getBudgetMonth()).equals(thisMonth)).toList(),
+                        Budget::getAmount),
+                Money.sum(savings.stream().filter(s -> YearMonth.from(s.getSavingsDate()).equals(thisMonth)).toList(),
+                        Savings::getAmount));
+        return new DashboardSnapshot(overall, month, DataVersion.current(), Instant.now(clock));
+    }
+
+    /** Drops the cached snapshot, e.g. after the tables were changed outside the DAOs. */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private static boolean isFresh(DashboardSnapshot snapshot, YearMonth thisMonth) {
+        return snapshot.getDataVersion() == DataVersion.current()
+                && thisMonth.equals(snapshot.getCurrentMonth().getMonth());
+    }
+}
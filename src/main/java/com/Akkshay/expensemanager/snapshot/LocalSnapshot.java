@@ -0,0 +1,437 @@
+package com.Akkshay.expensemanager.snapshot;
+
+import com.Akkshay.expensemanager.analytics.ExpenseColumnStore;
+import com.Akkshay.expensemanager.analytics.ExpenseColumns;
+import com.Akkshay.expensemanager.dao.BudgetDAO;
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.dao.SavingsDAO;
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.model.Budget;
+import com.Akkshay.expensemanager.model.Category;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.Savings;
+import com.Akkshay.expensemanager.util.DbExecutor;
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import com.Akkshay.expensemanager.util.PersistenceProfile;
+import com.Akkshay.expensemanager.util.StartupTimer;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A local copy of the data the first screens show, so the app opens with it
+ * while the SessionFactory is still being built.
+ *
+ * <p>On shutdown the expense columns of {@link ExpenseColumnStore} and all
+ * budgets, savings and categories are written to the data directory. On the
+ * next start {@link #load()} reads the small tables and copies each column
+ * out of a mapping of the file; until {@link #sync()} has run,
+ * {@link #readOr} answers from this copy instead of the database.
+ *
+ * <p>A mapping cannot be released on demand, and on Windows a mapped file
+ * cannot be replaced, so there are two generations, snapshot-&lt;profile&gt;-a.bin
+ * and -b.bin. save() writes the one that was not read on this start and then
+ * points snapshot-&lt;profile&gt;.current at it, replacing that small file in
+ * one atomic move; a save cut short leaves the pointer at the older one.
+ *
+ * <p>sync() reads only the expenses added since the snapshot, or modified
+ * since its high-water mark of modified_at, less {@link #SYNC_OVERLAP} for
+ * transactions that committed after a later one; deleted rows are looked for
+ * only when the row count is off. Budgets, savings and categories are a few
+ * rows each and are simply read again. Whatever turns out to differ is
+ * published as a bulk change, so the screens showing it reload.
+ */
+public final class LocalSnapshot {
+
+    private static final Logger LOG = Logger.getLogger(LocalSnapshot.class);
+
+    private static final LocalSnapshot INSTANCE = new LocalSnapshot();
+
+    private static final int FILE_MAGIC = 0x45585350;
+    // Bump when the file layout changes; older files are then ignored
+    private static final int FILE_VERSION = 1;
+    // magic, version, modified_at mark, length of the small tables
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final long NO_MARK = Long.MIN_VALUE;
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(10);
+    private static final String GENERATION_A = "a";
+    private static final String GENERATION_B = "b";
+
+    private final ExpenseDAO expenseDAO = new ExpenseDAO();
+    private final BudgetDAO budgetDAO = new BudgetDAO();
+    private final SavingsDAO savingsDAO = new SavingsDAO();
+    private final ExpenseColumnStore expenseColumns = ExpenseColumnStore.getInstance();
+
+    private final AtomicBoolean loading = new AtomicBoolean();
+    // True once a snapshot was read, false if there was none
+    private final CompletableFuture<Boolean> loaded = new CompletableFuture<>();
+    private volatile Tables tables;
+    private volatile boolean synced;
+    // The generation load() opened, which may still be mapped; null if none
+    private volatile String readGeneration;
+
+    private LocalSnapshot() {
+    }
+
+    public static LocalSnapshot getInstance() {
+        return INSTANCE;
+    }
+
+    /** Starts reading the snapshot file in the background, once. */
+    public void load() {
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(() -> loaded.complete(StartupTimer.time("Local snapshot", this::readFile)),
+                "snapshot-load");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs fromSnapshot while the snapshot was loaded and not synced yet, else
+     * fromDatabase, on the DbExecutor; completes on the FX thread.
+     */
+    public <T> CompletableFuture<T> readOr(Function<LocalSnapshot, T> fromSnapshot, Supplier<T> fromDatabase) {
+        return DbExecutor.submit(() -> isServing() ? fromSnapshot.apply(this) : fromDatabase.get());
+    }
+
+    /** The restored expense columns; only call from {@link #readOr}. */
+    public ExpenseColumns getExpenseColumns() {
+        return expenseColumns.getColumns();
+    }
+
+    /** Fresh copies of the budgets in the snapshot; only call from {@link #readOr}. */
+    public List<Budget> getBudgets() {
+        return decode(tables.budgets, LocalSnapshot::readBudget);
+    }
+
+    /** Like {@link #getBudgets()} for savings. */
+    public List<Savings> getSavings() {
+        return decode(tables.savings, LocalSnapshot::readSavings);
+    }
+
+    /** Like {@link #getBudgets()} for categories. */
+    public List<Category> getCategories() {
+        return decode(tables.categories, LocalSnapshot::readCategory);
+    }
+
+    /**
+     * Catches up with the database and stops answering from the snapshot.
+     * Without a snapshot it reads the expense columns in full, so one can be
+     * written on shutdown. Call once the SessionFactory is built; blocks.
+     */
+    public void sync() {
+        if (!loading.get() || !loaded.join()) {
+            expenseColumns.getColumns();
+            synced = true;
+            return;
+        }
+        Tables before = tables;
+        Instant since = before.mark != null ? before.mark.minus(SYNC_OVERLAP) : Instant.EPOCH;
+        int expenseChanges = expenseColumns.syncModifiedSince(since).join();
+        Tables after = readTables(before.mark);
+        tables = after;
+        synced = true;
+
+        ChangeEventBus eventBus = ChangeEventBus.getInstance();
+        if (expenseChanges > 0) {
+            eventBus.publish(ChangeEvent.bulkChange(Expense.class));
+        }
+        if (!Arrays.equals(before.budgets, after.budgets)) {
+            eventBus.publish(ChangeEvent.bulkChange(Budget.class));
+        }
+        if (!Arrays.equals(before.savings, after.savings)) {
+            eventBus.publish(ChangeEvent.bulkChange(Savings.class));
+        }
+        if (!Arrays.equals(before.categories, after.categories)) {
+            eventBus.publish(ChangeEvent.bulkChange(Category.class));
+        }
+    }
+
+    /**
+     * Writes the snapshot for the next start, if this run synced with the
+     * database; otherwise the file from before is still the newest. Called on
+     * shutdown, before the SessionFactory closes.
+     */
+    public void save() {
+        if (!synced) {
+            return;
+        }
+        String newest = readGeneration != null ? readGeneration : currentGeneration();
+        String generation = GENERATION_A.equals(newest) ? GENERATION_B : GENERATION_A;
+        Path file = snapshotFile(generation);
+        try {
+            // Taken first: whatever is modified after it is read again by the next sync
+            Tables current = readTables(expenseDAO.getLastModified());
+            byte[] small = current.toBytes();
+            Files.createDirectories(file.getParent());
+            long end;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + small.length).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(FILE_MAGIC)
+                        .putInt(FILE_VERSION)
+                        .putLong(current.mark != null ? current.mark.toEpochMilli() : NO_MARK)
+                        .putInt(small.length)
+                        .put(small)
+                        .flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                end = expenseColumns.writeSnapshot(channel, HEADER_BYTES + small.length);
+                channel.force(true);
+            }
+            if (end < 0) {
+                return;
+            }
+            Path pointer = pointerFile();
+            Path temp = pointer.resolveSibling(pointer.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer name = ByteBuffer.wrap(generation.getBytes(StandardCharsets.US_ASCII));
+                while (name.hasRemaining()) {
+                    channel.write(name);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, pointer, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // Not fatal: the pointer still names the previous snapshot, or none, and sync() catches up
+            LOG.warnf(e, "Could not save the local snapshot to %s", file);
+        }
+    }
+
+    private boolean isServing() {
+        return loading.get() && !synced && loaded.join();
+    }
+
+    private boolean readFile() {
+        String generation = currentGeneration();
+        if (generation == null) {
+            return false;
+        }
+        Path file = snapshotFile(generation);
+        if (!Files.exists(file)) {
+            return false;
+        }
+        readGeneration = generation;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (!readFully(channel, header, 0) || header.getInt() != FILE_MAGIC || header.getInt() != FILE_VERSION) {
+                return false;
+            }
+            long markMillis = header.getLong();
+            ByteBuffer small = ByteBuffer.allocate(header.getInt());
+            if (!readFully(channel, small, HEADER_BYTES)) {
+                return false;
+            }
+            Tables read = Tables.fromBytes(small.array(),
+                    markMillis != NO_MARK ? Instant.ofEpochMilli(markMillis) : null);
+            expenseColumns.restore(channel, HEADER_BYTES + small.capacity()).join();
+            tables = read;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOG.warnf(e, "Could not read the local snapshot %s, using the database", file);
+            return false;
+        }
+    }
+
+    private Tables readTables(Instant mark) {
+        return new Tables(mark,
+                encode(budgetDAO.getAllBudgets(), LocalSnapshot::writeBudget),
+                encode(savingsDAO.getAllSavings(), LocalSnapshot::writeSavings),
+                encode(expenseDAO.getAllCategories(), LocalSnapshot::writeCategory));
+    }
+
+    /** Fills the buffer from the position on and flips it; false if the file ends first. */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    /** The generation the pointer file names, or null if there is no valid one. */
+    private static String currentGeneration() {
+        Path pointer = pointerFile();
+        try {
+            String generation = Files.exists(pointer)
+                    ? Files.readString(pointer, StandardCharsets.US_ASCII).trim() : null;
+            return GENERATION_A.equals(generation) || GENERATION_B.equals(generation) ? generation : null;
+        } catch (IOException e) {
+            LOG.warnf(e, "Could not read %s, using the database", pointer);
+            return null;
+        }
+    }
+
+    private static Path snapshotFile(String generation) {
+        return PersistenceProfile.dataDirectory().resolve("snapshot-" + profileName() + "-" + generation + ".bin");
+    }
+
+    private static Path pointerFile() {
+        return PersistenceProfile.dataDirectory().resolve("snapshot-" + profileName() + ".current");
+    }
+
+    private static String profileName() {
+        return HibernateUtil.getProfile().name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The small tables, each encoded as in the file. Kept as bytes: every read
+     * decodes fresh entities the screens may change, and comparing two reads
+     * is comparing bytes.
+     */
+    private static final class Tables {
+        final Instant mark;
+        final byte[] budgets;
+        final byte[] savings;
+        final byte[] categories;
+
+        Tables(Instant mark, byte[] budgets, byte[] savings, byte[] categories) {
+            this.mark = mark;
+            this.budgets = budgets;
+            this.savings = savings;
+            this.categories = categories;
+        }
+
+        byte[] toBytes() {
+            ByteBuffer out = ByteBuffer.allocate(3 * Integer.BYTES + budgets.length + savings.length + categories.length);
+            out.putInt(budgets.length).put(budgets)
+                    .putInt(savings.length).put(savings)
+                    .putInt(categories.length).put(categories);
+            return out.array();
+        }
+
+        static Tables fromBytes(byte[] bytes, Instant mark) {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            byte[] budgets = new byte[in.getInt()];
+            in.get(budgets);
+            byte[] savings = new byte[in.getInt()];
+            in.get(savings);
+            byte[] categories = new byte[in.getInt()];
+            in.get(categories);
+            return new Tables(mark, budgets, savings, categories);
+        }
+    }
+
+    // --- Encoding of the small tables: a row count, then each row's fields --- //
+
+    private interface RowWriter<T> {
+        void write(DataOutputStream out, T row) throws IOException;
+    }
+
+    private interface RowReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private static <T> byte[] encode(List<T> rows, RowWriter<T> writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(rows.size());
+            for (T row : rows) {
+                writer.write(out, row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static <T> List<T> decode(byte[] bytes, RowReader<T> reader) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int count = in.readInt();
+            List<T> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(reader.read(in));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeBudget(DataOutputStream out, Budget budget) throws IOException {
+        out.writeLong(budget.getBudgetId());
+        out.writeLong(budget.getBudgetMonth().toEpochDay());
+        out.writeLong(budget.getAmount().getMinorUnits());
+        writeNullableUTF(out, budget.getDescription());
+    }
+
+    private static Budget readBudget(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        LocalDate month = LocalDate.ofEpochDay(in.readLong());
+        Budget budget = new Budget(Money.ofMinor(in.readLong()), month, readNullableUTF(in));
+        budget.setBudgetId(id);
+        return budget;
+    }
+
+    private static void writeSavings(DataOutputStream out, Savings savings) throws IOException {
+        out.writeLong(savings.getSavingsId());
+        out.writeLong(savings.getSavingsDate().toEpochDay());
+        out.writeLong(savings.getAmount().getMinorUnits());
+        writeNullableUTF(out, savings.getDescription());
+        writeNullableUTF(out, savings.getGoal());
+    }
+
+    private static Savings readSavings(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        Money amount = Money.ofMinor(in.readLong());
+        Savings savings = new Savings(amount, date, readNullableUTF(in), readNullableUTF(in));
+        savings.setSavingsId(id);
+        return savings;
+    }
+
+    private static void writeCategory(DataOutputStream out, Category category) throws IOException {
+        out.writeLong(category.getCategoryId());
+        out.writeUTF(category.getCategoryName());
+    }
+
+    private static Category readCategory(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        Category category = new Category(in.readUTF());
+        category.setCategoryId(id);
+        return category;
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
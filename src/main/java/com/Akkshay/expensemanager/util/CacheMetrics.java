@@ -0,0 +1,148 @@
+package com.Akkshay.expensemanager.util;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Point-in-time hit/miss counts of the second-level cache, overall and per
+ * region. A region whose hit ratio stays low is not saving any round trips.
+ */
+public class CacheMetrics {
+
+    private final long hits;
+    private final long misses;
+    private final long puts;
+    private final long queryHits;
+    private final long queryMisses;
+    private final List<RegionMetrics> regions;
+
+    public CacheMetrics(long hits, long misses, long puts, long queryHits, long queryMisses,
+                        List<RegionMetrics> regions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.queryHits = queryHits;
+        this.queryMisses = queryMisses;
+        this.regions = Collections.unmodifiableList(regions);
+    }
+
+    static CacheMetrics from(Statistics statistics) {
+        List<RegionMetrics> regions = new ArrayList<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.add(new RegionMetrics(name, region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), region.getElementCountInMemory()));
+            }
+        }
+        regions.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return new CacheMetrics(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(), statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), regions);
+    }
+
+    /** Entity lookups answered by the cache. */
+    public long getHits() {
+        return hits;
+    }
+
+    /** Entity lookups that had to go to the database. */
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    public double getHitRatio() {
+        return ratio(hits, misses);
+    }
+
+    public long getQueryHits() {
+        return queryHits;
+    }
+
+    public long getQueryMisses() {
+        return queryMisses;
+    }
+
+    public double getQueryHitRatio() {
+        return ratio(queryHits, queryMisses);
+    }
+
+    public List<RegionMetrics> getRegions() {
+        return regions;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder()
+                .append(String.format("entities %d/%d hit (%.1f%%), queries %d/%d hit (%.1f%%)",
+                        hits, hits + misses, getHitRatio() * 100,
+                        queryHits, queryHits + queryMisses, getQueryHitRatio() * 100));
+        for (RegionMetrics region : regions) {
+            sb.append("\n  ").append(region);
+        }
+        return sb.toString();
+    }
+
+    /** Counts of a single cache region. */
+    public static class RegionMetrics {
+
+        private final String name;
+        private final long hits;
+        private final long misses;
+        private final long puts;
+        private final long elementsInMemory;
+
+        public RegionMetrics(String name, long hits, long misses, long puts, long elementsInMemory) {
+            this.name = name;
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.elementsInMemory = elementsInMemory;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getPuts() {
+            return puts;
+        }
+
+        /** Entries currently held, or a negative number if the provider does not say. */
+        public long getElementsInMemory() {
+            return elementsInMemory;
+        }
+
+        public double getHitRatio() {
+            return ratio(hits, misses);
+        }
+
+        @Override
+        public String toString() {
+            String text = String.format("%s: %d hits, %d misses (%.1f%%), %d puts",
+                    name, hits, misses, getHitRatio() * 100, puts);
+            return elementsInMemory >= 0 ? text + ", " + elementsInMemory + " held" : text;
+        }
+    }
+}
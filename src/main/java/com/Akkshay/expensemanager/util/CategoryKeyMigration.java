@@ -0,0 +1,167 @@
+package com.Akkshay.expensemanager.util;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.OracleDialect;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.service.ServiceRegistry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gives databases created before categories were unique regardless of case
+ * their CATEGORY_KEY column.
+ *
+ * <p>Until then only CATEGORY_NAME was unique, so "Food" and "food" could
+ * both exist. On a TBL_CATEGORIES without a unique CATEGORY_KEY this
+ * <ol>
+ *     <li>adds the column and fills it with the trimmed, lower-case name,</li>
+ *     <li>moves the expenses of every category onto the oldest one with the
+ *     same key and deletes the others,</li>
+ *     <li>empties TBL_MONTHLY_ROLLUP if that moved anything, so it is rebuilt
+ *     from the expenses on the next read, and</li>
+ *     <li>replaces the unique constraint on CATEGORY_NAME by UK_CATEGORY_KEY.</li>
+ * </ol>
+ * Each step only does what is still missing, so a run interrupted between
+ * DDL statements is finished on the next start.
+ *
+ * <p>HibernateUtil runs it on the service registry before the SessionFactory
+ * is built, whatever hibernate.hbm2ddl.auto says: hbm2ddl cannot add the
+ * constraint while duplicates exist, and SchemaCheck would fail on the
+ * missing column.
+ */
+final class CategoryKeyMigration {
+
+    /** Must match Category.KEY_CONSTRAINT. */
+    static final String CONSTRAINT = "UK_CATEGORY_KEY";
+
+    // Categories whose key an older category already has
+    private static final String DUPLICATES = "SELECT c.CATEGORY_ID FROM TBL_CATEGORIES c WHERE EXISTS"
+            + " (SELECT 1 FROM TBL_CATEGORIES k WHERE k.CATEGORY_KEY = c.CATEGORY_KEY AND k.CATEGORY_ID < c.CATEGORY_ID)";
+
+    private CategoryKeyMigration() {
+    }
+
+    /**
+     * Runs the migration on Oracle and H2, the databases of the persistence
+     * profiles.
+     *
+     * @return the number of duplicate categories merged away
+     */
+    static int run(ServiceRegistry registry) {
+        Dialect dialect = registry.getService(JdbcServices.class).getDialect();
+        if (!(dialect instanceof OracleDialect) && !(dialect instanceof H2Dialect)) {
+            return 0;
+        }
+        ConnectionProvider connections = registry.getService(ConnectionProvider.class);
+        try {
+            Connection connection = connections.getConnection();
+            try {
+                return migrate(connection, dialect instanceof OracleDialect);
+            } finally {
+                connections.closeConnection(connection);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not add the unique category key", e);
+        }
+    }
+
+    static int migrate(Connection connection, boolean oracle) throws SQLException {
+        if (!tableExists(connection, "TBL_CATEGORIES")) {
+            // A new database: hbm2ddl creates the table with the column and the constraint
+            return 0;
+        }
+        Map<String, String> constraints = uniqueConstraints(connection, oracle);
+        if (constraints.containsKey(CONSTRAINT)) {
+            return 0;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            if (!columnExists(connection, "TBL_CATEGORIES", "CATEGORY_KEY")) {
+                statement.execute("ALTER TABLE TBL_CATEGORIES ADD CATEGORY_KEY VARCHAR2(100)");
+            }
+            int merged = mergeDuplicates(connection, statement);
+            for (Map.Entry<String, String> constraint : constraints.entrySet()) {
+                if (constraint.getValue().equals("CATEGORY_NAME")) {
+                    statement.execute("ALTER TABLE TBL_CATEGORIES DROP CONSTRAINT " + constraint.getKey());
+                }
+            }
+            statement.execute("ALTER TABLE TBL_CATEGORIES ADD CONSTRAINT " + CONSTRAINT + " UNIQUE (CATEGORY_KEY)");
+            return merged;
+        }
+    }
+
+    /** Fills in the keys and merges the categories that share one, in a single transaction. */
+    private static int mergeDuplicates(Connection connection, Statement statement) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            statement.executeUpdate("UPDATE TBL_CATEGORIES SET CATEGORY_KEY = LOWER(TRIM(CATEGORY_NAME))"
+                    + " WHERE CATEGORY_KEY IS NULL");
+            // Marked as modified, so the local snapshot picks up their new category
+            String touch = columnExists(connection, "TBL_EXPENSES", "MODIFIED_AT")
+                    ? ", MODIFIED_AT = CURRENT_TIMESTAMP" : "";
+            statement.executeUpdate("UPDATE TBL_EXPENSES e SET CATEGORY_ID = (SELECT MIN(k.CATEGORY_ID)"
+                    + " FROM TBL_CATEGORIES c JOIN TBL_CATEGORIES k ON k.CATEGORY_KEY = c.CATEGORY_KEY"
+                    + " WHERE c.CATEGORY_ID = e.CATEGORY_ID)" + touch
+                    + " WHERE e.CATEGORY_ID IN (" + DUPLICATES + ")");
+            int merged = statement.executeUpdate(
+                    "DELETE FROM TBL_CATEGORIES WHERE CATEGORY_ID IN (" + DUPLICATES + ")");
+            if (merged > 0 && tableExists(connection, "TBL_MONTHLY_ROLLUP")) {
+                statement.executeUpdate("DELETE FROM TBL_MONTHLY_ROLLUP");
+            }
+            connection.commit();
+            return merged;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        try (ResultSet rows = connection.getMetaData().getTables(null, connection.getSchema(), table, null)) {
+            return rows.next();
+        }
+    }
+
+    private static boolean columnExists(Connection connection, String table, String column) throws SQLException {
+        try (ResultSet rows = connection.getMetaData().getColumns(null, connection.getSchema(), table, column)) {
+            return rows.next();
+        }
+    }
+
+    /** Name and comma-separated columns of each unique constraint on TBL_CATEGORIES. */
+    private static Map<String, String> uniqueConstraints(Connection connection, boolean oracle) throws SQLException {
+        String sql = oracle
+                ? "SELECT c.CONSTRAINT_NAME, k.COLUMN_NAME FROM USER_CONSTRAINTS c"
+                        + " JOIN USER_CONS_COLUMNS k ON k.CONSTRAINT_NAME = c.CONSTRAINT_NAME"
+                        + " WHERE c.TABLE_NAME = 'TBL_CATEGORIES' AND c.CONSTRAINT_TYPE = 'U'"
+                        + " ORDER BY c.CONSTRAINT_NAME, k.POSITION"
+                : "SELECT c.CONSTRAINT_NAME, k.COLUMN_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS c"
+                        + " JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k ON k.CONSTRAINT_SCHEMA = c.CONSTRAINT_SCHEMA"
+                        + " AND k.CONSTRAINT_NAME = c.CONSTRAINT_NAME"
+                        + " WHERE c.TABLE_NAME = 'TBL_CATEGORIES' AND c.CONSTRAINT_TYPE = 'UNIQUE'"
+                        + " AND c.TABLE_SCHEMA = ? ORDER BY c.CONSTRAINT_NAME, k.ORDINAL_POSITION";
+        Map<String, String> constraints = new LinkedHashMap<>();
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            if (!oracle) {
+                query.setString(1, connection.getSchema());
+            }
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    constraints.merge(rows.getString(1), rows.getString(2), (columns, column) -> columns + "," + column);
+                }
+            }
+        }
+        return constraints;
+    }
+}
@@ -0,0 +1,75 @@
+package com.Akkshay.expensemanager.util;
+
+import org.jboss.logging.Logger;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One timed DAO call, opened around the DAO's unit of work:
+ *
+ * <pre>{@code
+ * try (DaoCall call = metrics.start("ExpenseDAO.saveExpense")) {
+ *     UnitOfWork.inTransaction(() -> ...);
+ *     call.succeeded(1);
+ * }
+ * }</pre>
+ *
+ * A call closed without {@link #succeeded} or {@link #returned} is counted as
+ * failed: when the unit of work throws its DataAccessException, the line
+ * marking success is never reached. A call made inside a larger unit of work
+ * is counted once its own part is done; if the outer unit later rolls back,
+ * only the outer call is counted as failed. Used by one thread.
+ */
+public final class DaoCall implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(DaoCall.class);
+
+    private final OperationStats stats;
+    private final DaoOperationEvent event = new DaoOperationEvent();
+    private final long startNanos;
+    private long rows;
+    private boolean succeeded;
+
+    DaoCall(OperationStats stats) {
+        this.stats = stats;
+        event.begin();
+        this.startNanos = System.nanoTime();
+    }
+
+    /** Marks the call as successful, having written or read this many rows. */
+    public void succeeded(long rowCount) {
+        rows = rowCount;
+        succeeded = true;
+    }
+
+    /** Marks the call as successful and passes its result through, counting its size as rows. */
+    public <T extends Collection<?>> T returned(T result) {
+        succeeded(result.size());
+        return result;
+    }
+
+    /** Like {@link #returned(Collection)} for results that are not a collection. */
+    public <T> T returned(T result, long rowCount) {
+        succeeded(rowCount);
+        return result;
+    }
+
+    @Override
+    public void close() {
+        long nanos = System.nanoTime() - startNanos;
+        stats.record(nanos, rows, !succeeded);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = stats.getName();
+            event.rows = rows;
+            event.failed = !succeeded;
+            event.commit();
+        }
+        if (nanos >= stats.getSlowThresholdNanos()) {
+            LOG.warnf("Slow DAO operation %s: %d ms, %d rows%s on %s", stats.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(nanos), rows, succeeded ? "" : ", failed",
+                    Thread.currentThread().getName());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.Akkshay.expensemanager.util;
+
+import org.jboss.logging.Logger;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of {@link OperationStats}, one per DAO method, filled in by the
+ * {@link DaoCall} each method opens. Every call is also a
+ * {@link DaoOperationEvent} for Flight Recorder, so a recording shows which
+ * operations ran, for how long and from where.
+ *
+ * <p>A call that takes longer than its operation's slow threshold is logged.
+ * The threshold defaults to {@value #DEFAULT_SLOW_MILLIS} ms, is set for all
+ * operations with -Dexpensemanager.dao.slowMillis=... and for one with
+ * -Dexpensemanager.dao.slowMillis.ExpenseDAO.getAllExpenses=...; it can also
+ * be changed at run time on the OperationStats.
+ */
+public class DaoMetrics {
+
+    private static final Logger LOG = Logger.getLogger(DaoMetrics.class);
+
+    public static final String SLOW_MILLIS_PROPERTY = "expensemanager.dao.slowMillis";
+    private static final long DEFAULT_SLOW_MILLIS = 500;
+
+    private static final DaoMetrics INSTANCE = new DaoMetrics();
+
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    private DaoMetrics() {
+    }
+
+    public static DaoMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /** Starts timing one call; close the result when the call is over. */
+    public DaoCall start(String operation) {
+        return new DaoCall(getOperation(operation));
+    }
+
+    /** Stats of one operation, created on first use. */
+    public OperationStats getOperation(String operation) {
+        return operations.computeIfAbsent(operation, name -> new OperationStats(name, slowThresholdNanos(name)));
+    }
+
+    /** All operations called so far, by name. */
+    public SortedMap<String, OperationStats> getOperations() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(operations));
+    }
+
+    /** One line per operation, for the log. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (OperationStats stats : getOperations().values()) {
+            sb.append("\n  ").append(stats);
+        }
+        return sb.length() > 0 ? sb.toString() : " none";
+    }
+
+    private static long slowThresholdNanos(String operation) {
+        String millis = System.getProperty(SLOW_MILLIS_PROPERTY + "." + operation,
+                System.getProperty(SLOW_MILLIS_PROPERTY));
+        long value = DEFAULT_SLOW_MILLIS;
+        if (millis != null) {
+            try {
+                value = Long.parseLong(millis.trim());
+            } catch (NumberFormatException e) {
+                LOG.warnf("Ignoring %s for %s: not a number: %s", SLOW_MILLIS_PROPERTY, operation, millis);
+            }
+        }
+        return TimeUnit.MILLISECONDS.toNanos(value);
+    }
+}
@@ -0,0 +1,28 @@
+package com.Akkshay.expensemanager.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one DAO call, emitted by {@link DaoCall}. Enabled
+ * by default in a recording; filter it with a duration threshold in the .jfc
+ * settings to keep only slow calls.
+ */
+@Name("com.Akkshay.expensemanager.DaoOperation")
+@Label("DAO Operation")
+@Category({"Expense Manager", "Database"})
+@Description("One call of an ExpenseDAO, BudgetDAO or SavingsDAO method")
+class DaoOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,89 @@
+package com.Akkshay.expensemanager.util;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs database work off the JavaFX application thread.
+ *
+ * <p>{@link #submit} executes the work on a dedicated executor and completes
+ * the returned future on the FX thread, so callbacks attached by a controller
+ * (thenAccept, exceptionally, ...) may touch the UI directly.
+ *
+ * <p>Uses a virtual thread per task when the runtime offers them (Java 21+);
+ * on older runtimes it falls back to a small pool of daemon threads.
+ */
+public class DbExecutor {
+
+    // Enough to keep the connection pool busy without queueing up behind one slow query
+    private static final int PLATFORM_THREADS = 4;
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private DbExecutor() {
+    }
+
+    /** Runs the work in the background; the future completes on the FX thread. */
+    public static <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            try {
+                T value = work.get();
+                Platform.runLater(() -> result.complete(value));
+            } catch (Throwable t) {
+                Platform.runLater(() -> result.completeExceptionally(t));
+            }
+        });
+        return result;
+    }
+
+    /** Like {@link #submit(Supplier)} for work that returns nothing. */
+    public static CompletableFuture<Void> submit(Runnable work) {
+        return submit(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** Completes on the FX thread once the work, running elsewhere, does; for work not started by {@link #submit}. */
+    public static <T> CompletableFuture<T> onFxThread(CompletableFuture<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        work.whenComplete((value, t) -> Platform.runLater(() -> {
+            if (t != null) {
+                result.completeExceptionally(t);
+            } else {
+                result.complete(value);
+            }
+        }));
+        return result;
+    }
+
+    public static void shutdown() {
+        EXECUTOR.shutdown();
+        try {
+            EXECUTOR.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            // Looked up reflectively so the code still compiles for Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(PLATFORM_THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "db-worker-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
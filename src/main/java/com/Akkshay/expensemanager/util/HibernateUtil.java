@@ -1,29 +1,191 @@
 package com.Akkshay.expensemanager.util;
 
 import org.hibernate.SessionFactory;
-import org.hibernate.cfg.Configuration;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 public class HibernateUtil {
-    private static final SessionFactory sessionFactory = buildSessionFactory();
+    private static final Logger LOG = Logger.getLogger(HibernateUtil.class);
+
+    /** Rows flushed per JDBC batch by the bulk DAO methods; matches hibernate.jdbc.batch_size. */
+    public static final int BATCH_SIZE = 50;
+
+    private static final PersistenceProfile profile = PersistenceProfile.selected();
+    private static final CompletableFuture<SessionFactory> sessionFactory = new CompletableFuture<>();
+    private static final AtomicBoolean building = new AtomicBoolean();
+    private static volatile long buildMillis;
+
+    /**
+     * Starts building the SessionFactory on a background thread, unless that
+     * already happened. Called as early as possible on startup so the build
+     * overlaps with JavaFX starting up and the first views loading; otherwise
+     * the first {@link #getSessionFactory()} starts it.
+     */
+    public static void startBuilding() {
+        if (!building.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                sessionFactory.complete(StartupTimer.time("SessionFactory", HibernateUtil::buildSessionFactory));
+            } catch (Throwable ex) {
+                sessionFactory.completeExceptionally(ex);
+            }
+        }, "session-factory");
+        thread.setDaemon(true);
+        thread.start();
+    }
 
     private static SessionFactory buildSessionFactory() {
+        long start = System.nanoTime();
+        StandardServiceRegistry registry = null;
         try {
-            // Create the SessionFactory from hibernate.cfg.xml
-            return new Configuration().configure().buildSessionFactory();
+            // hibernate.cfg.xml holds the shared settings, the profile the connection
+            Properties settings = profile.loadSettings();
+            registry = new StandardServiceRegistryBuilder()
+                    .configure()
+                    .applySettings(settings)
+                    .build();
+            // Before hbm2ddl creates the sequences at 1 next to the old identity columns
+            List<String> migrated = IdentityToSequenceMigration.run(registry);
+            if (!migrated.isEmpty()) {
+                LOG.infof("Moved the identity ids of %s to sequences", migrated);
+            }
+            // Before hbm2ddl tries to add UK_CATEGORY_KEY over names that differ only in case
+            int merged = CategoryKeyMigration.run(registry);
+            if (merged > 0) {
+                LOG.infof("Merged %d categories whose names differed only in case", merged);
+            }
+
+            Metadata metadata = new MetadataSources(registry).buildMetadata();
+            if (!SchemaCheck.buildChangesSchema(settings)) {
+                // Nothing else adds an @Index declared after the database was created
+                List<String> indexed = IndexMigration.run(metadata, registry);
+                if (!indexed.isEmpty()) {
+                    LOG.infof("Created the missing indexes %s", indexed);
+                }
+            }
+            // Unless hbm2ddl.auto has the build change the tables, the schema is checked meanwhile;
+            // the factory is only handed out once both are done
+            StandardServiceRegistry services = registry;
+            Supplier<String> check = () -> StartupTimer.time("Schema check",
+                    () -> SchemaCheck.run(metadata, services, settings));
+            boolean checkAfterBuild = SchemaCheck.buildChangesSchema(settings);
+            CompletableFuture<String> schema = checkAfterBuild ? null : CompletableFuture.supplyAsync(
+                    check, runnable -> new Thread(runnable, "schema-check").start());
+            SessionFactory factory = metadata.buildSessionFactory();
+            if (checkAfterBuild) {
+                schema = CompletableFuture.supplyAsync(check, Runnable::run);
+            }
+            String schemaResult;
+            try {
+                schemaResult = schema.join();
+            } catch (CompletionException e) {
+                factory.close();
+                throw e.getCause();
+            }
+
+            buildMillis = (System.nanoTime() - start) / 1_000_000;
+            LOG.infof("SessionFactory built in %d ms (profile %s, schema %s)",
+                    buildMillis, profile.name().toLowerCase(Locale.ROOT), schemaResult);
+            return factory;
         } catch (Throwable ex) {
+            if (registry != null) {
+                StandardServiceRegistryBuilder.destroy(registry);
+            }
             // Make sure you log the exception, as it might be swallowed
             System.err.println("Initial SessionFactory creation failed." + ex);
-            throw new ExceptionInInitializerError(ex);
+            throw new IllegalStateException("Could not build the SessionFactory", ex);
         }
     }
 
+    public static PersistenceProfile getProfile() {
+        return profile;
+    }
+
+    /** Wall-clock time it took to build the SessionFactory, schema check included. */
+    public static long getBuildMillis() {
+        return buildMillis;
+    }
+
+    /** The SessionFactory, waiting for it to be built if needed. */
     public static SessionFactory getSessionFactory() {
-        return sessionFactory;
+        startBuilding();
+        try {
+            return sessionFactory.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /** Completes once the SessionFactory is built, on the thread that built it. */
+    public static CompletableFuture<SessionFactory> whenReady() {
+        startBuilding();
+        return sessionFactory.copy();
+    }
+
+    /**
+     * Metrics of the connection pool, or null when hibernate.cfg.xml is not
+     * using {@link PooledConnectionProvider}.
+     */
+    public static PoolMetrics getPoolMetrics() {
+        ConnectionProvider provider = getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        if (provider != null && provider.isUnwrappableAs(PooledConnectionProvider.class)) {
+            return provider.unwrap(PooledConnectionProvider.class).getMetrics();
+        }
+        return null;
+    }
+
+    /**
+     * Hit/miss counts of the second-level and query cache, or null when
+     * hibernate.generate_statistics is off.
+     */
+    public static CacheMetrics getCacheMetrics() {
+        Statistics statistics = getSessionFactory().getStatistics();
+        return statistics.isStatisticsEnabled() ? CacheMetrics.from(statistics) : null;
     }
 
     public static void shutdown() {
+        if (!building.get()) {
+            // Never built: nothing to close
+            return;
+        }
+        SessionFactory factory;
+        try {
+            // Waits if the window was closed while it was still being built
+            factory = getSessionFactory();
+        } catch (RuntimeException e) {
+            return;
+        }
+        if (LOG.isDebugEnabled()) {
+            PoolMetrics metrics = getPoolMetrics();
+            if (metrics != null) {
+                LOG.debugf("Connection pool at shutdown: %s", metrics);
+            }
+            CacheMetrics cacheMetrics = getCacheMetrics();
+            if (cacheMetrics != null) {
+                LOG.debugf("Second-level cache at shutdown: %s", cacheMetrics);
+            }
+            LOG.debugf("DAO operations at shutdown:%s", DaoMetrics.getInstance());
+        }
         // Close caches and connection pools
-        getSessionFactory().close();
+        factory.close();
     }
 }
 
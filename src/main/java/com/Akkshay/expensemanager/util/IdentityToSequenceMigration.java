@@ -0,0 +1,121 @@
+package com.Akkshay.expensemanager.util;
+
+import org.hibernate.dialect.OracleDialect;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.service.ServiceRegistry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves Oracle databases created before the entities switched to pooled
+ * sequence ids off their IDENTITY columns.
+ *
+ * <p>Those columns are GENERATED ALWAYS AS IDENTITY, so every insert with a
+ * Hibernate-assigned id fails with ORA-32795, and a sequence created by
+ * hbm2ddl would start at 1 and hand out ids that are already taken. For each
+ * table whose id column is still an identity column this
+ * <ol>
+ *     <li>(re)creates its sequence above the highest id in use, and</li>
+ *     <li>drops the identity from the column.</li>
+ * </ol>
+ * The identity column is dropped last, so a run that is interrupted (DDL
+ * commits statement by statement on Oracle) is simply repeated on the next
+ * start: nothing can have been inserted in between.
+ *
+ * <p>HibernateUtil runs it on the service registry before the SessionFactory
+ * is built, whatever hibernate.hbm2ddl.auto says: before hbm2ddl could create
+ * the sequences at 1, and before SchemaCheck validates the result.
+ */
+final class IdentityToSequenceMigration {
+
+    /** Must match allocationSize of the entities' @SequenceGenerator. */
+    static final int ALLOCATION_SIZE = 50;
+
+    // Table, id column and sequence of each entity that used to have an IDENTITY id
+    private static final String[][] ID_COLUMNS = {
+            {"TBL_EXPENSES", "EXPENSE_ID", "SEQ_EXPENSES"},
+            {"TBL_BUDGET", "BUDGET_ID", "SEQ_BUDGET"},
+            {"TBL_SAVINGS", "SAVINGS_ID", "SEQ_SAVINGS"},
+            {"TBL_CATEGORIES", "CATEGORY_ID", "SEQ_CATEGORIES"},
+    };
+
+    private IdentityToSequenceMigration() {
+    }
+
+    /**
+     * Runs the migration on Oracle; other databases never had identity ids.
+     *
+     * @return the tables that were migrated, empty if there was nothing to do
+     */
+    static List<String> run(ServiceRegistry registry) {
+        if (!(registry.getService(JdbcServices.class).getDialect() instanceof OracleDialect)) {
+            return List.of();
+        }
+        ConnectionProvider connections = registry.getService(ConnectionProvider.class);
+        try {
+            Connection connection = connections.getConnection();
+            try {
+                List<String> migrated = new ArrayList<>();
+                for (String[] idColumn : ID_COLUMNS) {
+                    if (isIdentity(connection, idColumn[0], idColumn[1])) {
+                        migrate(connection, idColumn[0], idColumn[1], idColumn[2]);
+                        migrated.add(idColumn[0]);
+                    }
+                }
+                return migrated;
+            } finally {
+                connections.closeConnection(connection);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not move the IDENTITY id columns to sequences", e);
+        }
+    }
+
+    private static boolean isIdentity(Connection connection, String table, String column) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT 1 FROM USER_TAB_IDENTITY_COLS WHERE TABLE_NAME = ? AND COLUMN_NAME = ?")) {
+            query.setString(1, table);
+            query.setString(2, column);
+            try (ResultSet rows = query.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+
+    private static void migrate(Connection connection, String table, String column, String sequence)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            long maxId;
+            try (ResultSet rows = statement.executeQuery("SELECT MAX(" + column + ") FROM " + table)) {
+                rows.next();
+                maxId = rows.getLong(1);
+            }
+            if (sequenceExists(connection, sequence)) {
+                statement.execute("DROP SEQUENCE " + sequence);
+            }
+            // The pooled optimizer treats the first value it fetches as the top of its first
+            // block of ALLOCATION_SIZE ids, unless it is the initial value 1
+            long startWith = maxId > 0 ? maxId + ALLOCATION_SIZE : 1;
+            statement.execute("CREATE SEQUENCE " + sequence + " START WITH " + startWith
+                    + " INCREMENT BY " + ALLOCATION_SIZE);
+            statement.execute("ALTER TABLE " + table + " MODIFY " + column + " DROP IDENTITY");
+        }
+    }
+
+    private static boolean sequenceExists(Connection connection, String sequence) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT 1 FROM USER_SEQUENCES WHERE SEQUENCE_NAME = ?")) {
+            query.setString(1, sequence);
+            try (ResultSet rows = query.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.Akkshay.expensemanager.util;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.ServiceRegistry;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Creates the indexes declared with {@code @Index} on the entities that an
+ * existing database does not have yet.
+ *
+ * <p>Only hbm2ddl creates indexes, and the Oracle profile runs with
+ * hibernate.hbm2ddl.auto=none; the schema check validates, which ignores
+ * indexes. Without this an index added to an entity would only exist on
+ * databases created after it. HibernateUtil runs it before the SessionFactory
+ * is built whenever the build itself leaves the schema alone.
+ *
+ * <p>An index is skipped when its table or one of its columns does not exist
+ * (the schema check reports those), and when the table already has an index,
+ * under any name, on the same columns: Oracle refuses a second one. An index
+ * that cannot be created, e.g. for lack of privileges, is logged with its DDL
+ * so it can be run by hand, and does not stop the startup; queries still
+ * work without it, only slower.
+ */
+final class IndexMigration {
+
+    private static final Logger LOG = Logger.getLogger(IndexMigration.class);
+
+    /** An index as the entities declare it; names as the database stores unquoted ones. */
+    record DeclaredIndex(String table, String name, List<String> columns) {
+
+        String createStatement() {
+            return "CREATE INDEX " + name + " ON " + table + " (" + String.join(", ", columns) + ")";
+        }
+    }
+
+    private IndexMigration() {
+    }
+
+    /**
+     * Creates the missing indexes of the mapped tables.
+     *
+     * @return the names of the indexes created
+     */
+    static List<String> run(Metadata metadata, ServiceRegistry registry) {
+        List<DeclaredIndex> declared = declaredIndexes(metadata);
+        if (declared.isEmpty()) {
+            return List.of();
+        }
+        ConnectionProvider connections = registry.getService(ConnectionProvider.class);
+        try {
+            Connection connection = connections.getConnection();
+            try {
+                return createMissing(connection, declared);
+            } finally {
+                connections.closeConnection(connection);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the indexes of the database", e);
+        }
+    }
+
+    static List<DeclaredIndex> declaredIndexes(Metadata metadata) {
+        List<DeclaredIndex> declared = new ArrayList<>();
+        for (Namespace namespace : metadata.getDatabase().getNamespaces()) {
+            for (Table table : namespace.getTables()) {
+                for (Index index : new TreeMap<>(table.getIndexes()).values()) {
+                    List<String> columns = index.getColumns().stream()
+                            .map(column -> upper(column.getName()))
+                            .toList();
+                    declared.add(new DeclaredIndex(upper(table.getName()), upper(index.getName()), columns));
+                }
+            }
+        }
+        return declared;
+    }
+
+    static List<String> createMissing(Connection connection, List<DeclaredIndex> declared) throws SQLException {
+        List<String> created = new ArrayList<>();
+        Map<String, Map<String, List<String>>> existingByTable = new HashMap<>();
+        try (Statement statement = connection.createStatement()) {
+            for (DeclaredIndex index : declared) {
+                if (!existingByTable.containsKey(index.table())) {
+                    existingByTable.put(index.table(), existingIndexes(connection, index.table()));
+                }
+                Map<String, List<String>> existing = existingByTable.get(index.table());
+                if (existing == null || existing.containsKey(index.name()) || existing.containsValue(index.columns())
+                        || !columnsExist(connection, index)) {
+                    continue;
+                }
+                try {
+                    long start = System.nanoTime();
+                    statement.execute(index.createStatement());
+                    LOG.debugf("Created %s in %d ms", index.name(), (System.nanoTime() - start) / 1_000_000);
+                    existing.put(index.name(), index.columns());
+                    created.add(index.name());
+                } catch (SQLException e) {
+                    LOG.warnf(e, "Could not create index %s; queries on %s stay slower until it exists: %s",
+                            index.name(), index.table(), index.createStatement());
+                }
+            }
+        }
+        return created;
+    }
+
+    /** Name and columns, in order, of each index on the table; null if there is no such table. */
+    private static Map<String, List<String>> existingIndexes(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rows = metaData.getTables(null, connection.getSchema(), table, null)) {
+            if (!rows.next()) {
+                // A new table: hbm2ddl creates it with its indexes
+                return null;
+            }
+        }
+        Map<String, TreeMap<Short, String>> columnsByPosition = new HashMap<>();
+        // approximate: Oracle's driver would otherwise ANALYZE the table for the statistics row
+        try (ResultSet rows = metaData.getIndexInfo(null, connection.getSchema(), table, false, true)) {
+            while (rows.next()) {
+                String name = rows.getString("INDEX_NAME");
+                String column = rows.getString("COLUMN_NAME");
+                if (name != null && column != null) {
+                    columnsByPosition.computeIfAbsent(upper(name), key -> new TreeMap<>())
+                            .put(rows.getShort("ORDINAL_POSITION"), upper(column));
+                }
+            }
+        }
+        Map<String, List<String>> indexes = new HashMap<>();
+        columnsByPosition.forEach((name, columns) -> indexes.put(name, new ArrayList<>(columns.values())));
+        return indexes;
+    }
+
+    private static boolean columnsExist(Connection connection, DeclaredIndex index) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (ResultSet rows = connection.getMetaData().getColumns(null, connection.getSchema(), index.table(), null)) {
+            while (rows.next()) {
+                columns.add(upper(rows.getString("COLUMN_NAME")));
+            }
+        }
+        return columns.containsAll(index.columns());
+    }
+
+    private static String upper(String name) {
+        return name.toUpperCase(Locale.ROOT);
+    }
+}
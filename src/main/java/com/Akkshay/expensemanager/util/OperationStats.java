@@ -0,0 +1,76 @@
+package com.Akkshay.expensemanager.util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of one DAO operation: calls, failed calls, rows read or
+ * written and a latency histogram. Kept by {@link DaoMetrics}; the values
+ * keep updating after they are read.
+ */
+public class OperationStats {
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private volatile long slowThresholdNanos;
+
+    OperationStats(String name, long slowThresholdNanos) {
+        this.name = name;
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    void record(long nanos, long rowCount, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        rows.add(rowCount);
+        latency.recordNanos(nanos);
+    }
+
+    /** Class and method, e.g. "ExpenseDAO.getExpensePage". */
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /** Calls that ended in an exception, swallowed or not. */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /** Rows returned by reads plus rows written by writes. */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /** Calls taking at least this long are logged. */
+    public Duration getSlowThreshold() {
+        return Duration.ofNanos(slowThresholdNanos);
+    }
+
+    public void setSlowThreshold(Duration threshold) {
+        slowThresholdNanos = threshold.toNanos();
+    }
+
+    long getSlowThresholdNanos() {
+        return slowThresholdNanos;
+    }
+
+    @Override
+    public String toString() {
+        return name + " calls=" + getCalls() + " errors=" + getErrors() + " rows=" + getRows()
+                + " slow>=" + TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos) + "ms [" + latency + "]";
+    }
+}
@@ -0,0 +1,87 @@
+package com.Akkshay.expensemanager.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Where the data lives. Each profile is a properties file under /profiles that
+ * is applied on top of hibernate.cfg.xml; select one with
+ * -Dexpensemanager.profile=oracle|embedded.
+ */
+public enum PersistenceProfile {
+
+    /** Shared Oracle database; the schema is validated once and the result cached. */
+    ORACLE,
+
+    /** H2 database file in the data directory, for single-user installs and benchmarks. */
+    EMBEDDED;
+
+    public static final String PROFILE_PROPERTY = "expensemanager.profile";
+    /** Directory holding the embedded database and the schema marker files. */
+    public static final String DATA_DIR_PROPERTY = "expensemanager.dataDir";
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+
+    /** The profile named by -Dexpensemanager.profile, ORACLE if none is given. */
+    public static PersistenceProfile selected() {
+        String name = System.getProperty(PROFILE_PROPERTY, ORACLE.name());
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown persistence profile '" + name + "', expected oracle or embedded");
+        }
+    }
+
+    public static Path dataDirectory() {
+        String dir = System.getProperty(DATA_DIR_PROPERTY);
+        return dir != null ? Path.of(dir) : Path.of(System.getProperty("user.home"), ".expensemanager");
+    }
+
+    /**
+     * Settings of this profile with ${...} placeholders resolved from system
+     * properties. hibernate.* system properties win over the file, so e.g.
+     * -Dhibernate.show_sql=true turns statement logging on for one run.
+     */
+    public Properties loadSettings() {
+        String resource = "/profiles/" + name().toLowerCase(Locale.ROOT) + ".properties";
+        Properties raw = new Properties();
+        try (InputStream in = PersistenceProfile.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing profile settings " + resource);
+            }
+            raw.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + resource, e);
+        }
+
+        Properties settings = new Properties();
+        for (String key : raw.stringPropertyNames()) {
+            settings.setProperty(key, resolve(raw.getProperty(key)));
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("hibernate.")) {
+                settings.setProperty(key, System.getProperty(key));
+            }
+        }
+        return settings;
+    }
+
+    private static String resolve(String value) {
+        Matcher matcher = PLACEHOLDER.matcher(value);
+        StringBuilder sb = new StringBuilder();
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            String replacement = DATA_DIR_PROPERTY.equals(name)
+                    ? dataDirectory().toString()
+                    : System.getProperty(name, "");
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.Akkshay.expensemanager.util;
+
+/**
+ * Point-in-time counts of the connection pool, plus its acquire-latency
+ * histogram. A steadily non-zero waiting count or growing timeout count means
+ * the pool is too small for the load.
+ */
+public class PoolMetrics {
+
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final int total;
+    private final long acquireTimeouts;
+    private final LatencyHistogram acquireLatency;
+
+    public PoolMetrics(int active, int idle, int waiting, int total, long acquireTimeouts,
+                       LatencyHistogram acquireLatency) {
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.total = total;
+        this.acquireTimeouts = acquireTimeouts;
+        this.acquireLatency = acquireLatency;
+    }
+
+    /** Connections currently borrowed by a session. */
+    public int getActive() {
+        return active;
+    }
+
+    /** Open connections sitting in the pool. */
+    public int getIdle() {
+        return idle;
+    }
+
+    /** Threads blocked waiting for a connection. */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /** Number of acquires that gave up after the acquire timeout. */
+    public long getAcquireTimeouts() {
+        return acquireTimeouts;
+    }
+
+    /** Time spent waiting for a connection; this histogram keeps updating. */
+    public LatencyHistogram getAcquireLatency() {
+        return acquireLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "active=" + active + " idle=" + idle + " waiting=" + waiting + " total=" + total
+                + " timeouts=" + acquireTimeouts + " acquire[" + acquireLatency + "]";
+    }
+}
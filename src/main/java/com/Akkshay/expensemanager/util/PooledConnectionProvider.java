@@ -0,0 +1,163 @@
+package com.Akkshay.expensemanager.util;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hibernate ConnectionProvider backed by a HikariCP pool.
+ * Replaces Hibernate's built-in (non-production) connection handling and
+ * records pool metrics, see {@link #getMetrics()}.
+ *
+ * <p>Reads the connection from the jakarta.persistence.jdbc.* settings, or the
+ * hibernate.connection.* ones the profiles use, plus these optional settings:
+ * <ul>
+ *     <li>expensemanager.pool.minIdle - connections kept open when idle (default 2)</li>
+ *     <li>expensemanager.pool.maxSize - upper bound on open connections (default 10)</li>
+ *     <li>expensemanager.pool.idleTimeoutMs - idle connections above minIdle are evicted after this (default 10 min)</li>
+ *     <li>expensemanager.pool.maxLifetimeMs - connections are retired after this (default 30 min)</li>
+ *     <li>expensemanager.pool.acquireTimeoutMs - how long a caller waits for a connection (default 30 s)</li>
+ *     <li>expensemanager.pool.validationTimeoutMs - time allowed for a connection check (default 5 s)</li>
+ *     <li>expensemanager.pool.validationQuery - query used to check connections; JDBC isValid() if unset</li>
+ * </ul>
+ */
+public class PooledConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+
+    public static final String MIN_IDLE = "expensemanager.pool.minIdle";
+    public static final String MAX_SIZE = "expensemanager.pool.maxSize";
+    public static final String IDLE_TIMEOUT_MS = "expensemanager.pool.idleTimeoutMs";
+    public static final String MAX_LIFETIME_MS = "expensemanager.pool.maxLifetimeMs";
+    public static final String ACQUIRE_TIMEOUT_MS = "expensemanager.pool.acquireTimeoutMs";
+    public static final String VALIDATION_TIMEOUT_MS = "expensemanager.pool.validationTimeoutMs";
+    public static final String VALIDATION_QUERY = "expensemanager.pool.validationQuery";
+
+    // Keys the profiles use; Hibernate deprecated its constants for them in favour of jakarta.persistence.jdbc.*
+    private static final String LEGACY_DRIVER = "hibernate.connection.driver_class";
+    private static final String LEGACY_URL = "hibernate.connection.url";
+    private static final String LEGACY_USER = "hibernate.connection.username";
+    private static final String LEGACY_PASSWORD = "hibernate.connection.password";
+
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final LongAdder acquireTimeouts = new LongAdder();
+    private HikariDataSource dataSource;
+
+    @Override
+    public void configure(Map<String, Object> settings) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("expense-manager");
+
+        String driver = stringSetting(settings, AvailableSettings.JAKARTA_JDBC_DRIVER, LEGACY_DRIVER);
+        if (driver != null) {
+            config.setDriverClassName(driver);
+        }
+        config.setJdbcUrl(stringSetting(settings, AvailableSettings.JAKARTA_JDBC_URL, LEGACY_URL));
+        config.setUsername(stringSetting(settings, AvailableSettings.JAKARTA_JDBC_USER, LEGACY_USER));
+        config.setPassword(stringSetting(settings, AvailableSettings.JAKARTA_JDBC_PASSWORD, LEGACY_PASSWORD));
+        // Hibernate manages transactions itself
+        config.setAutoCommit(false);
+
+        config.setMinimumIdle(intSetting(settings, MIN_IDLE, 2));
+        config.setMaximumPoolSize(intSetting(settings, MAX_SIZE, 10));
+        config.setIdleTimeout(longSetting(settings, IDLE_TIMEOUT_MS, 600_000L));
+        config.setMaxLifetime(longSetting(settings, MAX_LIFETIME_MS, 1_800_000L));
+        config.setConnectionTimeout(longSetting(settings, ACQUIRE_TIMEOUT_MS, 30_000L));
+        config.setValidationTimeout(longSetting(settings, VALIDATION_TIMEOUT_MS, 5_000L));
+        String validationQuery = stringSetting(settings, VALIDATION_QUERY);
+        if (validationQuery != null) {
+            config.setConnectionTestQuery(validationQuery);
+        }
+
+        config.setMetricsTrackerFactory((poolName, poolStats) -> new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireLatency.recordNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                acquireTimeouts.increment();
+            }
+        });
+
+        dataSource = new HikariDataSource(config);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isAssignableFrom(PooledConnectionProvider.class)
+                || unwrapType.isAssignableFrom(HikariDataSource.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isAssignableFrom(PooledConnectionProvider.class)) {
+            return (T) this;
+        }
+        if (unwrapType.isAssignableFrom(HikariDataSource.class)) {
+            return (T) dataSource;
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    @Override
+    public void stop() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    /** Live view of the pool: connection counts and acquire latency. */
+    public PoolMetrics getMetrics() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new PoolMetrics(pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getThreadsAwaitingConnection(), pool.getTotalConnections(),
+                acquireTimeouts.sum(), acquireLatency);
+    }
+
+    private static String stringSetting(Map<String, Object> settings, String... keys) {
+        for (String key : keys) {
+            Object value = settings.get(key);
+            if (value != null && !value.toString().isBlank()) {
+                return value.toString().trim();
+            }
+        }
+        return null;
+    }
+
+    private static int intSetting(Map<String, Object> settings, String key, int defaultValue) {
+        String value = stringSetting(settings, key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static long longSetting(Map<String, Object> settings, String key, long defaultValue) {
+        String value = stringSetting(settings, key);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+}
@@ -0,0 +1,20 @@
+package com.Akkshay.expensemanager.util;
+
+import com.Akkshay.expensemanager.dao.MonthlyRollupDAO;
+
+/**
+ * Command-line entry point that recomputes TBL_MONTHLY_ROLLUP from scratch.
+ * Run it after editing TBL_EXPENSES, TBL_BUDGET or TBL_SAVINGS outside the app.
+ */
+public class RebuildRollup {
+
+    public static void main(String[] args) {
+        try {
+            long start = System.currentTimeMillis();
+            new MonthlyRollupDAO().rebuild();
+            System.out.println("Monthly rollup rebuilt in " + (System.currentTimeMillis() - start) + " ms");
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
+}
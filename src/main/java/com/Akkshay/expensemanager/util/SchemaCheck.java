@@ -0,0 +1,140 @@
+package com.Akkshay.expensemanager.util;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.schema.Action;
+import org.hibernate.tool.schema.spi.DelayedDropRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementException;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Validates the database schema once per mapping version instead of on every
+ * startup.
+ *
+ * <p>A SHA-256 fingerprint of the mapped tables, columns, indexes and
+ * sequences, plus the connection URL and user, is kept in a marker file after
+ * a successful check. While the fingerprint matches, startup does not read any
+ * database metadata. On a mismatch (first start, new entity fields, another
+ * database) the schema is validated and the marker rewritten; a schema that
+ * does not match fails the startup. The check never changes tables itself:
+ * that is left to an explicit hibernate.hbm2ddl.auto, e.g. a one-off start
+ * with -Dhibernate.hbm2ddl.auto=update after an upgrade.
+ */
+final class SchemaCheck {
+
+    private static final Logger LOG = Logger.getLogger(SchemaCheck.class);
+
+    /** "cached" enables the check; anything else leaves the schema to hbm2ddl.auto. */
+    static final String MODE_PROPERTY = "expensemanager.schema.check";
+    static final String MARKER_FILE_PROPERTY = "expensemanager.schema.markerFile";
+
+    // Only create-drop registers a drop action, and validate is not that
+    private static final DelayedDropRegistry NO_DELAYED_DROP = action -> { };
+
+    private SchemaCheck() {
+    }
+
+    /** Runs the check if the profile asks for it and describes what happened, for the startup log. */
+    static String run(Metadata metadata, ServiceRegistry registry, Properties settings) {
+        if (!"cached".equals(settings.getProperty(MODE_PROPERTY))) {
+            return "hbm2ddl.auto=" + settings.getProperty("hibernate.hbm2ddl.auto", "none");
+        }
+        Path marker = Path.of(settings.getProperty(MARKER_FILE_PROPERTY));
+        String fingerprint = fingerprint(metadata, settings);
+        if (fingerprint.equals(readMarker(marker))) {
+            return "unchanged, validation skipped";
+        }
+
+        Map<String, Object> values = new HashMap<>(registry.getService(ConfigurationService.class).getSettings());
+        values.put(AvailableSettings.HBM2DDL_AUTO, Action.VALIDATE.getExternalHbm2ddlName());
+        try {
+            SchemaManagementToolCoordinator.process(metadata, registry, values, NO_DELAYED_DROP);
+        } catch (SchemaManagementException e) {
+            throw new SchemaManagementException("The database schema does not match the entities: " + e.getMessage()
+                    + ". Start once with -Dhibernate.hbm2ddl.auto=update to bring it up to date.", e);
+        }
+
+        try {
+            Files.createDirectories(marker.getParent());
+            Files.writeString(marker, fingerprint, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // Not fatal: the schema is fine, it will just be validated again next time
+            LOG.warnf(e, "Could not write schema marker %s", marker);
+        }
+        return "validated";
+    }
+
+    /**
+     * Whether building the SessionFactory changes the schema itself, because
+     * hbm2ddl.auto asks for it; the check then has to wait for the build.
+     */
+    static boolean buildChangesSchema(Properties settings) {
+        Action action = Action.interpretHbm2ddlSetting(settings.getProperty(AvailableSettings.HBM2DDL_AUTO));
+        return action != Action.NONE && action != Action.VALIDATE;
+    }
+
+    static String fingerprint(Metadata metadata, Properties settings) {
+        List<String> lines = new ArrayList<>();
+        lines.add("url=" + settings.getProperty("hibernate.connection.url"));
+        lines.add("user=" + settings.getProperty("hibernate.connection.username"));
+        for (Namespace namespace : metadata.getDatabase().getNamespaces()) {
+            List<Table> tables = new ArrayList<>(namespace.getTables());
+            tables.sort(Comparator.comparing(table -> table.getQualifiedTableName().render()));
+            for (Table table : tables) {
+                lines.add("table " + table.getQualifiedTableName().render());
+                List<Column> columns = new ArrayList<>(table.getColumns());
+                columns.sort(Comparator.comparing(Column::getName));
+                for (Column column : columns) {
+                    lines.add("  column " + column.getName() + " " + column.getSqlType(metadata)
+                            + (column.isNullable() ? " null" : " not null")
+                            + (column.isUnique() ? " unique" : ""));
+                }
+                new TreeSet<>(table.getIndexes().keySet()).forEach(name -> lines.add("  index " + name));
+                new TreeSet<>(table.getUniqueKeys().keySet()).forEach(name -> lines.add("  unique " + name));
+            }
+            List<Sequence> sequences = new ArrayList<>();
+            namespace.getSequences().forEach(sequences::add);
+            sequences.sort(Comparator.comparing(sequence -> sequence.getName().render()));
+            for (Sequence sequence : sequences) {
+                lines.add("sequence " + sequence.getName().render() + " " + sequence.getIncrementSize());
+            }
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String readMarker(Path marker) {
+        try {
+            return Files.exists(marker) ? Files.readString(marker, StandardCharsets.UTF_8).trim() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.Akkshay.expensemanager.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Startup phases and milestones, measured from the start of the process so
+ * JVM and JavaFX startup are included. Phases may run on any thread and
+ * overlap; {@link #report()} lists them in the order they started.
+ */
+public final class StartupTimer {
+
+    private static final long ORIGIN_NANOS = originNanos();
+    private static final List<Entry> ENTRIES = new ArrayList<>();
+
+    private StartupTimer() {
+    }
+
+    /** Records that a point in startup was reached, e.g. the first frame, and returns its offset in ms. */
+    public static long mark(String milestone) {
+        long at = elapsedMillis();
+        add(new Entry(milestone, at, -1, Thread.currentThread().getName()));
+        return at;
+    }
+
+    /** Runs one phase of startup on the calling thread and records when it started and how long it took. */
+    public static <T> T time(String phase, Supplier<T> work) {
+        long start = elapsedMillis();
+        try {
+            return work.get();
+        } finally {
+            add(new Entry(phase, start, elapsedMillis() - start, Thread.currentThread().getName()));
+        }
+    }
+
+    /** Like {@link #time(String, Supplier)} for work that returns nothing. */
+    public static void time(String phase, Runnable work) {
+        time(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** One line per phase and milestone recorded so far, ordered by start. */
+    public static String report() {
+        List<Entry> entries;
+        synchronized (ENTRIES) {
+            entries = new ArrayList<>(ENTRIES);
+        }
+        entries.sort((a, b) -> Long.compare(a.startMillis, b.startMillis));
+        StringBuilder sb = new StringBuilder();
+        for (Entry entry : entries) {
+            sb.append(System.lineSeparator()).append(String.format("  %6d ms  ", entry.startMillis));
+            if (entry.durationMillis >= 0) {
+                sb.append(String.format("%-28s %6d ms", entry.name, entry.durationMillis));
+            } else {
+                sb.append(String.format("%-28s %9s", entry.name, "-"));
+            }
+            sb.append("  [").append(entry.thread).append(']');
+        }
+        return sb.toString();
+    }
+
+    private static void add(Entry entry) {
+        synchronized (ENTRIES) {
+            ENTRIES.add(entry);
+        }
+    }
+
+    private static long elapsedMillis() {
+        return (System.nanoTime() - ORIGIN_NANOS) / 1_000_000;
+    }
+
+    /** nanoTime value of the moment the process started, or of class loading if the OS does not say. */
+    private static long originNanos() {
+        long now = System.nanoTime();
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> now - Duration.between(start, Instant.now()).toNanos())
+                .orElse(now);
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final long startMillis;
+        // -1 for a milestone
+        private final long durationMillis;
+        private final String thread;
+
+        private Entry(String name, long startMillis, long durationMillis, String thread) {
+            this.name = name;
+            this.startMillis = startMillis;
+            this.durationMillis = durationMillis;
+            this.thread = thread;
+        }
+    }
+}
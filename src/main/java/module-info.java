@@ -15,6 +15,15 @@ module com.Akkshay.expensemanager {
     // Hibernate requires the JNDI API, which is in the java.naming module.
     requires java.naming;
 
+    // HikariCP connection pool behind PooledConnectionProvider
+    requires com.zaxxer.hikari;
+
+    // Hibernate's logging facade, for the app's own diagnostics
+    requires org.jboss.logging;
+
+    // Flight Recorder events for DAO calls
+    requires jdk.jfr;
+
     // The JavaFX graphics module needs access to the main package to launch the application.
     exports com.Akkshay.expensemanager to javafx.graphics;
 
@@ -22,6 +31,9 @@ module com.Akkshay.expensemanager {
     // Open the model package to both JavaFX (for the table) and Hibernate (for data access).
     opens com.Akkshay.expensemanager.model to javafx.base, org.hibernate.orm.core;
 
+    // Hibernate instantiates PooledConnectionProvider by name from hibernate.cfg.xml.
+    exports com.Akkshay.expensemanager.util to org.hibernate.orm.core;
+
     // Open the controller package to the FXML loader.
     opens com.Akkshay.expensemanager.controller to javafx.fxml;
 }
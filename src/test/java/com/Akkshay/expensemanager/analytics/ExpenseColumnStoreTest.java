@@ -0,0 +1,71 @@
+package com.Akkshay.expensemanager.analytics;
+
+import com.Akkshay.expensemanager.dao.CategoryRegistry;
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.model.Category;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Runs against the in-memory H2 database the surefire configuration selects. */
+class ExpenseColumnStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 11, 5);
+
+    private final ExpenseColumnStore store = ExpenseColumnStore.getInstance();
+    private final Category category = CategoryRegistry.getInstance().getOrCreate("Column Store");
+
+    @Test
+    void readsBackTheIdsOfABulkInsert() {
+        ExpenseColumns columns = store.getColumns();
+        Expense first = new Expense(Money.parse("10"), DAY, "bulk insert one", category);
+        Expense second = new Expense(Money.parse("20"), DAY, "bulk insert two", category);
+
+        new ExpenseDAO().saveExpenses(List.of(first, second));
+        awaitEvents();
+
+        assertArrayEquals(new long[]{first.getExpenseId(), second.getExpenseId()},
+                columns.findIds(null, null, List.of("Column Store"), "bulk insert"));
+    }
+
+    @Test
+    void catchesUpOnARowThatCommittedAfterAHigherId() {
+        ExpenseColumns columns = store.getColumns();
+        Expense late = new Expense(Money.parse("30"), DAY, "committed late", category);
+        Expense early = new Expense(Money.parse("40"), DAY, "committed early", category);
+        // Written like another process would: nothing is published for it
+        try (Session other = HibernateUtil.getSessionFactory().openSession()) {
+            other.beginTransaction();
+            other.persist(late);
+            other.flush();
+
+            new ExpenseDAO().saveExpenses(List.of(early));
+            awaitEvents();
+            other.getTransaction().commit();
+        }
+        assertTrue(late.getExpenseId() < early.getExpenseId());
+
+        ChangeEventBus.getInstance().publish(ChangeEvent.bulkChange(Expense.class));
+        awaitEvents();
+
+        assertArrayEquals(new long[]{late.getExpenseId(), early.getExpenseId()},
+                columns.findIds(null, null, null, "committed"));
+    }
+
+    // Queued behind the events published so far, and reads no rows itself
+    private void awaitEvents() {
+        store.syncModifiedSince(Instant.now().plus(1, ChronoUnit.DAYS)).join();
+    }
+}
@@ -0,0 +1,115 @@
+package com.Akkshay.expensemanager.analytics;
+
+import com.Akkshay.expensemanager.model.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExpenseColumnsTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path directory;
+
+    private ExpenseColumns sample() {
+        ExpenseColumns columns = new ExpenseColumns(4);
+        columns.upsert(1, MARCH, Money.parse("450.00"), "Groceries", "Weekly shop");
+        columns.upsert(2, MARCH.plusDays(3), Money.parse("15000"), "Rent", null);
+        columns.upsert(3, MARCH.plusMonths(1), Money.parse("120.50"), "Groceries", "Corner café");
+        columns.upsert(5, MARCH.plusMonths(1).plusDays(2), Money.parse("80"), "Transport", "Metro card");
+        return columns;
+    }
+
+    @Test
+    void totalsByDateRangeAndCategory() {
+        ExpenseColumns columns = sample();
+
+        assertEquals(Money.parse("15450.00"), columns.total(MARCH, MARCH.plusMonths(1).minusDays(1)));
+        assertEquals(Money.parse("15650.50"), columns.total(null, null));
+        assertEquals(Map.of("Groceries", Money.parse("570.50"), "Rent", Money.parse("15000"),
+                "Transport", Money.parse("80")), columns.totalsByCategory(null, null));
+    }
+
+    @Test
+    void upsertReplacesTheRowWithTheSameId() {
+        ExpenseColumns columns = sample();
+        columns.upsert(2, MARCH.plusDays(3), Money.parse("14000"), "Rent", null);
+        columns.remove(5);
+
+        assertEquals(3, columns.size());
+        assertEquals(Money.parse("14570.50"), columns.total(null, null));
+    }
+
+    @Test
+    void findsIdsByCategoryAndText() {
+        ExpenseColumns columns = sample();
+
+        assertArrayEquals(new long[]{1, 3}, columns.findIds(null, null, List.of("Groceries"), null));
+        assertArrayEquals(new long[]{3}, columns.findIds(null, null, null, "CAFÉ"));
+        assertArrayEquals(new long[]{2}, columns.findIds(MARCH.plusDays(1), MARCH.plusDays(10), null, null));
+    }
+
+    @Test
+    void readsBackWhatItWrote() throws IOException {
+        ExpenseColumns columns = sample();
+        Path file = directory.resolve("columns.bin");
+        try (FileChannel channel = open(file)) {
+            long end = columns.writeTo(channel, 16);
+            assertEquals(end, channel.size());
+
+            ExpenseColumns read = ExpenseColumns.readFrom(channel, 16);
+
+            assertEquals(columns.size(), read.size());
+            assertEquals(5, read.maxId());
+            assertEquals(columns.totalsByCategory(null, null), read.totalsByCategory(null, null));
+            assertEquals(columns.totalsByMonth(null, null), read.totalsByMonth(null, null));
+            assertArrayEquals(new long[]{3}, read.findIds(null, null, null, "café"));
+        }
+    }
+
+    @Test
+    void readsBackColumnsLargerThanOneWriteChunk() throws IOException {
+        ExpenseColumns columns = new ExpenseColumns(200_000);
+        for (int id = 1; id <= 200_000; id++) {
+            columns.upsert(id, MARCH.plusDays(id % 400), Money.ofMinor(id), id % 2 == 0 ? "Even" : "Odd", null);
+        }
+        Path file = directory.resolve("large.bin");
+        try (FileChannel channel = open(file)) {
+            columns.writeTo(channel, 0);
+
+            ExpenseColumns read = ExpenseColumns.readFrom(channel, 0);
+
+            assertEquals(200_000, read.size());
+            assertEquals(200_000, read.maxId());
+            assertEquals(columns.totalsByCategory(null, null), read.totalsByCategory(null, null));
+            assertEquals(columns.totalsByMonth(null, null), read.totalsByMonth(null, null));
+        }
+    }
+
+    @Test
+    void refusesAFileCutShort() throws IOException {
+        Path file = directory.resolve("columns.bin");
+        try (FileChannel channel = open(file)) {
+            long end = sample().writeTo(channel, 0);
+            channel.truncate(end - 1);
+
+            assertThrows(IOException.class, () -> ExpenseColumns.readFrom(channel, 0));
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+}
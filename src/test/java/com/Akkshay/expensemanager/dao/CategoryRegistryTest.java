@@ -0,0 +1,39 @@
+package com.Akkshay.expensemanager.dao;
+
+import com.Akkshay.expensemanager.model.Category;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Runs against the in-memory H2 database the surefire configuration selects. */
+class CategoryRegistryTest {
+
+    private final CategoryRegistry registry = CategoryRegistry.getInstance();
+
+    @Test
+    void findsACategoryWhateverTheCase() {
+        Category created = registry.getOrCreate("Eating Out");
+
+        assertSame(created, registry.getOrCreate("  eating OUT "));
+        assertSame(created, registry.find("EATING OUT"));
+        assertEquals("eating out", created.getCategoryKey());
+    }
+
+    @Test
+    void reloadsTheSameCategoryByItsKey() {
+        Long id = registry.getOrCreate("Utilities").getCategoryId();
+        registry.invalidate();
+
+        assertEquals(id, UnitOfWork.inTransaction(() -> registry.getOrCreate("UTILITIES").getCategoryId()));
+    }
+
+    @Test
+    void theDatabaseRejectsANameThatDiffersOnlyInCase() {
+        registry.getOrCreate("Transport");
+
+        assertThrows(DataAccessException.class, () -> UnitOfWork.inTransaction(() ->
+                UnitOfWork.currentSession().persist(new Category("TRANSPORT "))));
+    }
+}
@@ -0,0 +1,116 @@
+package com.Akkshay.expensemanager.dao;
+
+import com.Akkshay.expensemanager.model.Budget;
+import com.Akkshay.expensemanager.model.Category;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.MonthlyRollup;
+import com.Akkshay.expensemanager.model.MonthlyRollupId;
+import com.Akkshay.expensemanager.model.Savings;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Runs against the in-memory H2 database the surefire configuration selects. */
+class MonthlyRollupDAOTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 1);
+
+    private static Category groceries;
+    private static Category rent;
+
+    private final ExpenseDAO expenses = new ExpenseDAO();
+    private final MonthlyRollupDAO rollups = new MonthlyRollupDAO();
+
+    @BeforeAll
+    static void createCategories() {
+        groceries = CategoryRegistry.getInstance().getOrCreate("Groceries");
+        rent = CategoryRegistry.getInstance().getOrCreate("Rent");
+    }
+
+    @Test
+    void saveAddsToTheMonthAndCategory() {
+        expenses.saveExpense(new Expense(Money.parse("450.00"), MARCH.plusDays(2), "Weekly shop", groceries));
+        expenses.saveExpense(new Expense(Money.parse("120.50"), MARCH.plusDays(20), null, groceries));
+
+        assertEquals(Money.parse("570.50"), spend(MARCH, groceries));
+    }
+
+    @Test
+    void updateMovesTheAmountToTheNewMonthAndCategory() {
+        LocalDate april = MARCH.plusMonths(1);
+        Expense expense = new Expense(Money.parse("100"), april.plusDays(4), null, groceries);
+        expenses.saveExpense(expense);
+
+        Expense edited = new Expense(expense);
+        edited.setAmount(Money.parse("150"));
+        expenses.updateExpense(edited);
+        assertEquals(Money.parse("150"), spend(april, groceries));
+
+        edited = new Expense(edited);
+        edited.setCategory(rent);
+        edited.setExpenseDate(april.plusMonths(1));
+        expenses.updateExpense(edited);
+
+        assertEquals(Money.ZERO, spend(april, groceries));
+        assertEquals(Money.ZERO, spend(april, rent));
+        assertEquals(Money.parse("150"), spend(april.plusMonths(1), rent));
+    }
+
+    @Test
+    void deleteTakesTheAmountOut() {
+        LocalDate june = MARCH.plusMonths(3);
+        Expense kept = new Expense(Money.parse("15000"), june, "Rent", rent);
+        Expense deleted = new Expense(Money.parse("80"), june.plusDays(9), null, rent);
+        expenses.saveExpense(kept);
+        expenses.saveExpense(deleted);
+
+        expenses.deleteExpense(deleted);
+
+        assertEquals(Money.parse("15000"), spend(june, rent));
+    }
+
+    @Test
+    void rebuildMatchesTheIncrementalTotals() {
+        LocalDate july = MARCH.plusMonths(4);
+        expenses.saveExpense(new Expense(Money.parse("42.10"), july.plusDays(1), null, groceries));
+        new BudgetDAO().saveBudget(new Budget(Money.parse("2000"), july, "July"));
+        new SavingsDAO().saveSavings(new Savings(Money.parse("300"), july.plusDays(14), null, "Holiday"));
+        Map<MonthlyRollupId, Money[]> incremental = nonZeroRows();
+
+        rollups.rebuild();
+
+        Map<MonthlyRollupId, Money[]> rebuilt = nonZeroRows();
+        assertEquals(incremental.keySet(), rebuilt.keySet());
+        incremental.forEach((id, totals) -> {
+            assertEquals(totals[0], rebuilt.get(id)[0], () -> "spend of " + id);
+            assertEquals(totals[1], rebuilt.get(id)[1], () -> "budget of " + id);
+            assertEquals(totals[2], rebuilt.get(id)[2], () -> "savings of " + id);
+        });
+        assertEquals(Money.parse("2000"), rebuilt.get(new MonthlyRollupId(july, MonthlyRollupId.NO_CATEGORY))[1]);
+    }
+
+    private static Money spend(LocalDate month, Category category) {
+        MonthlyRollup row = UnitOfWork.read(session ->
+                session.find(MonthlyRollup.class, new MonthlyRollupId(month, category.getCategoryId())));
+        return row != null ? row.getSpendTotal() : Money.ZERO;
+    }
+
+    // The rows a rebuild would write: incremental writes leave all-zero rows behind
+    private static Map<MonthlyRollupId, Money[]> nonZeroRows() {
+        Map<MonthlyRollupId, Money[]> rows = new HashMap<>();
+        for (MonthlyRollup row : UnitOfWork.read(session ->
+                session.createQuery("FROM MonthlyRollup", MonthlyRollup.class).list())) {
+            Money[] totals = {row.getSpendTotal(), row.getBudgetTotal(), row.getSavingsTotal()};
+            if (!totals[0].equals(Money.ZERO) || !totals[1].equals(Money.ZERO) || !totals[2].equals(Money.ZERO)) {
+                rows.put(row.getId(), totals);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,57 @@
+package com.Akkshay.expensemanager.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ColumnMappingTest {
+
+    @Test
+    void findsTheUsualColumnNames() {
+        ColumnMapping mapping = ColumnMapping.fromHeader(List.of("Txn Date", "Narration", "Withdrawal", "Category"));
+
+        assertNotNull(mapping);
+        assertEquals(0, mapping.getDateColumn());
+        assertEquals(1, mapping.getDescriptionColumn());
+        assertEquals(2, mapping.getAmountColumn());
+        assertEquals(3, mapping.getCategoryColumn());
+    }
+
+    @Test
+    void ignoresCaseAndSurroundingSpaces() {
+        ColumnMapping mapping = ColumnMapping.fromHeader(List.of(" AMOUNT ", "date"));
+
+        assertNotNull(mapping);
+        assertEquals(1, mapping.getDateColumn());
+        assertEquals(0, mapping.getAmountColumn());
+    }
+
+    @Test
+    void prefersTheEarlierNameInTheList() {
+        // "Date" comes before "Value Date" among the date names
+        ColumnMapping mapping = ColumnMapping.fromHeader(List.of("Value Date", "Date", "Amount"));
+
+        assertNotNull(mapping);
+        assertEquals(1, mapping.getDateColumn());
+    }
+
+    @Test
+    void leavesOptionalColumnsUnmapped() {
+        ColumnMapping mapping = ColumnMapping.fromHeader(List.of("Date", "Amount"));
+
+        assertNotNull(mapping);
+        assertEquals(-1, mapping.getDescriptionColumn());
+        assertEquals(-1, mapping.getCategoryColumn());
+    }
+
+    @Test
+    void needsADateAndAnAmount() {
+        assertNull(ColumnMapping.fromHeader(List.of("Date", "Description")));
+        assertNull(ColumnMapping.fromHeader(List.of("Amount", "Description")));
+        assertNull(ColumnMapping.fromHeader(List.of()));
+    }
+}
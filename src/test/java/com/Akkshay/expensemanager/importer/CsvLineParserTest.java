@@ -0,0 +1,62 @@
+package com.Akkshay.expensemanager.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvLineParserTest {
+
+    private final CsvLineParser parser = new CsvLineParser(',');
+
+    @Test
+    void splitsAndTrimsFields() {
+        assertEquals(List.of("2024-03-01", "Groceries", "-450.00"), parser.parse("2024-03-01, Groceries ,-450.00"));
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertEquals(List.of("", "a", "", ""), parser.parse(",a,,"));
+        assertEquals(List.of(""), parser.parse(""));
+    }
+
+    @Test
+    void keepsDelimitersInsideQuotes() {
+        assertEquals(List.of("01/03/2024", "Rent, March", "15000"), parser.parse("01/03/2024,\"Rent, March\",15000"));
+    }
+
+    @Test
+    void unescapesDoubledQuotes() {
+        assertEquals(List.of("The \"Corner\" Cafe", "120"), parser.parse("\"The \"\"Corner\"\" Cafe\",120"));
+        assertEquals(List.of("", "x"), parser.parse("\"\",x"));
+    }
+
+    @Test
+    void usesTheConfiguredDelimiter() {
+        assertEquals(List.of("a,b", "c"), new CsvLineParser(';').parse("a,b;c"));
+        assertEquals(List.of("a", "b c"), new CsvLineParser('\t').parse("a\tb c"));
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("2024-03-01,\"Rent,15000"));
+    }
+
+    @Test
+    void keepsLineBreaksInsideQuotes() {
+        assertEquals(List.of("2024-03-01", "Dinner\nwith \"friends\"", "80"),
+                parser.parse("2024-03-01,\"Dinner\nwith \"\"friends\"\"\",80"));
+    }
+
+    @Test
+    void tellsWhetherARecordEndsInsideQuotes() {
+        assertTrue(parser.endsInsideQuotes("2024-03-01,\"Dinner"));
+        assertTrue(parser.endsInsideQuotes("2024-03-01,\"Dinner \"\"at"));
+        assertFalse(parser.endsInsideQuotes("2024-03-01,\"Dinner\nout\",80"));
+        assertFalse(parser.endsInsideQuotes("2024-03-01,Rent,15000"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.Akkshay.expensemanager.importer;
+
+import com.Akkshay.expensemanager.dao.CategoryRegistry;
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.model.Expense;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Runs against the in-memory H2 database the surefire configuration selects. */
+class CsvStatementImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void importsRecordsWithLineBreaksInQuotedFields() throws IOException, InterruptedException {
+        Path file = write("Date,Description,Amount,Category",
+                "2024-03-01,\"Dinner",
+                "with friends\",80.00,Imported Dining",
+                "2024-03-02,Groceries,450.00,imported dining",
+                "2024-03-03,\"Never closed,12.00,Imported Dining");
+
+        ImportReport report = new CsvStatementImporter().importFile(file, null, null);
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(5, report.getSampleRejections().get(0).getLineNumber());
+        assertNotNull(CategoryRegistry.getInstance().find("IMPORTED DINING"));
+    }
+
+    @Test
+    void rollsBackTheCategoriesOfAFailedBatch() throws IOException {
+        Path file = write("Date,Description,Amount,Category",
+                "2024-04-01,Bus pass,40.00,Imported Travel");
+        ExpenseDAO failingDAO = new ExpenseDAO() {
+            @Override
+            public void saveExpenses(Collection<Expense> expenses) {
+                super.saveExpenses(expenses);
+                throw new IllegalStateException("Disk full");
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> new CsvStatementImporter(failingDAO).importFile(file, null, null));
+
+        CategoryRegistry.getInstance().invalidate();
+        assertNull(CategoryRegistry.getInstance().find("imported travel"));
+    }
+
+    private Path write(String... lines) throws IOException {
+        Path file = directory.resolve("statement.csv");
+        Files.write(file, List.of(lines));
+        return file;
+    }
+}
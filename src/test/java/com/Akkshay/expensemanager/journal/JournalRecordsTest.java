@@ -0,0 +1,135 @@
+package com.Akkshay.expensemanager.journal;
+
+import com.Akkshay.expensemanager.model.Budget;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.model.Savings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalRecordsTest {
+
+    @TempDir
+    Path directory;
+
+    private final JournalEntry first = JournalEntry.saveBudget(
+            new Budget(Money.parse("1200.50"), LocalDate.of(2024, 3, 1), "March"));
+    private final JournalEntry second = JournalEntry.saveSavings(
+            new Savings(Money.parse("75"), LocalDate.of(2024, 3, 15), null, "Holiday"));
+
+    @Test
+    void framesLengthAndChecksumBeforeThePayload() {
+        byte[] payload = first.encode();
+        ByteBuffer record = JournalRecords.frame(payload);
+
+        assertEquals(JournalRecords.HEADER_BYTES + payload.length, record.remaining());
+        assertEquals(payload.length, record.getInt(0));
+    }
+
+    @Test
+    void recoversEveryIntactRecord() throws IOException {
+        Path file = directory.resolve("journal.log");
+        try (FileChannel channel = open(file)) {
+            write(channel, JournalRecords.frame(first.encode()), JournalRecords.frame(second.encode()));
+            long size = channel.size();
+
+            List<JournalEntry> entries = JournalRecords.recover(channel, file);
+
+            assertEquals(List.of(first.toString(), second.toString()),
+                    entries.stream().map(JournalEntry::toString).toList());
+            assertEquals(size, channel.size());
+        }
+    }
+
+    @Test
+    void cutsOffATornLastRecord() throws IOException {
+        Path file = directory.resolve("journal.log");
+        try (FileChannel channel = open(file)) {
+            ByteBuffer intact = JournalRecords.frame(first.encode());
+            ByteBuffer torn = JournalRecords.frame(second.encode());
+            torn.limit(torn.limit() - 3);
+            write(channel, intact, torn);
+
+            List<JournalEntry> entries = JournalRecords.recover(channel, file);
+
+            assertEquals(1, entries.size());
+            assertEquals(first.getKey(), entries.get(0).getKey());
+            assertEquals(intact.capacity(), channel.size());
+        }
+    }
+
+    @Test
+    void cutsOffFromTheFirstRecordWithABadChecksum() throws IOException {
+        Path file = directory.resolve("journal.log");
+        try (FileChannel channel = open(file)) {
+            ByteBuffer corrupt = JournalRecords.frame(first.encode());
+            corrupt.put(JournalRecords.HEADER_BYTES, (byte) (corrupt.get(JournalRecords.HEADER_BYTES) ^ 1));
+            write(channel, corrupt, JournalRecords.frame(second.encode()));
+
+            assertTrue(JournalRecords.recover(channel, file).isEmpty());
+            assertEquals(0, channel.size());
+        }
+    }
+
+    @Test
+    void cutsOffAnImpossibleLength() throws IOException {
+        Path file = directory.resolve("journal.log");
+        try (FileChannel channel = open(file)) {
+            ByteBuffer intact = JournalRecords.frame(first.encode());
+            ByteBuffer garbage = ByteBuffer.allocate(JournalRecords.HEADER_BYTES)
+                    .putInt(JournalRecords.MAX_RECORD_BYTES + 1).putInt(0).flip();
+            write(channel, intact, garbage);
+
+            assertEquals(1, JournalRecords.recover(channel, file).size());
+            assertEquals(intact.capacity(), channel.size());
+        }
+    }
+
+    @Test
+    void recoversRejectedWrites() throws IOException {
+        Path file = directory.resolve("journal-rejected.log");
+        RejectedWrite rejected = new RejectedWrite(first, "ORA-00001: unique constraint violated",
+                Instant.parse("2024-03-02T10:15:30Z"));
+        RejectedWrite withoutReason = new RejectedWrite(second, null, Instant.parse("2024-03-03T08:00:00Z"));
+        try (FileChannel channel = open(file)) {
+            write(channel, JournalRecords.frame(rejected.encode()), JournalRecords.frame(withoutReason.encode()));
+
+            List<RejectedWrite> writes = JournalRecords.recover(channel, file, RejectedWrite::decode);
+
+            assertEquals(List.of(rejected.toString(), withoutReason.toString()),
+                    writes.stream().map(RejectedWrite::toString).toList());
+            assertEquals(first.getKey(), writes.get(0).getEntry().getKey());
+        }
+    }
+
+    @Test
+    void recoversNothingFromAnEmptyFile() throws IOException {
+        Path file = directory.resolve("journal.log");
+        try (FileChannel channel = open(file)) {
+            assertTrue(JournalRecords.recover(channel, file).isEmpty());
+        }
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer... records) throws IOException {
+        for (ByteBuffer record : records) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        }
+    }
+}
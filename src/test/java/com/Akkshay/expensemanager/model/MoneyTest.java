@@ -0,0 +1,68 @@
+package com.Akkshay.expensemanager.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void parsesToMinorUnits() {
+        assertEquals(125050, Money.parse("1250.5").getMinorUnits());
+        assertEquals(7, Money.parse(" 0.07 ").getMinorUnits());
+        assertEquals(-1999, Money.parse("-19.99").getMinorUnits());
+        assertSame(Money.ZERO, Money.parse("0.00"));
+    }
+
+    @Test
+    void rejectsTextThatIsNotANumber() {
+        assertThrows(NumberFormatException.class, () -> Money.parse("12,50"));
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+    }
+
+    @Test
+    void roundsHalfUpToTwoDigits() {
+        assertEquals(Money.ofMinor(1001), Money.of(new BigDecimal("10.005")));
+        assertEquals(Money.ofMinor(1000), Money.of(new BigDecimal("10.0049")));
+        assertEquals(Money.ofMinor(-1001), Money.of(new BigDecimal("-10.005")));
+    }
+
+    @Test
+    void addsAndSubtractsExactly() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.parse("0.10"));
+        }
+        assertEquals(Money.parse("1.00"), total);
+        assertEquals(Money.parse("-0.25"), Money.parse("0.75").minus(Money.parse("1")));
+        assertEquals(Money.parse("0.25"), Money.parse("-0.25").abs());
+        assertEquals(Money.parse("3.50"), Money.sum(List.of("1.25", "2.25"), Money::parse));
+    }
+
+    @Test
+    void throwsOnOverflow() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+        assertThrows(ArithmeticException.class, () -> Money.sum(List.of(max, max), amount -> amount));
+    }
+
+    @Test
+    void printsTwoDigits() {
+        assertEquals("1250.50", Money.parse("1250.5").toString());
+        assertEquals("-0.07", Money.ofMinor(-7).toString());
+        assertEquals(new BigDecimal("12.30"), Money.parse("12.3").toBigDecimal());
+    }
+
+    @Test
+    void comparesByAmount() {
+        assertEquals(0, Money.parse("5").compareTo(Money.parse("5.00")));
+        assertEquals(-1, Integer.signum(Money.parse("4.99").compareTo(Money.parse("5"))));
+        assertEquals(Money.parse("5").hashCode(), Money.parse("5.00").hashCode());
+    }
+}
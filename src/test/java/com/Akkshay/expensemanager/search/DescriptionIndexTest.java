@@ -0,0 +1,108 @@
+package com.Akkshay.expensemanager.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DescriptionIndexTest {
+
+    @Test
+    void countsEditsAndTranspositions() {
+        assertTrue(DescriptionIndex.withinEdits("grocery", "grocery", 0));
+        assertTrue(DescriptionIndex.withinEdits("grocery", "grocry", 1));
+        assertTrue(DescriptionIndex.withinEdits("grocery", "grocerys", 1));
+        assertTrue(DescriptionIndex.withinEdits("grocery", "grocary", 1));
+        // A swap of neighbours is one edit, not two
+        assertTrue(DescriptionIndex.withinEdits("grocery", "gorcery", 1));
+        assertFalse(DescriptionIndex.withinEdits("grocery", "gorcary", 1));
+        assertTrue(DescriptionIndex.withinEdits("grocery", "gorcary", 2));
+        assertFalse(DescriptionIndex.withinEdits("rent", "rental", 1));
+    }
+
+    @Test
+    void matchesPrefixesAndTypos() {
+        DescriptionIndex index = new DescriptionIndex();
+        index.add(1, "Weekly grocery shop");
+        index.add(2, "Rent");
+        index.add(3, "Groceries and wine");
+
+        assertArrayEquals(new long[]{1, 3}, index.search("groc"));
+        assertArrayEquals(new long[]{1}, index.search("weekyl"));
+        assertArrayEquals(new long[]{3}, index.search("GROCERIES wine"));
+        assertArrayEquals(new long[0], index.search("rent wine"));
+    }
+
+    @Test
+    void intersectsListsOfSimilarLength() {
+        DescriptionIndex index = new DescriptionIndex();
+        for (long id = 1; id <= 40; id++) {
+            index.add(id, (id % 2 == 0 ? "even " : "odd ") + (id % 3 == 0 ? "three" : "other"));
+        }
+
+        assertArrayEquals(LongStream.rangeClosed(1, 40).filter(id -> id % 6 == 0).toArray(),
+                index.search("even three"));
+    }
+
+    @Test
+    void intersectsAShortListWithAMuchLongerOne() {
+        DescriptionIndex index = new DescriptionIndex();
+        for (long id = 1; id <= 1000; id++) {
+            index.add(id, id % 250 == 0 ? "card rare" : "card");
+        }
+
+        assertArrayEquals(new long[]{250, 500, 750, 1000}, index.search("rare card"));
+        assertArrayEquals(new long[]{250, 500, 750, 1000}, index.search("card rare"));
+    }
+
+    @Test
+    void removesWithAndWithoutTheDescription() {
+        DescriptionIndex index = new DescriptionIndex();
+        index.add(1, "Metro card");
+        index.add(2, "Metro ticket");
+        index.add(3, null);
+        index.add(4, "Taxi");
+
+        index.remove(1, "Metro card");
+        assertEquals(1, index.removeIf(id -> id == 2 || id == 9));
+
+        assertEquals(2, index.size());
+        assertEquals(4, index.maxId());
+        assertTrue(index.contains(3));
+        assertArrayEquals(new long[0], index.search("metro"));
+        assertArrayEquals(new long[]{4}, index.search("taxi"));
+    }
+
+    @Test
+    void readsBackWhatItWrote() throws IOException {
+        DescriptionIndex index = new DescriptionIndex();
+        index.add(7, "Corner café");
+        index.add(300, null);
+        // Gaps that need one, two and all ten bytes of a varint
+        index.add(100_000, "café au lait");
+        index.add(Long.MAX_VALUE - 1, "Corner shop");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            index.writeTo(out);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        DescriptionIndex read = DescriptionIndex.readFrom(in);
+
+        assertEquals(-1, in.read());
+        assertEquals(4, read.size());
+        assertEquals(Long.MAX_VALUE - 1, read.maxId());
+        assertTrue(read.contains(300));
+        assertArrayEquals(new long[]{7, 100_000}, read.search("café"));
+        assertArrayEquals(new long[]{7, Long.MAX_VALUE - 1}, read.search("corner"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.Akkshay.expensemanager.search;
+
+import com.Akkshay.expensemanager.dao.CategoryRegistry;
+import com.Akkshay.expensemanager.dao.ExpenseDAO;
+import com.Akkshay.expensemanager.event.ChangeEvent;
+import com.Akkshay.expensemanager.event.ChangeEventBus;
+import com.Akkshay.expensemanager.model.Category;
+import com.Akkshay.expensemanager.model.Expense;
+import com.Akkshay.expensemanager.model.Money;
+import com.Akkshay.expensemanager.util.HibernateUtil;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Runs against the in-memory H2 database the surefire configuration selects. */
+class ExpenseSearchIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 12, 9);
+
+    private final ExpenseSearchIndex search = ExpenseSearchIndex.getInstance();
+    private final Category category = CategoryRegistry.getInstance().getOrCreate("Search Index");
+
+    @Test
+    void readsBackTheIdsOfABulkInsert() {
+        search.search("anything");
+        Expense first = new Expense(Money.parse("10"), DAY, "quokka one", category);
+        Expense second = new Expense(Money.parse("20"), DAY, "quokka two", category);
+
+        new ExpenseDAO().saveExpenses(List.of(first, second));
+
+        // Searches run after the events published before them
+        assertArrayEquals(new long[]{first.getExpenseId(), second.getExpenseId()}, search.search("quokka"));
+    }
+
+    @Test
+    void catchesUpOnARowThatCommittedAfterAHigherId() {
+        search.search("anything");
+        Expense late = new Expense(Money.parse("30"), DAY, "wombat late", category);
+        Expense early = new Expense(Money.parse("40"), DAY, "wombat early", category);
+        // Written like another process would: nothing is published for it
+        try (Session other = HibernateUtil.getSessionFactory().openSession()) {
+            other.beginTransaction();
+            other.persist(late);
+            other.flush();
+
+            new ExpenseDAO().saveExpenses(List.of(early));
+            search.search("anything");
+            other.getTransaction().commit();
+        }
+        assertTrue(late.getExpenseId() < early.getExpenseId());
+
+        ChangeEventBus.getInstance().publish(ChangeEvent.bulkChange(Expense.class));
+
+        assertArrayEquals(new long[]{late.getExpenseId(), early.getExpenseId()}, search.search("wombat"));
+    }
+}
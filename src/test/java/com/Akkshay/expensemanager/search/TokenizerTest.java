@@ -0,0 +1,32 @@
+package com.Akkshay.expensemanager.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenizerTest {
+
+    @Test
+    void splitsOnAnythingButLettersAndDigits() {
+        assertEquals(List.of("uber", "trip", "12", "03"), Tokenizer.tokens("UBER *Trip 12-03"));
+    }
+
+    @Test
+    void keepsTheFirstOfRepeatedTerms() {
+        assertEquals(List.of("coffee", "and", "cake"), Tokenizer.tokens("Coffee and cake, and COFFEE"));
+    }
+
+    @Test
+    void keepsLettersOutsideAscii() {
+        assertEquals(List.of("café", "crème"), Tokenizer.tokens("Café / Crème"));
+    }
+
+    @Test
+    void nothingToSplit() {
+        assertEquals(List.of(), Tokenizer.tokens(null));
+        assertEquals(List.of(), Tokenizer.tokens(""));
+        assertEquals(List.of(), Tokenizer.tokens(" -- "));
+    }
+}
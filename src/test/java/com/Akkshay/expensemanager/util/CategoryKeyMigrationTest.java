@@ -0,0 +1,83 @@
+package com.Akkshay.expensemanager.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CategoryKeyMigrationTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void createOldSchema() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:category-key;MODE=Oracle");
+        try (Statement statement = connection.createStatement()) {
+            // As hbm2ddl created them before CATEGORY_KEY existed
+            statement.execute("CREATE TABLE TBL_CATEGORIES (CATEGORY_ID NUMBER(19) PRIMARY KEY,"
+                    + " CATEGORY_NAME VARCHAR2(100) NOT NULL, CONSTRAINT UK_OLD_NAME UNIQUE (CATEGORY_NAME))");
+            statement.execute("CREATE TABLE TBL_EXPENSES (EXPENSE_ID NUMBER(19) PRIMARY KEY,"
+                    + " CATEGORY_ID NUMBER(19) NOT NULL REFERENCES TBL_CATEGORIES, MODIFIED_AT TIMESTAMP WITH TIME ZONE)");
+            statement.execute("CREATE TABLE TBL_MONTHLY_ROLLUP (ROLLUP_MONTH DATE, CATEGORY_ID NUMBER(19))");
+            statement.execute("INSERT INTO TBL_CATEGORIES VALUES (1, 'Food'), (2, 'food '), (3, 'Rent'), (4, 'FOOD')");
+            statement.execute("INSERT INTO TBL_EXPENSES VALUES (10, 1, NULL), (11, 2, NULL), (12, 3, NULL), (13, 4, NULL)");
+            statement.execute("INSERT INTO TBL_MONTHLY_ROLLUP VALUES (DATE '2024-03-01', 2)");
+        }
+    }
+
+    @AfterEach
+    void dropDatabase() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    void mergesCategoriesThatDifferOnlyInCase() throws SQLException {
+        assertEquals(2, CategoryKeyMigration.migrate(connection, false));
+
+        assertEquals(List.of("1 food", "3 rent"), rows("SELECT CATEGORY_ID, CATEGORY_KEY FROM TBL_CATEGORIES ORDER BY 1"));
+        assertEquals(List.of("10 1", "11 1", "12 3", "13 1"), rows("SELECT EXPENSE_ID, CATEGORY_ID FROM TBL_EXPENSES ORDER BY 1"));
+        // Only the rows that moved count as modified
+        assertEquals(List.of("10", "12"), rows("SELECT EXPENSE_ID FROM TBL_EXPENSES WHERE MODIFIED_AT IS NULL ORDER BY 1"));
+        assertEquals(List.of(), rows("SELECT * FROM TBL_MONTHLY_ROLLUP"));
+    }
+
+    @Test
+    void makesTheKeyUniqueInsteadOfTheName() throws SQLException {
+        CategoryKeyMigration.migrate(connection, false);
+
+        try (Statement statement = connection.createStatement()) {
+            assertThrows(SQLException.class, () ->
+                    statement.execute("INSERT INTO TBL_CATEGORIES VALUES (5, 'RENT', 'rent')"));
+            statement.execute("INSERT INTO TBL_CATEGORIES VALUES (6, 'Rent', 'rent ')");
+        }
+        assertEquals(0, CategoryKeyMigration.migrate(connection, false));
+    }
+
+    private List<String> rows(String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            int columns = result.getMetaData().getColumnCount();
+            while (result.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    row.append(i > 1 ? " " : "").append(result.getString(i));
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,78 @@
+package com.Akkshay.expensemanager.util;
+
+import com.Akkshay.expensemanager.util.IndexMigration.DeclaredIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndexMigrationTest {
+
+    private static final List<DeclaredIndex> DECLARED = List.of(
+            new DeclaredIndex("TBL_EXPENSES", "IDX_EXPENSES_DATE", List.of("EXPENSE_DATE", "EXPENSE_ID")),
+            new DeclaredIndex("TBL_EXPENSES", "IDX_EXPENSES_MODIFIED", List.of("MODIFIED_AT")),
+            new DeclaredIndex("TBL_SAVINGS", "IDX_SAVINGS_DATE", List.of("SAVINGS_DATE")),
+            new DeclaredIndex("TBL_BUDGET", "IDX_BUDGET_MONTH", List.of("BUDGET_MONTH")));
+
+    private Connection connection;
+
+    @BeforeEach
+    void createOldSchema() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:indexes;MODE=Oracle");
+        try (Statement statement = connection.createStatement()) {
+            // As created before the indexes were declared; TBL_BUDGET does not exist yet
+            statement.execute("CREATE TABLE TBL_EXPENSES (EXPENSE_ID NUMBER(19) PRIMARY KEY, EXPENSE_DATE DATE)");
+            statement.execute("CREATE TABLE TBL_SAVINGS (SAVINGS_ID NUMBER(19) PRIMARY KEY, SAVINGS_DATE DATE)");
+            // Made by a DBA under another name
+            statement.execute("CREATE INDEX SAVINGS_BY_DATE ON TBL_SAVINGS (SAVINGS_DATE)");
+        }
+    }
+
+    @AfterEach
+    void dropDatabase() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    void createsOnlyWhatIsMissing() throws SQLException {
+        assertEquals(List.of("IDX_EXPENSES_DATE"), IndexMigration.createMissing(connection, DECLARED));
+
+        assertEquals(List.of("EXPENSE_DATE", "EXPENSE_ID"), indexColumns("IDX_EXPENSES_DATE"));
+        assertEquals(List.of(), indexColumns("IDX_SAVINGS_DATE"));
+    }
+
+    @Test
+    void secondRunFindsNothingToDo() throws SQLException {
+        IndexMigration.createMissing(connection, DECLARED);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE TBL_EXPENSES ADD MODIFIED_AT TIMESTAMP WITH TIME ZONE");
+        }
+
+        assertEquals(List.of("IDX_EXPENSES_MODIFIED"), IndexMigration.createMissing(connection, DECLARED));
+        assertEquals(List.of(), IndexMigration.createMissing(connection, DECLARED));
+    }
+
+    private List<String> indexColumns(String index) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS"
+                     + " WHERE INDEX_NAME = '" + index + "' ORDER BY ORDINAL_POSITION")) {
+            while (rows.next()) {
+                columns.add(rows.getString(1));
+            }
+        }
+        return columns;
+    }
+}